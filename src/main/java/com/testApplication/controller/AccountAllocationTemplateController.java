@@ -1,6 +1,7 @@
 package com.testApplication.controller;
 
 import com.testApplication.dto.AccountAllocationTemplateDTO;
+import com.testApplication.dto.CursorPageDTO;
 import com.testApplication.exception.AllocationTemplateException;
 import com.testApplication.service.AccountAllocationTemplateService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,7 +9,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.Map;
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/allocation-templates")
@@ -22,8 +22,10 @@ public class AccountAllocationTemplateController {
     }
 
     @GetMapping
-    public List<AccountAllocationTemplateDTO> getAllTemplates() {
-        return templateService.getAllTemplates();
+    public CursorPageDTO<AccountAllocationTemplateDTO> getAllTemplates(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        return templateService.getAllTemplates(cursor, size);
     }
 
     @GetMapping("/{id}")
@@ -41,15 +43,19 @@ public class AccountAllocationTemplateController {
     }
 
     @GetMapping("/by-type")
-    public ResponseEntity<List<AccountAllocationTemplateDTO>> getTemplatesByType(
-            @RequestParam Boolean isSource) {
-        return ResponseEntity.ok(templateService.getTemplatesByType(isSource));
+    public ResponseEntity<CursorPageDTO<AccountAllocationTemplateDTO>> getTemplatesByType(
+            @RequestParam Boolean isSource,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        return ResponseEntity.ok(templateService.getTemplatesByType(isSource, cursor, size));
     }
 
     @GetMapping("/by-legal-entity/{legalEntityId}")
-    public ResponseEntity<List<AccountAllocationTemplateDTO>> getTemplatesByLegalEntity(
-            @PathVariable Long legalEntityId) {
-        return ResponseEntity.ok(templateService.getTemplatesByLegalEntity(legalEntityId));
+    public ResponseEntity<CursorPageDTO<AccountAllocationTemplateDTO>> getTemplatesByLegalEntity(
+            @PathVariable Long legalEntityId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        return ResponseEntity.ok(templateService.getTemplatesByLegalEntity(legalEntityId, cursor, size));
     }    @PostMapping("/legal-entity/{legalEntityId}")
     public ResponseEntity<?> createTemplate(
             @PathVariable(required = true) Long legalEntityId,
@@ -1,8 +1,11 @@
 package com.testApplication.controller;
 
+import com.testApplication.dto.AccountBalanceDTO;
 import com.testApplication.dto.AccountDTO;
+import com.testApplication.dto.CursorPageDTO;
 import com.testApplication.exception.AccountException;
 import com.testApplication.mapper.AccountMapper;
+import com.testApplication.service.AccountBalanceService;
 import com.testApplication.service.AccountService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,13 +20,19 @@ public class AccountController {
 
     private final AccountService accountService;
     private final AccountMapper accountMapper;
+    private final AccountBalanceService accountBalanceService;
 
-    public AccountController(AccountService accountService, AccountMapper accountMapper) {
+    public AccountController(AccountService accountService, AccountMapper accountMapper,
+                             AccountBalanceService accountBalanceService) {
         this.accountService = accountService;
         this.accountMapper = accountMapper;
+        this.accountBalanceService = accountBalanceService;
     }    @GetMapping
-    public List<AccountDTO> getAllAccounts(@RequestParam Long legalEntityId) {
-        return accountService.getAllAccounts(legalEntityId);
+    public CursorPageDTO<AccountDTO> getAllAccounts(
+            @RequestParam Long legalEntityId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        return accountService.getAllAccounts(legalEntityId, cursor, size);
     }
 
     @GetMapping("/{id}")
@@ -33,16 +42,29 @@ public class AccountController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Debit and credit totals and balance of the account per currency, maintained as lines are written.
+     */
+    @GetMapping("/{id}/balances")
+    public List<AccountBalanceDTO> getAccountBalances(@PathVariable Long id, @RequestParam Long legalEntityId) {
+        return accountBalanceService.getBalances(legalEntityId, id);
+    }
+
     @GetMapping("/by-legal-entity/{legalEntityId}")
-    public List<AccountDTO> getAccountsByLegalEntity(@PathVariable Long legalEntityId) {
-        return accountService.getAccountsByLegalEntity(legalEntityId);
+    public CursorPageDTO<AccountDTO> getAccountsByLegalEntity(
+            @PathVariable Long legalEntityId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        return accountService.getAccountsByLegalEntity(legalEntityId, cursor, size);
     }
 
     @GetMapping("/by-parent/{parentAccountId}")
-    public List<AccountDTO> getAccountsByParentAccount(
+    public CursorPageDTO<AccountDTO> getAccountsByParentAccount(
             @PathVariable Long parentAccountId,
-            @RequestParam Long legalEntityId) {
-        return accountService.getAccountsByParentAccount(legalEntityId, parentAccountId);
+            @RequestParam Long legalEntityId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        return accountService.getAccountsByParentAccount(legalEntityId, parentAccountId, cursor, size);
     }    @PostMapping
     public ResponseEntity<?> createAccount(
             @RequestBody AccountDTO accountDTO,
@@ -1,44 +1,108 @@
 package com.testApplication.controller;
 
+import com.testApplication.dto.CsvImportJobStatusDTO;
+import com.testApplication.dto.CsvImportResultDTO;
+import com.testApplication.dto.CsvImportSchedulerStatusDTO;
+import com.testApplication.dto.CsvImportSummaryDTO;
+import com.testApplication.dto.CsvImportValidationReportDTO;
+import com.testApplication.dto.CsvMultiEntityImportResultDTO;
+import com.testApplication.dto.ImportBatchDTO;
 import com.testApplication.dto.TransactionLineDTO;
 import com.testApplication.exception.CsvImportException;
+import com.testApplication.service.CsvImportJobService;
+import com.testApplication.service.CsvImportScheduler;
 import com.testApplication.service.CsvImportService;
+import com.testApplication.service.CsvMultiEntityImportService;
+import com.testApplication.service.CsvUploadDecoder;
+import com.testApplication.service.ImportBatchService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
-import java.util.List;
-import java.util.Map;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/import")
 public class CsvImportController {
 
     private final CsvImportService csvImportService;
+    private final CsvImportJobService csvImportJobService;
+    private final CsvMultiEntityImportService csvMultiEntityImportService;
+    private final CsvImportScheduler csvImportScheduler;
+    private final ImportBatchService importBatchService;
+    private final long summaryThresholdBytes;
 
-    public CsvImportController(CsvImportService csvImportService) {
+    public CsvImportController(CsvImportService csvImportService, CsvImportJobService csvImportJobService,
+                               CsvMultiEntityImportService csvMultiEntityImportService,
+                               CsvImportScheduler csvImportScheduler, ImportBatchService importBatchService,
+                               @Value("${app.import.summary-threshold-bytes:1048576}") long summaryThresholdBytes) {
         this.csvImportService = csvImportService;
+        this.csvImportJobService = csvImportJobService;
+        this.csvMultiEntityImportService = csvMultiEntityImportService;
+        this.csvImportScheduler = csvImportScheduler;
+        this.importBatchService = importBatchService;
+        this.summaryThresholdBytes = summaryThresholdBytes;
     }
 
+    /**
+     * Import a CSV of transaction lines.
+     * Small files answer with every imported line, as before. Files above
+     * {@code app.import.summary-threshold-bytes}, or any file with {@code echo=false}, answer with
+     * a summary with the id of the import batch; {@code echo=true} adds the first {@code size}
+     * imported lines, and {@code /api/import/batches/{batchId}/lines} serves the following pages.
+     * A file already imported for the legal entity is not imported again; the answer is the
+     * record of the earlier import, flagged {@code duplicate}. {@code dryRun=true} only validates
+     * the file, see {@link CsvImportService#validateTransactionLines}.
+     */
     @PostMapping("/transaction-lines")
     public ResponseEntity<?> importTransactionLines(
             @RequestParam("file") MultipartFile file,
-            @RequestParam("legalEntityId") Long legalEntityId) {
+            @RequestParam("legalEntityId") Long legalEntityId,
+            @RequestParam(value = "streaming", defaultValue = "false") boolean streaming,
+            @RequestParam(value = "dryRun", defaultValue = "false") boolean dryRun,
+            @RequestParam(value = "echo", required = false) Boolean echo,
+            @RequestParam(value = "size", required = false) Integer size) {
         try {
-            // Validate file
-            if (file.isEmpty()) {
-                throw new CsvImportException.InvalidFileException("File is empty");
+            validateFile(file);
+
+            if (dryRun) {
+                CsvImportValidationReportDTO report = csvImportService.validateTransactionLines(file, legalEntityId);
+                return ResponseEntity.ok(report);
             }
-            
-            // Validate content type
-            if (!file.getContentType().equals("text/csv")) {
-                throw new CsvImportException.InvalidFileException("File must be a CSV file");
+
+            if (streaming) {
+                CsvImportResultDTO result = csvImportScheduler.run(legalEntityId,
+                        () -> csvImportService.importTransactionLinesStreaming(file, legalEntityId));
+                return ResponseEntity.ok(result);
             }
 
-            List<TransactionLineDTO> imported = csvImportService.importTransactionLinesFromCsv(file, legalEntityId);
-            return ResponseEntity.ok(imported);
+            if (echo == null && file.getSize() <= summaryThresholdBytes) {
+                List<TransactionLineDTO> imported = csvImportScheduler.run(legalEntityId,
+                        () -> csvImportService.importTransactionLinesFromCsv(file, legalEntityId));
+                return ResponseEntity.ok(imported);
+            }
+
+            CsvImportSummaryDTO summary = csvImportScheduler.run(legalEntityId,
+                    () -> csvImportService.importTransactionLinesWithSummary(file, legalEntityId));
+            if (Boolean.TRUE.equals(echo)) {
+                // Read back from the committed batch, like every later page
+                summary.setLines(importBatchService.getLines(summary.getImportBatchId(), null, size));
+            }
+            return ResponseEntity.ok(summary);
+        } catch (CsvImportException.DuplicateImportException e) {
+            return ResponseEntity.ok(e.getPreviousImport());
+        } catch (CsvImportException.ImportQueueFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", e.getMessage(), "code", e.getCode()));
         } catch (CsvImportException.LegalEntityNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", e.getMessage(), "code", e.getCode()));
@@ -50,4 +114,198 @@ public class CsvImportController {
                     .body(Map.of("error", e.getMessage(), "code", e.getCode()));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Large-file import: the CSV is sent as the raw request body instead of a multipart part,
+     * so no upload size limit applies and the body is spooled straight to disk. gzip or zlib
+     * compressed bodies are kept compressed on disk and decompressed while parsing.
+     */
+    @PostMapping(value = "/transaction-lines/raw",
+            consumes = {"text/csv", "application/gzip", "application/x-gzip", "application/zlib", "application/octet-stream"})
+    public ResponseEntity<?> importTransactionLinesRaw(
+            InputStream body,
+            @RequestParam("legalEntityId") Long legalEntityId) {
+        try {
+            CsvImportResultDTO result = csvImportScheduler.run(legalEntityId,
+                    () -> csvImportService.importTransactionLinesSpooled(body, legalEntityId));
+            return ResponseEntity.ok(result);
+        } catch (CsvImportException.DuplicateImportException e) {
+            return ResponseEntity.ok(e.getPreviousImport());
+        } catch (CsvImportException.ImportQueueFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", e.getMessage(), "code", e.getCode()));
+        } catch (CsvImportException.LegalEntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", e.getMessage(), "code", e.getCode()));
+        } catch (CsvImportException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage(), "code", e.getCode()));
+        }
+    }
+
+    /**
+     * Import newline-delimited JSON, one {@code TransactionLineDTO}-shaped record per line, e.g.
+     * {@code {"transactionCode":"T1","accountCode":"A1","amount":100,"description":"...","isDebit":true}}.
+     * The body is parsed as it arrives and committed in chunks like a streaming CSV import.
+     */
+    @PostMapping(value = "/transaction-lines/ndjson",
+            consumes = {"application/x-ndjson", "application/jsonl", "application/json"})
+    public ResponseEntity<?> importTransactionLinesNdjson(
+            InputStream body,
+            @RequestParam("legalEntityId") Long legalEntityId) {
+        try {
+            CsvImportResultDTO result = csvImportScheduler.run(legalEntityId,
+                    () -> csvImportService.importTransactionLinesNdjson(body, legalEntityId));
+            return ResponseEntity.ok(result);
+        } catch (CsvImportException.ImportQueueFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", e.getMessage(), "code", e.getCode()));
+        } catch (CsvImportException.LegalEntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", e.getMessage(), "code", e.getCode()));
+        } catch (CsvImportException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage(), "code", e.getCode()));
+        }
+    }
+
+    /**
+     * Import a group-level extract whose first column is {@code legal_entity_id} or {@code legal_entity}.
+     * Each legal entity in the file is imported in parallel; per-entity failures are reported
+     * in {@code errors} without affecting the other entities.
+     */
+    @PostMapping("/transaction-lines/multi-entity")
+    public ResponseEntity<?> importMultiEntityTransactionLines(@RequestParam("file") MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            validateFile(file);
+            CsvMultiEntityImportResultDTO result = csvMultiEntityImportService.importMultiEntity(in);
+            return ResponseEntity.ok(result);
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Failed to read CSV: " + e.getMessage(), "code", "INVALID_FILE"));
+        } catch (CsvImportException.LegalEntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", e.getMessage(), "code", e.getCode()));
+        } catch (CsvImportException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage(), "code", e.getCode()));
+        }
+    }
+
+    /**
+     * Start an asynchronous streaming import. With {@code partialAccept=true} malformed lines
+     * are left out instead of failing the job, and listed in {@code /api/import/jobs/{jobId}/errors}.
+     * @return 202 with the job id and initial status; poll {@code /api/import/jobs/{jobId}} for progress
+     */
+    @PostMapping("/transaction-lines/jobs")
+    public ResponseEntity<?> submitImportJob(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam("legalEntityId") Long legalEntityId,
+            @RequestParam(value = "partialAccept", defaultValue = "false") boolean partialAccept) {
+        try {
+            validateFile(file);
+            CsvImportJobStatusDTO status = csvImportJobService.submit(file, legalEntityId, partialAccept);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+        } catch (CsvImportException.DuplicateImportException e) {
+            return ResponseEntity.ok(e.getPreviousImport());
+        } catch (CsvImportException.LegalEntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", e.getMessage(), "code", e.getCode()));
+        } catch (CsvImportException.ImportQueueFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", e.getMessage(), "code", e.getCode()));
+        } catch (CsvImportException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage(), "code", e.getCode()));
+        }
+    }
+
+    /**
+     * Running and queued imports, and how long imports waited for their turn. Queues are listed
+     * per legal entity only for the entities the caller has access to.
+     */
+    @GetMapping("/scheduler")
+    public ResponseEntity<CsvImportSchedulerStatusDTO> getSchedulerStatus() {
+        return ResponseEntity.ok(csvImportJobService.getSchedulerStatus());
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<CsvImportJobStatusDTO> getImportJobStatus(@PathVariable String jobId) {
+        return csvImportJobService.getStatus(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Download the rejected lines of a finished partial-accept job as CSV ({@code line_number,reason}).
+     */
+    @GetMapping(value = "/jobs/{jobId}/errors", produces = "text/csv")
+    public ResponseEntity<Resource> getImportJobErrors(@PathVariable String jobId) {
+        return csvImportJobService.getErrorReport(jobId)
+                .map(file -> ResponseEntity.ok()
+                        .header(HttpHeaders.CONTENT_DISPOSITION,
+                                "attachment; filename=\"import-" + jobId + "-errors.csv\"")
+                        .contentType(MediaType.parseMediaType("text/csv"))
+                        .body((Resource) new FileSystemResource(file)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/batches/{batchId}")
+    public ResponseEntity<?> getImportBatch(@PathVariable Long batchId) {
+        try {
+            return ResponseEntity.ok(importBatchService.getBatch(batchId));
+        } catch (CsvImportException.ImportBatchNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", e.getMessage(), "code", e.getCode()));
+        }
+    }
+
+    /**
+     * The lines an import batch wrote, one keyset page at a time.
+     */
+    @GetMapping("/batches/{batchId}/lines")
+    public ResponseEntity<?> getImportBatchLines(
+            @PathVariable Long batchId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(importBatchService.getLines(batchId, cursor, size));
+        } catch (CsvImportException.ImportBatchNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", e.getMessage(), "code", e.getCode()));
+        }
+    }
+
+    /**
+     * Roll back an import batch: deletes its lines and the transactions and accounts it created
+     * that nothing else uses, and forgets the file so it can be imported again.
+     * @return the batch with the number of deleted and kept rows; 409 if an import of its legal
+     * entity is running, or the batch is still running or was already rolled back
+     */
+    @DeleteMapping("/batches/{batchId}")
+    public ResponseEntity<?> rollbackImportBatch(@PathVariable Long batchId) {
+        try {
+            ImportBatchDTO batch = importBatchService.getBatch(batchId);
+            // Excludes imports of the same legal entity so no chunk lands mid-rollback; never
+            // waits for one to finish, the caller retries instead
+            ImportBatchDTO rolledBack = csvImportScheduler.runExclusive(batch.getLegalEntityId(),
+                    () -> importBatchService.rollback(batchId));
+            return ResponseEntity.ok(rolledBack);
+        } catch (CsvImportException.ImportBatchNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", e.getMessage(), "code", e.getCode()));
+        } catch (CsvImportException.ImportBatchStateException | CsvImportException.LegalEntityBusyException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", e.getMessage(), "code", e.getCode()));
+        }
+    }
+
+    private void validateFile(MultipartFile file) {
+        if (file.isEmpty()) {
+            throw new CsvImportException.InvalidFileException("File is empty");
+        }
+        if (!CsvUploadDecoder.CONTENT_TYPES.contains(file.getContentType())) {
+            throw new CsvImportException.InvalidFileException("File must be a CSV file, optionally gzip-compressed");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.testApplication.controller;
 
+import com.testApplication.dto.CursorPageDTO;
 import com.testApplication.dto.CustomerDTO;
 import com.testApplication.exception.CustomerException;
 import com.testApplication.service.CustomerService;
@@ -8,7 +9,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.Map;
 
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/customers")
@@ -46,14 +46,23 @@ public class CustomerController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * One page of customers in id order; pass the returned {@code nextCursor} as {@code cursor}
+     * for the next page. {@code size} is capped at 500.
+     */
     @GetMapping
-    public List<CustomerDTO> getAllCustomers() {
-        return customerService.getAllCustomers();
+    public CursorPageDTO<CustomerDTO> getAllCustomers(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        return customerService.getAllCustomers(cursor, size);
     }
 
     @GetMapping("/by-legal-entity/{legalEntityId}")
-    public List<CustomerDTO> getCustomersByLegalEntity(@PathVariable Long legalEntityId) {
-        return customerService.getCustomersByLegalEntity(legalEntityId);
+    public CursorPageDTO<CustomerDTO> getCustomersByLegalEntity(
+            @PathVariable Long legalEntityId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        return customerService.getCustomersByLegalEntity(legalEntityId, cursor, size);
     }
 
     @PutMapping("/{id}")
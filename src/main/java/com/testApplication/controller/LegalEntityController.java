@@ -1,11 +1,15 @@
 package com.testApplication.controller;
 
 import com.testApplication.dto.LegalEntityDTO;
+import com.testApplication.dto.TrialBalanceDTO;
 import com.testApplication.service.LegalEntityService;
+import com.testApplication.service.TrialBalanceService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -13,9 +17,11 @@ import java.util.List;
 public class LegalEntityController {
 
     private final LegalEntityService legalEntityService;
+    private final TrialBalanceService trialBalanceService;
 
-    public LegalEntityController(LegalEntityService legalEntityService) {
+    public LegalEntityController(LegalEntityService legalEntityService, TrialBalanceService trialBalanceService) {
         this.legalEntityService = legalEntityService;
+        this.trialBalanceService = trialBalanceService;
     }
 
     @PostMapping
@@ -64,4 +70,14 @@ public class LegalEntityController {
             return ResponseEntity.notFound().build();
         }
     }
+
+    /**
+     * Trial balance of the legal entity as of the end of {@code asOf} (UTC), today when omitted.
+     */
+    @GetMapping("/{id}/trial-balance")
+    public ResponseEntity<TrialBalanceDTO> getTrialBalance(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        return ResponseEntity.ok(trialBalanceService.getTrialBalance(id, asOf));
+    }
 }
@@ -1,27 +1,76 @@
 package com.testApplication.controller;
 
+import com.testApplication.dto.CursorPageDTO;
 import com.testApplication.dto.TransactionDTO;
+import com.testApplication.dto.TransactionPostingDTO;
+import com.testApplication.dto.TransactionSearchCriteriaDTO;
+import com.testApplication.exception.TransactionPostingException;
+import com.testApplication.model.enums.ExportFormatEnum;
+import com.testApplication.service.TransactionExportService;
+import com.testApplication.service.TransactionPostingService;
 import com.testApplication.service.TransactionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/transactions")
 public class TransactionController {
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
+    private final TransactionPostingService transactionPostingService;
 
     @Autowired
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService,
+                                 TransactionExportService transactionExportService,
+                                 TransactionPostingService transactionPostingService) {
         this.transactionService = transactionService;
+        this.transactionExportService = transactionExportService;
+        this.transactionPostingService = transactionPostingService;
     }
 
+    /**
+     * One page of transactions in id order; pass the returned {@code nextCursor} as {@code cursor}
+     * for the next page. {@code size} is capped at 500.
+     */
     @GetMapping
-    public ResponseEntity<List<TransactionDTO>> getAllTransactions() {
-        return ResponseEntity.ok(transactionService.getAllTransactions());
+    public ResponseEntity<CursorPageDTO<TransactionDTO>> getAllTransactions(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        return ResponseEntity.ok(transactionService.getAllTransactions(cursor, size));
+    }
+
+    /**
+     * Streams the legal entity's transactions dated {@code from} to {@code to} (inclusive, UTC)
+     * as CSV or a JSON array.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam Long legalEntityId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "CSV") ExportFormatEnum format) {
+        StreamingResponseBody body = transactionExportService.exportTransactions(legalEntityId, from, to, format);
+        return exportResponse("transactions-" + legalEntityId + "-" + from + "-" + to, format, body);
+    }
+
+    static ResponseEntity<StreamingResponseBody> exportResponse(String fileName, ExportFormatEnum format,
+                                                               StreamingResponseBody body) {
+        boolean json = format == ExportFormatEnum.JSON;
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + fileName + (json ? ".json" : ".csv") + "\"")
+                .contentType(json ? MediaType.APPLICATION_JSON : MediaType.parseMediaType("text/csv"))
+                .body(body);
     }
 
     @GetMapping("/{id}")
@@ -39,6 +88,29 @@ public class TransactionController {
         return new ResponseEntity<>(created, HttpStatus.CREATED);
     }
 
+    /**
+     * Posts an array of balanced transactions with their lines. All of them are validated
+     * first; if any is invalid nothing is posted and every problem is listed in {@code errors}.
+     */
+    @PostMapping("/legal-entity/{legalEntityId}/bulk")
+    public ResponseEntity<?> postTransactions(
+            @PathVariable Long legalEntityId,
+            @RequestBody List<TransactionPostingDTO> transactions) {
+        try {
+            return new ResponseEntity<>(transactionPostingService.postTransactions(legalEntityId, transactions),
+                    HttpStatus.CREATED);
+        } catch (TransactionPostingException.ValidationException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage(), "code", e.getCode(), "errors", e.getErrors()));
+        } catch (TransactionPostingException.LegalEntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", e.getMessage(), "code", e.getCode()));
+        } catch (TransactionPostingException.TooManyTransactionsException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(Map.of("error", e.getMessage(), "code", e.getCode()));
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<TransactionDTO> updateTransaction(
             @PathVariable Long id,
@@ -54,14 +126,35 @@ public class TransactionController {
     }
 
     @GetMapping("/by-customer/{customerId}")
-    public ResponseEntity<List<TransactionDTO>> getTransactionsByCustomer(@PathVariable Long customerId) {
-        List<TransactionDTO> transactions = transactionService.getTransactionsByCustomer(customerId);
+    public ResponseEntity<CursorPageDTO<TransactionDTO>> getTransactionsByCustomer(
+            @PathVariable Long customerId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        CursorPageDTO<TransactionDTO> transactions = transactionService.getTransactionsByCustomer(customerId, cursor, size);
         return ResponseEntity.ok(transactions);
     }
 
     @GetMapping("/by-legal-entity/{legalEntityId}")
-    public ResponseEntity<List<TransactionDTO>> getTransactionsByLegalEntity(@PathVariable Long legalEntityId) {
-        List<TransactionDTO> transactions = transactionService.getTransactionsByLegalEntity(legalEntityId);
+    public ResponseEntity<CursorPageDTO<TransactionDTO>> getTransactionsByLegalEntity(
+            @PathVariable Long legalEntityId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        CursorPageDTO<TransactionDTO> transactions =
+                transactionService.getTransactionsByLegalEntity(legalEntityId, cursor, size);
         return ResponseEntity.ok(transactions);
     }
+
+    /**
+     * Transactions of the legal entity filtered by any of date range, approval status, type,
+     * currency, amount range and customer, sorted by {@code sort} (date or amount, default newest
+     * first) and paged with the returned {@code nextCursor}.
+     */
+    @GetMapping("/by-legal-entity/{legalEntityId}/search")
+    public ResponseEntity<CursorPageDTO<TransactionDTO>> searchTransactions(
+            @PathVariable Long legalEntityId,
+            @ModelAttribute TransactionSearchCriteriaDTO criteria,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        return ResponseEntity.ok(transactionService.searchTransactions(legalEntityId, criteria, cursor, size));
+    }
 }
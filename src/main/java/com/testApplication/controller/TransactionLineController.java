@@ -1,26 +1,54 @@
 package com.testApplication.controller;
 
+import com.testApplication.dto.CursorPageDTO;
 import com.testApplication.model.TransactionLine;
 import com.testApplication.exception.TransactionLineException;
+import com.testApplication.model.enums.ExportFormatEnum;
+import com.testApplication.service.TransactionExportService;
 import com.testApplication.service.TransactionLineService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
 import java.util.Map;
 
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/transaction-lines")
 public class TransactionLineController {
 
-    private final TransactionLineService transactionLineService;    public TransactionLineController(TransactionLineService transactionLineService) {
+    private final TransactionLineService transactionLineService;
+    private final TransactionExportService transactionExportService;
+
+    public TransactionLineController(TransactionLineService transactionLineService,
+                                     TransactionExportService transactionExportService) {
         this.transactionLineService = transactionLineService;
+        this.transactionExportService = transactionExportService;
     }
 
     @GetMapping
-    public ResponseEntity<List<TransactionLine>> getAllTransactionLines() {
-        return ResponseEntity.ok(transactionLineService.getAllTransactionLines());
+    public ResponseEntity<CursorPageDTO<TransactionLine>> getAllTransactionLines(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        return ResponseEntity.ok(transactionLineService.getAllTransactionLines(cursor, size));
+    }
+
+    /**
+     * Streams the lines of the legal entity's transactions dated {@code from} to {@code to}
+     * (inclusive, UTC) as CSV or a JSON array.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactionLines(
+            @RequestParam Long legalEntityId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "CSV") ExportFormatEnum format) {
+        StreamingResponseBody body = transactionExportService.exportTransactionLines(legalEntityId, from, to, format);
+        return TransactionController.exportResponse(
+                "transaction-lines-" + legalEntityId + "-" + from + "-" + to, format, body);
     }
 
     @GetMapping("/{id}")
@@ -85,9 +113,13 @@ public class TransactionLineController {
     }
 
     @GetMapping("/by-transaction/{transactionId}")
-    public ResponseEntity<?> getTransactionLinesByTransaction(@PathVariable Long transactionId) {
+    public ResponseEntity<?> getTransactionLinesByTransaction(
+            @PathVariable Long transactionId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
         try {
-            List<TransactionLine> transactionLines = transactionLineService.getTransactionLinesByTransaction(transactionId);
+            CursorPageDTO<TransactionLine> transactionLines =
+                    transactionLineService.getTransactionLinesByTransaction(transactionId, cursor, size);
             return ResponseEntity.ok(transactionLines);
         } catch (TransactionLineException.TransactionNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -99,9 +131,13 @@ public class TransactionLineController {
     }
 
     @GetMapping("/by-account/{accountId}")
-    public ResponseEntity<?> getTransactionLinesByAccount(@PathVariable Long accountId) {
+    public ResponseEntity<?> getTransactionLinesByAccount(
+            @PathVariable Long accountId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
         try {
-            List<TransactionLine> transactionLines = transactionLineService.getTransactionLinesByAccount(accountId);
+            CursorPageDTO<TransactionLine> transactionLines =
+                    transactionLineService.getTransactionLinesByAccount(accountId, cursor, size);
             return ResponseEntity.ok(transactionLines);
         } catch (TransactionLineException.AccountNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
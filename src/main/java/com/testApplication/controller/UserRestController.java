@@ -1,5 +1,6 @@
 package com.testApplication.controller;
 
+import com.testApplication.dto.CursorPageDTO;
 import com.testApplication.dto.UserCreationRequestDTO;
 import com.testApplication.dto.UserResponseDTO;
 import com.testApplication.model.Role; // Import Role
@@ -57,12 +58,19 @@ public class UserRestController {
     }
 
     @GetMapping
-    public ResponseEntity<List<UserResponseDTO>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        List<UserResponseDTO> userResponseDTOs = users.stream()
+    public ResponseEntity<CursorPageDTO<UserResponseDTO>> getAllUsers(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
+        CursorPageDTO<User> users = userService.getAllUsers(cursor, size);
+        List<UserResponseDTO> userResponseDTOs = users.getItems().stream()
                 .map(this::convertToResponseDTO) // this::convertToResponseDTO still works
                 .collect(Collectors.toList());
-        return new ResponseEntity<>(userResponseDTOs, HttpStatus.OK);
+        return new ResponseEntity<>(CursorPageDTO.<UserResponseDTO>builder()
+                .items(userResponseDTOs)
+                .size(users.getSize())
+                .nextCursor(users.getNextCursor())
+                .hasMore(users.isHasMore())
+                .build(), HttpStatus.OK);
     }
 
     @PutMapping("/{id}")
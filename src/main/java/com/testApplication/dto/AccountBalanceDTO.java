@@ -0,0 +1,23 @@
+package com.testApplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountBalanceDTO {
+    private Long accountId;
+    private String currency;
+    private BigDecimal debitTotal;
+    private BigDecimal creditTotal;
+    // debitTotal - creditTotal
+    private BigDecimal balance;
+    private Instant updatedAt;
+}
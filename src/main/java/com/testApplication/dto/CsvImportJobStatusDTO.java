@@ -0,0 +1,31 @@
+package com.testApplication.dto;
+
+import com.testApplication.model.enums.ImportJobStatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CsvImportJobStatusDTO {
+    private String jobId;
+    private Long legalEntityId;
+    private String fileName;
+    private ImportJobStatusEnum status;
+    private long rowsParsed;
+    private long rowsPersisted;
+    private long rowsRejected;
+    // Set once a partial-accept job has finished; download from /api/import/jobs/{jobId}/errors
+    private boolean errorReportAvailable;
+    private double rowsPerSecond;
+    private List<String> errors;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private CsvImportResultDTO result;
+}
@@ -0,0 +1,24 @@
+package com.testApplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CsvImportResultDTO {
+    private Long legalEntityId;
+    private Long importBatchId;
+    private long rowsImported;
+    private long rowsSkipped;
+    // Malformed lines left out by a partial-accept import
+    private long rowsRejected;
+    private long resumedAfterLine;
+    private int chunksCommitted;
+    private int transactionsCreated;
+    private int accountsCreated;
+    private long elapsedMillis;
+}
@@ -0,0 +1,23 @@
+package com.testApplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CsvImportSchedulerStatusDTO {
+    private int maxConcurrentImports;
+    private int runningImports;
+    private int queuedImports;
+    // Imports waiting for their turn, per legal entity
+    private Map<Long, Integer> queuedPerLegalEntity;
+    private long startedImports;
+    private long averageWaitMillis;
+    private long maxWaitMillis;
+}
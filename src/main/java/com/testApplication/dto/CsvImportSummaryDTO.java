@@ -0,0 +1,32 @@
+package com.testApplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CsvImportSummaryDTO {
+    private Long legalEntityId;
+    private Long importBatchId;
+    private long rowsImported;
+    private int transactionsCreated;
+    private int accountsCreated;
+    private List<String> createdAccountCodes;
+    private Map<String, Long> linesPerTransaction;
+    private BigDecimal totalDebits;
+    private BigDecimal totalCredits;
+    private Map<String, Long> stageMillis;
+    private long elapsedMillis;
+
+    // First page of the imported lines, only when the caller asked for them; later pages come
+    // from /api/import/batches/{importBatchId}/lines
+    private CursorPageDTO<TransactionLineDTO> lines;
+}
@@ -0,0 +1,40 @@
+package com.testApplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CsvImportValidationReportDTO {
+    private Long legalEntityId;
+    private boolean valid;
+    private long rowsRead;
+    private int transactionCount;
+    private int transactionsToCreate;
+    private List<String> accountsToCreate;
+    private BigDecimal totalDebits;
+    private BigDecimal totalCredits;
+    private int unbalancedTransactionCount;
+    // Capped, see unbalancedTransactionCount for the full number
+    private List<UnbalancedTransaction> unbalancedTransactions;
+    private List<String> errors;
+    private long elapsedMillis;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class UnbalancedTransaction {
+        private String transactionCode;
+        private BigDecimal debits;
+        private BigDecimal credits;
+        private BigDecimal difference;
+    }
+}
@@ -0,0 +1,20 @@
+package com.testApplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CsvMultiEntityImportResultDTO {
+    private long rowsRead;
+    // Keyed by legal entity id; an entity appears in exactly one of the two maps
+    private Map<Long, CsvImportResultDTO> results;
+    private Map<Long, String> errors;
+    private long elapsedMillis;
+}
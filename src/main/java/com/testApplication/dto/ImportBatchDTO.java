@@ -0,0 +1,37 @@
+package com.testApplication.dto;
+
+import com.testApplication.model.enums.ImportBatchStatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportBatchDTO {
+    private Long importBatchId;
+    private Long legalEntityId;
+    private String fileHash;
+    private String fileName;
+    private String jobId;
+    private ImportBatchStatusEnum status;
+    private long rowsImported;
+    private Instant createdAt;
+    private String createdBy;
+    private Instant heartbeatAt;
+    private Instant finishedAt;
+    private Instant rolledBackAt;
+    private String rolledBackBy;
+
+    // Only filled in the answer to a rollback
+    private Integer linesDeleted;
+    private Integer transactionsDeleted;
+    private Integer accountsDeleted;
+    // Created by the batch but kept because lines of other imports still use them
+    private Integer transactionsKept;
+    private Integer accountsKept;
+}
@@ -0,0 +1,26 @@
+package com.testApplication.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportRecordDTO {
+    private Long importId;
+    private Long legalEntityId;
+    private String fileHash;
+    private String fileName;
+    private long rowsImported;
+    private Instant importedAt;
+    private String importedBy;
+    // Always true when returned for a re-upload
+    private boolean duplicate;
+    private JsonNode summary;
+}
@@ -0,0 +1,40 @@
+package com.testApplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A transaction with its lines, as posted in bulk. Accounts are referenced by code.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionPostingDTO {
+    private String transactionCode;
+    private String transactionType;
+    private Instant date;
+    private String description;
+    // PENDING when not given
+    private String approvalStatus;
+    private String currency;
+    private Long customerId;
+    private List<Line> lines;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Line {
+        private String accountCode;
+        private BigDecimal amount;
+        private String description;
+        private Boolean isDebit;
+    }
+}
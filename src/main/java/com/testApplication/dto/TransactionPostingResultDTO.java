@@ -0,0 +1,21 @@
+package com.testApplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionPostingResultDTO {
+    private Long legalEntityId;
+    private int transactionsCreated;
+    private int linesCreated;
+    // Id of every created transaction by its code
+    private Map<String, Long> transactionIds;
+    private long elapsedMillis;
+}
@@ -0,0 +1,34 @@
+package com.testApplication.dto;
+
+import com.testApplication.model.enums.TransactionSortEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Filters of the transaction search; every filter left null is not applied. Dates are inclusive
+ * days in UTC, amounts inclusive bounds.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionSearchCriteriaDTO {
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+    private String approvalStatus;
+    private String transactionType;
+    private String currency;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+    private Long customerId;
+    @Builder.Default
+    private TransactionSortEnum sort = TransactionSortEnum.DATE_DESC;
+}
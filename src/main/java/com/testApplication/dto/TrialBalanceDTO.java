@@ -0,0 +1,54 @@
+package com.testApplication.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Debit and credit totals of every account with lines up to and including {@code asOf}, per
+ * currency. The totals of a currency balance when its debits equal its credits.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrialBalanceDTO {
+    private Long legalEntityId;
+    private LocalDate asOf;
+    private Instant generatedAt;
+    private List<Line> lines;
+    private List<CurrencyTotal> totals;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Line {
+        private Long accountId;
+        private String accountCode;
+        private String accountName;
+        private String accountTypeCode;
+        private String currency;
+        private BigDecimal debitTotal;
+        private BigDecimal creditTotal;
+        // debitTotal - creditTotal
+        private BigDecimal balance;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class CurrencyTotal {
+        private String currency;
+        private BigDecimal debitTotal;
+        private BigDecimal creditTotal;
+        private boolean balanced;
+    }
+}
@@ -1,5 +1,6 @@
 package com.testApplication.exception;
 
+import com.testApplication.dto.ImportRecordDTO;
 import lombok.Getter;
 
 @Getter
@@ -28,4 +29,47 @@ public class CsvImportException extends RuntimeException {
             super(message, "INVALID_CSV_FORMAT");
         }
     }
+
+    public static class InvalidJsonFormatException extends CsvImportException {
+        public InvalidJsonFormatException(String message) {
+            super(message, "INVALID_JSON_FORMAT");
+        }
+    }
+
+    public static class ImportBatchNotFoundException extends CsvImportException {
+        public ImportBatchNotFoundException(String message) {
+            super(message, "IMPORT_BATCH_NOT_FOUND");
+        }
+    }
+
+    public static class ImportBatchStateException extends CsvImportException {
+        public ImportBatchStateException(String message) {
+            super(message, "INVALID_IMPORT_BATCH_STATE");
+        }
+    }
+
+    public static class ImportQueueFullException extends CsvImportException {
+        public ImportQueueFullException(String message) {
+            super(message, "IMPORT_QUEUE_FULL");
+        }
+    }
+
+    public static class LegalEntityBusyException extends CsvImportException {
+        public LegalEntityBusyException(String message) {
+            super(message, "LEGAL_ENTITY_BUSY");
+        }
+    }
+
+    /**
+     * The same file was already imported for the legal entity; carries the original import.
+     */
+    @Getter
+    public static class DuplicateImportException extends CsvImportException {
+        private final ImportRecordDTO previousImport;
+
+        public DuplicateImportException(ImportRecordDTO previousImport) {
+            super("File was already imported on " + previousImport.getImportedAt(), "DUPLICATE_IMPORT");
+            this.previousImport = previousImport;
+        }
+    }
 }
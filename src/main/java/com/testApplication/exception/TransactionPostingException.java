@@ -0,0 +1,40 @@
+package com.testApplication.exception;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class TransactionPostingException extends RuntimeException {
+    private final String code;
+
+    protected TransactionPostingException(String message, String code) {
+        super(message);
+        this.code = code;
+    }
+
+    public static class LegalEntityNotFoundException extends TransactionPostingException {
+        public LegalEntityNotFoundException(String message) {
+            super(message, "LEGAL_ENTITY_NOT_FOUND");
+        }
+    }
+
+    public static class TooManyTransactionsException extends TransactionPostingException {
+        public TooManyTransactionsException(String message) {
+            super(message, "TOO_MANY_TRANSACTIONS");
+        }
+    }
+
+    /**
+     * One or more transactions of the request are invalid; nothing was posted.
+     */
+    @Getter
+    public static class ValidationException extends TransactionPostingException {
+        private final List<String> errors;
+
+        public ValidationException(List<String> errors) {
+            super(errors.size() + " invalid transaction(s), nothing was posted", "INVALID_TRANSACTIONS");
+            this.errors = errors;
+        }
+    }
+}
@@ -13,6 +13,11 @@ import java.time.Instant;
 @Table(name = "accounts", uniqueConstraints = {
         @UniqueConstraint(columnNames = { "code", "legal_entity_id" }),
         @UniqueConstraint(columnNames = { "name", "legal_entity_id" })
+}, indexes = {
+        @Index(name = "idx_accounts_import_batch", columnList = "import_batch_id"),
+        // Keyset pages of a legal entity's accounts and of an account's children
+        @Index(name = "idx_accounts_legal_entity_id", columnList = "legal_entity_id, id"),
+        @Index(name = "idx_accounts_parent_account_id", columnList = "parent_account_id, id")
 })
 public class Account implements BusinessObject {
     @Override
@@ -61,4 +66,8 @@ public class Account implements BusinessObject {
     @JoinColumn(name = "legal_entity_id", nullable = false)
     private LegalEntity legalEntity;
 
+    // Import that auto-created the account, null when it was created another way
+    @Column(name = "import_batch_id")
+    private Long importBatchId;
+
 }
\ No newline at end of file
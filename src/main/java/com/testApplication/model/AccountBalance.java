@@ -0,0 +1,42 @@
+package com.testApplication.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Running debit and credit totals of an account's lines in one currency, the currency of the
+ * lines' transactions. Kept up to date by {@code AccountBalanceService} in the same database
+ * transaction as every line written or removed, so reading a balance is a single-row lookup.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "account_balances", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "account_id", "currency" })
+})
+public class AccountBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // No foreign key: balance upserts should not lock the account row
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(length = 10, nullable = false)
+    private String currency;
+
+    @Column(name = "debit_total", nullable = false, precision = 19, scale = 4)
+    private BigDecimal debitTotal;
+
+    @Column(name = "credit_total", nullable = false, precision = 19, scale = 4)
+    private BigDecimal creditTotal;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -12,6 +12,9 @@ import java.time.Instant;
 @Table(name = "customers", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"email", "legal_entity_id"}, name = "uk_customer_email_legal_entity"),
     @UniqueConstraint(columnNames = {"phone", "legal_entity_id"}, name = "uk_customer_phone_legal_entity")
+}, indexes = {
+    // Keyset pages of a legal entity's customers
+    @Index(name = "idx_customers_legal_entity_id", columnList = "legal_entity_id, id")
 })
 public class Customer implements BusinessObject{
     @Id
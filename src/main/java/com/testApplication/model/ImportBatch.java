@@ -0,0 +1,62 @@
+package com.testApplication.model;
+
+import com.testApplication.model.enums.ImportBatchStatusEnum;
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.Instant;
+
+/**
+ * One run of an import. Its id is stamped on every transaction, transaction line and
+ * account the import creates, so that the whole import can be rolled back at once.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "import_batches")
+public class ImportBatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "legal_entity_id", nullable = false)
+    private Long legalEntityId;
+
+    // SHA-256 of the imported file, null when the source could not be fingerprinted
+    @Column(name = "file_hash", length = 64)
+    private String fileHash;
+
+    @Column(name = "file_name", length = 255)
+    private String fileName;
+
+    @Column(name = "job_id", length = 36)
+    private String jobId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ImportBatchStatusEnum status;
+
+    @Column(name = "rows_imported", nullable = false)
+    private long rowsImported;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "created_by", length = 100)
+    private String createdBy;
+
+    // Refreshed before every chunk; a RUNNING batch whose heartbeat stopped was left by a dead import
+    @Column(name = "heartbeat_at")
+    private Instant heartbeatAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    @Column(name = "rolled_back_at")
+    private Instant rolledBackAt;
+
+    @Column(name = "rolled_back_by", length = 100)
+    private String rolledBackBy;
+}
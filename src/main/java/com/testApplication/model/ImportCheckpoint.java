@@ -0,0 +1,54 @@
+package com.testApplication.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.Instant;
+
+/**
+ * Progress of a chunked CSV import, keyed by the legal entity and the SHA-256 of the file.
+ * Advanced in the same transaction as every committed chunk, so a retry of the same file
+ * can skip exactly the lines that are already in the database.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "import_checkpoints", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "legal_entity_id", "file_hash" })
+})
+public class ImportCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "legal_entity_id", nullable = false)
+    private Long legalEntityId;
+
+    @Column(name = "file_hash", nullable = false, length = 64)
+    private String fileHash;
+
+    // Background job that last worked on the file, null for synchronous imports
+    @Column(name = "job_id", length = 36)
+    private String jobId;
+
+    // Batch the committed lines belong to; a resumed import keeps adding to it
+    @Column(name = "import_batch_id")
+    private Long importBatchId;
+
+    @Column(name = "last_committed_line", nullable = false)
+    private long lastCommittedLine;
+
+    @Column(name = "rows_committed", nullable = false)
+    private long rowsCommitted;
+
+    @Column(nullable = false)
+    private boolean completed;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
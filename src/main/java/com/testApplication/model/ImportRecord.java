@@ -0,0 +1,48 @@
+package com.testApplication.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.Instant;
+
+/**
+ * A successfully completed CSV import, fingerprinted by the SHA-256 of the uploaded bytes.
+ * Uploading the same bytes again for the same legal entity returns the stored summary
+ * instead of importing the lines a second time.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "import_records", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "legal_entity_id", "file_hash" })
+})
+public class ImportRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "legal_entity_id", nullable = false)
+    private Long legalEntityId;
+
+    @Column(name = "file_hash", nullable = false, length = 64)
+    private String fileHash;
+
+    @Column(name = "file_name", length = 255)
+    private String fileName;
+
+    @Column(name = "rows_imported", nullable = false)
+    private long rowsImported;
+
+    // JSON of the response the original import returned
+    @Lob
+    @Column(name = "summary_json", nullable = false)
+    private String summaryJson;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "created_by", length = 100)
+    private String createdBy;
+}
@@ -60,6 +60,10 @@ public class LegalEntity {
     @Column(name = "updated_by", length = 100)
     private String updatedBy;
 
+    // Bumped in SQL by every ledger change, see TrialBalanceService; never written through JPA
+    @Column(name = "ledger_version", insertable = false, updatable = false)
+    private Long ledgerVersion;
+
     @OneToMany(mappedBy = "legalEntity")
     @Builder.Default
     private Set<UserEntityAccess> userAccesses = new HashSet<>();
@@ -11,7 +11,23 @@ import java.time.Instant;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "transaction_code", "legal_entity_id" })
+}, indexes = {
+        @Index(name = "idx_transactions_import_batch", columnList = "import_batch_id"),
+        // Keyset pages of one legal entity or customer seek on these instead of sorting
+        @Index(name = "idx_transactions_legal_entity_id", columnList = "legal_entity_id, id"),
+        @Index(name = "idx_transactions_customer_id", columnList = "customer_id, id"),
+        // Date range exports and the date-sorted search of one legal entity
+        @Index(name = "idx_transactions_legal_entity_date", columnList = "legal_entity_id, date, id"),
+        // Search filters by equality, then the date range and order; currency and the amount range
+        // are cheap residual filters on top of any of these
+        @Index(name = "idx_transactions_search_status", columnList = "legal_entity_id, approval_status, date, id"),
+        @Index(name = "idx_transactions_search_type", columnList = "legal_entity_id, transaction_type, date, id"),
+        @Index(name = "idx_transactions_search_customer", columnList = "legal_entity_id, customer_id, date, id"),
+        // Amount range and the amount-sorted search
+        @Index(name = "idx_transactions_search_amount", columnList = "legal_entity_id, amount, id")
+})
 public class Transaction implements BusinessObject {
     @Override
     public Long getLegalEntityId() {
@@ -63,4 +79,8 @@ public class Transaction implements BusinessObject {
 
     @Column(name = "transaction_code", nullable = false)
     private String transactionCode;
+
+    // Import that created the transaction, null when it was entered another way
+    @Column(name = "import_batch_id")
+    private Long importBatchId;
 }
\ No newline at end of file
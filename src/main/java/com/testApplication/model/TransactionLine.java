@@ -9,7 +9,14 @@ import java.math.BigDecimal;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "transaction_lines")
+@Table(name = "transaction_lines", indexes = {
+        // Rollback of a batch, and keyset pages of its lines
+        @Index(name = "idx_transaction_lines_import_batch_id", columnList = "import_batch_id, id"),
+        // Lines of a transaction, e.g. for the trial balance join from a date range of transactions
+        @Index(name = "idx_transaction_lines_transaction", columnList = "transaction_id, account_id"),
+        // Keyset pages of an account's lines
+        @Index(name = "idx_transaction_lines_account_id", columnList = "account_id, id")
+})
 public class TransactionLine {
 
     @Id
@@ -32,4 +39,8 @@ public class TransactionLine {
 
     @Column(name = "is_debit", nullable = false)
     private boolean isDebit;
+
+    // Import that created the line, null when it was entered another way
+    @Column(name = "import_batch_id")
+    private Long importBatchId;
 }
\ No newline at end of file
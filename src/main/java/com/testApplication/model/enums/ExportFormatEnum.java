@@ -0,0 +1,6 @@
+package com.testApplication.model.enums;
+
+public enum ExportFormatEnum {
+    CSV,
+    JSON
+}
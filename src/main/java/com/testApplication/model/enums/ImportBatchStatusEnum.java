@@ -0,0 +1,8 @@
+package com.testApplication.model.enums;
+
+public enum ImportBatchStatusEnum {
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    ROLLED_BACK
+}
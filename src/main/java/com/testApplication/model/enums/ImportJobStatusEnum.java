@@ -0,0 +1,8 @@
+package com.testApplication.model.enums;
+
+public enum ImportJobStatusEnum {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
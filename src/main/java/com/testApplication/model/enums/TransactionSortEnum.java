@@ -0,0 +1,11 @@
+package com.testApplication.model.enums;
+
+/**
+ * Orders of the transaction search; ties are broken by id in the same direction.
+ */
+public enum TransactionSortEnum {
+    DATE_ASC,
+    DATE_DESC,
+    AMOUNT_ASC,
+    AMOUNT_DESC
+}
@@ -1,6 +1,7 @@
 package com.testApplication.repository;
 
 import com.testApplication.model.AccountAllocationTemplate;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
@@ -11,4 +12,9 @@ public interface AccountAllocationTemplateRepository extends JpaRepository<Accou
     boolean existsByCodeAndLegalEntity_Id(String code, Long legalEntityId);
     List<AccountAllocationTemplate> findByTemplateAccounts_IsSource(Boolean isSource);
     List<AccountAllocationTemplate> findByLegalEntity_Id(Long legalEntityId);
+    List<AccountAllocationTemplate> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+    List<AccountAllocationTemplate> findDistinctByTemplateAccounts_IsSourceAndIdGreaterThanOrderByIdAsc(
+            Boolean isSource, Long afterId, Limit limit);
+    List<AccountAllocationTemplate> findByLegalEntity_IdAndIdGreaterThanOrderByIdAsc(Long legalEntityId, Long afterId,
+                                                                                      Limit limit);
 }
@@ -0,0 +1,13 @@
+package com.testApplication.repository;
+
+import com.testApplication.model.AccountBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AccountBalanceRepository extends JpaRepository<AccountBalance, Long> {
+    List<AccountBalance> findByAccountIdOrderByCurrencyAsc(Long accountId);
+    void deleteByAccountId(Long accountId);
+}
@@ -2,9 +2,11 @@ package com.testApplication.repository;
 
 import com.testApplication.model.Account;
 import com.testApplication.model.LegalEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,4 +18,8 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     List<Account> findByLegalEntity_Id(Long legalEntityId);
     Optional<Account> findByCodeAndLegalEntity_Id(String code, Long legalEntityId);
     boolean existsByCodeAndLegalEntity_Id(String code, Long legalEntityId);
+    List<Account> findByLegalEntity_IdAndCodeIn(Long legalEntityId, Collection<String> codes);
+    List<Account> findByLegalEntity_IdAndIdGreaterThanOrderByIdAsc(Long legalEntityId, Long afterId, Limit limit);
+    List<Account> findByParentAccountAndLegalEntity_IdAndIdGreaterThanOrderByIdAsc(
+            Account parentAccount, Long legalEntityId, Long afterId, Limit limit);
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.testApplication.repository;
 
 import com.testApplication.model.Customer;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -9,4 +10,6 @@ import java.util.List;
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {    List<Customer> findByLegalEntity_Id(Long legalEntityId);
     List<Customer> findByType(String type);
+    List<Customer> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+    List<Customer> findByLegalEntity_IdAndIdGreaterThanOrderByIdAsc(Long legalEntityId, Long afterId, Limit limit);
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.testApplication.repository;
+
+import com.testApplication.model.ImportBatch;
+import com.testApplication.model.enums.ImportBatchStatusEnum;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface ImportBatchRepository extends JpaRepository<ImportBatch, Long> {
+
+    @Modifying
+    @Query("UPDATE ImportBatch b SET b.heartbeatAt = :now WHERE b.id = :id AND b.status = :status")
+    int heartbeat(@Param("id") Long id, @Param("status") ImportBatchStatusEnum status, @Param("now") Instant now);
+}
@@ -0,0 +1,24 @@
+package com.testApplication.repository;
+
+import com.testApplication.model.ImportCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface ImportCheckpointRepository extends JpaRepository<ImportCheckpoint, Long> {
+    Optional<ImportCheckpoint> findByLegalEntityIdAndFileHash(Long legalEntityId, String fileHash);
+
+    @Modifying
+    int deleteByLegalEntityIdAndFileHash(Long legalEntityId, String fileHash);
+
+    @Modifying
+    @Query("UPDATE ImportCheckpoint c SET c.lastCommittedLine = :line, c.rowsCommitted = c.rowsCommitted + :rows, "
+            + "c.updatedAt = :now WHERE c.id = :id")
+    int advance(@Param("id") Long id, @Param("line") long line, @Param("rows") long rows, @Param("now") Instant now);
+}
@@ -0,0 +1,16 @@
+package com.testApplication.repository;
+
+import com.testApplication.model.ImportRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ImportRecordRepository extends JpaRepository<ImportRecord, Long> {
+    Optional<ImportRecord> findByLegalEntityIdAndFileHash(Long legalEntityId, String fileHash);
+
+    @Modifying
+    int deleteByLegalEntityIdAndFileHash(Long legalEntityId, String fileHash);
+}
@@ -1,5 +1,11 @@
-package com.testApplication.repository;import com.testApplication.model.TransactionLine;import com.testApplication.model.Transaction;import com.testApplication.model.Account;import org.springframework.data.jpa.repository.JpaRepository;import org.springframework.stereotype.Repository;import java.util.List;@Repository
+package com.testApplication.repository;import com.testApplication.model.TransactionLine;import com.testApplication.model.Transaction;import com.testApplication.model.Account;import org.springframework.data.domain.Limit;import org.springframework.data.jpa.repository.JpaRepository;import org.springframework.stereotype.Repository;import java.util.List;@Repository
 public interface TransactionLineRepository extends JpaRepository<TransactionLine, Long> {
     List<TransactionLine> findByTransaction(Transaction transaction);
     List<TransactionLine> findByAccount(Account account);
+    List<TransactionLine> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+    List<TransactionLine> findByTransactionAndIdGreaterThanOrderByIdAsc(Transaction transaction, Long afterId,
+                                                                       Limit limit);
+    List<TransactionLine> findByAccountAndIdGreaterThanOrderByIdAsc(Account account, Long afterId, Limit limit);
+    List<TransactionLine> findByImportBatchIdAndIdGreaterThanOrderByIdAsc(Long importBatchId, Long afterId,
+                                                                        Limit limit);
 }
\ No newline at end of file
@@ -3,17 +3,33 @@ package com.testApplication.repository;
 import com.testApplication.model.Transaction;
 import com.testApplication.model.Customer;
 import com.testApplication.model.LegalEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+// Specifications back the multi-criteria search, see TransactionService.searchTransactions
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, JpaSpecificationExecutor<Transaction> {
     List<Transaction> findByCustomer(Customer customer);
     List<Transaction> findByCustomerId(Long customerId);
     List<Transaction> findByLegalEntity(LegalEntity legalEntity);
     List<Transaction> findByLegalEntity_Id(Long legalEntityId);
     Optional<Transaction> findByTransactionCodeAndLegalEntity_Id(String transactionCode, Long legalEntityId);
+    List<Transaction> findByLegalEntity_IdAndTransactionCodeIn(Long legalEntityId, Collection<String> transactionCodes);
+
+    // Codes only, for duplicate checks without loading the transactions
+    @Query("SELECT t.transactionCode FROM Transaction t WHERE t.legalEntity.id = :legalEntityId AND t.transactionCode IN :codes")
+    List<String> findTransactionCodes(@Param("legalEntityId") Long legalEntityId, @Param("codes") Collection<String> codes);
+
+    // Keyset pages, see CursorPagination
+    List<Transaction> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+    List<Transaction> findByLegalEntity_IdAndIdGreaterThanOrderByIdAsc(Long legalEntityId, Long afterId, Limit limit);
+    List<Transaction> findByCustomer_IdAndIdGreaterThanOrderByIdAsc(Long customerId, Long afterId, Limit limit);
 }
\ No newline at end of file
@@ -1,9 +1,11 @@
 package com.testApplication.repository; // Adjust package name as needed
 
 import com.testApplication.model.User; // Adjust import as needed
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,4 +18,5 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
 }
\ No newline at end of file
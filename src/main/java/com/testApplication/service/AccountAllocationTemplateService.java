@@ -2,6 +2,7 @@ package com.testApplication.service;
 
 import com.testApplication.security.RequiresLegalEntityAccess;
 import com.testApplication.dto.AccountAllocationTemplateDTO;
+import com.testApplication.dto.CursorPageDTO;
 import com.testApplication.dto.AccountAllocationTemplateDTO.AccountAllocationDetails;
 import com.testApplication.exception.AllocationTemplateException;
 import com.testApplication.mapper.AccountAllocationTemplateMapper;
@@ -17,7 +18,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -40,8 +40,11 @@ public class AccountAllocationTemplateService {
     }
 
     @Transactional(readOnly = true)
-    public List<AccountAllocationTemplateDTO> getAllTemplates() {
-        return templateMapper.toDTOList(templateRepository.findAll());
+    public CursorPageDTO<AccountAllocationTemplateDTO> getAllTemplates(String cursor, Integer size) {
+        int pageSize = CursorPagination.pageSize(size);
+        return CursorPagination.page(templateRepository.findByIdGreaterThanOrderByIdAsc(
+                        CursorPagination.after(cursor), CursorPagination.limit(pageSize)),
+                pageSize, AccountAllocationTemplate::getId, templateMapper::toDTOList);
     }
 
     @Transactional(readOnly = true)
@@ -55,10 +58,13 @@ public class AccountAllocationTemplateService {
     }
 
     @Transactional(readOnly = true)
-    public List<AccountAllocationTemplateDTO> getTemplatesByType(Boolean isSource) {
-        return templateRepository.findByTemplateAccounts_IsSource(isSource).stream()
-                .map(templateMapper::toDTO)
-                .collect(Collectors.toList());
+    public CursorPageDTO<AccountAllocationTemplateDTO> getTemplatesByType(Boolean isSource, String cursor,
+                                                                          Integer size) {
+        int pageSize = CursorPagination.pageSize(size);
+        return CursorPagination.page(
+                templateRepository.findDistinctByTemplateAccounts_IsSourceAndIdGreaterThanOrderByIdAsc(
+                        isSource, CursorPagination.after(cursor), CursorPagination.limit(pageSize)),
+                pageSize, AccountAllocationTemplate::getId, templateMapper::toDTOList);
     }    @RequiresLegalEntityAccess(legalEntityIdParam = "dto.legalEntityId")
     public AccountAllocationTemplateDTO createTemplate(AccountAllocationTemplateDTO dto) {
         if (dto.getLegalEntityId() == null) {
@@ -173,7 +179,11 @@ public class AccountAllocationTemplateService {
 
     @RequiresLegalEntityAccess(legalEntityIdParam = "legalEntityId")
     @Transactional(readOnly = true)
-    public List<AccountAllocationTemplateDTO> getTemplatesByLegalEntity(Long legalEntityId) {
-        return templateMapper.toDTOList(templateRepository.findByLegalEntity_Id(legalEntityId));
+    public CursorPageDTO<AccountAllocationTemplateDTO> getTemplatesByLegalEntity(Long legalEntityId, String cursor,
+                                                                                 Integer size) {
+        int pageSize = CursorPagination.pageSize(size);
+        return CursorPagination.page(templateRepository.findByLegalEntity_IdAndIdGreaterThanOrderByIdAsc(
+                        legalEntityId, CursorPagination.after(cursor), CursorPagination.limit(pageSize)),
+                pageSize, AccountAllocationTemplate::getId, templateMapper::toDTOList);
     }
 }
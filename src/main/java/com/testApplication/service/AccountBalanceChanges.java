@@ -0,0 +1,51 @@
+package com.testApplication.service;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Debit and credit deltas per account and currency, collected while lines are written and then
+ * applied by {@link AccountBalanceService#apply}. Kept sorted so that concurrent writers update
+ * balance rows in the same order and cannot deadlock on them.
+ */
+public class AccountBalanceChanges {
+
+    record Key(long accountId, String currency) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key other) {
+            int byAccount = Long.compare(accountId, other.accountId);
+            return byAccount != 0 ? byAccount : currency.compareTo(other.currency);
+        }
+    }
+
+    static final class Delta {
+        BigDecimal debits = BigDecimal.ZERO;
+        BigDecimal credits = BigDecimal.ZERO;
+    }
+
+    private final Map<Key, Delta> deltas = new TreeMap<>();
+
+    public AccountBalanceChanges add(long accountId, String currency, BigDecimal amount, boolean debit) {
+        return addTotals(accountId, currency, debit ? amount : BigDecimal.ZERO, debit ? BigDecimal.ZERO : amount);
+    }
+
+    public AccountBalanceChanges remove(long accountId, String currency, BigDecimal amount, boolean debit) {
+        return add(accountId, currency, amount.negate(), debit);
+    }
+
+    public AccountBalanceChanges addTotals(long accountId, String currency, BigDecimal debits, BigDecimal credits) {
+        Delta delta = deltas.computeIfAbsent(new Key(accountId, currency), key -> new Delta());
+        delta.debits = delta.debits.add(debits);
+        delta.credits = delta.credits.add(credits);
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return deltas.isEmpty();
+    }
+
+    Map<Key, Delta> deltas() {
+        return deltas;
+    }
+}
@@ -0,0 +1,291 @@
+package com.testApplication.service;
+
+import com.testApplication.dto.AccountBalanceDTO;
+import com.testApplication.model.AccountBalance;
+import com.testApplication.model.TransactionLine;
+import com.testApplication.repository.AccountBalanceRepository;
+import com.testApplication.repository.AccountRepository;
+import com.testApplication.security.RequiresLegalEntityAccess;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains {@link AccountBalance} rows. Every writer of transaction lines hands its deltas to
+ * {@link #apply} inside its own transaction, so a balance commits or rolls back together with
+ * the lines it sums. Deltas are added in the database rather than read, changed and written
+ * back, which keeps concurrent writers to the same account from losing each other's updates.
+ * Every change also publishes a {@link LedgerChangedEvent} for the legal entity.
+ */
+@Service
+public class AccountBalanceService {
+
+    // PostgreSQL: atomic insert-or-add on the (account_id, currency) unique constraint
+    private static final String UPSERT_BALANCE_SQL =
+            "INSERT INTO account_balances (account_id, currency, debit_total, credit_total, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?) "
+                    + "ON CONFLICT (account_id, currency) DO UPDATE SET "
+                    + "debit_total = account_balances.debit_total + EXCLUDED.debit_total, "
+                    + "credit_total = account_balances.credit_total + EXCLUDED.credit_total, "
+                    + "updated_at = EXCLUDED.updated_at";
+
+    // Other databases (H2 in tests)
+    private static final String MERGE_BALANCE_SQL =
+            "MERGE INTO account_balances b USING (SELECT CAST(? AS BIGINT) AS account_id, "
+                    + "CAST(? AS VARCHAR(10)) AS currency, CAST(? AS NUMERIC(19, 4)) AS debit_total, "
+                    + "CAST(? AS NUMERIC(19, 4)) AS credit_total, CAST(? AS TIMESTAMP) AS updated_at) s "
+                    + "ON b.account_id = s.account_id AND b.currency = s.currency "
+                    + "WHEN MATCHED THEN UPDATE SET debit_total = b.debit_total + s.debit_total, "
+                    + "credit_total = b.credit_total + s.credit_total, updated_at = s.updated_at "
+                    + "WHEN NOT MATCHED THEN INSERT (account_id, currency, debit_total, credit_total, updated_at) "
+                    + "VALUES (s.account_id, s.currency, s.debit_total, s.credit_total, s.updated_at)";
+
+    private static final String TRANSACTION_TOTALS_SQL =
+            "SELECT l.account_id, "
+                    + "SUM(CASE WHEN l.is_debit THEN l.amount ELSE 0 END), "
+                    + "SUM(CASE WHEN l.is_debit THEN 0 ELSE l.amount END) "
+                    + "FROM transaction_lines l WHERE l.transaction_id = ? GROUP BY l.account_id";
+
+    // Seeds the table from the lines written before it existed; a no-op once it holds any balance
+    private static final String BACKFILL_SQL =
+            "INSERT INTO account_balances (account_id, currency, debit_total, credit_total, updated_at) "
+                    + "SELECT l.account_id, t.currency, "
+                    + "SUM(CASE WHEN l.is_debit THEN l.amount ELSE 0 END), "
+                    + "SUM(CASE WHEN l.is_debit THEN 0 ELSE l.amount END), CURRENT_TIMESTAMP "
+                    + "FROM transaction_lines l JOIN transactions t ON t.id = l.transaction_id "
+                    + "WHERE NOT EXISTS (SELECT 1 FROM account_balances) "
+                    + "GROUP BY l.account_id, t.currency";
+
+    private static final String DELETE_ORPHANED_SQL =
+            "DELETE FROM account_balances b WHERE NOT EXISTS (SELECT 1 FROM accounts a WHERE a.id = b.account_id)";
+
+    private static final int IN_BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AccountBalanceRepository accountBalanceRepository;
+    private final AccountRepository accountRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DatabaseDialect databaseDialect;
+
+    /**
+     * A line written through JDBC, known only by the ids it refers to.
+     */
+    public record LineAmount(long transactionId, long accountId, BigDecimal amount, boolean debit) {
+    }
+
+    public AccountBalanceService(JdbcTemplate jdbcTemplate,
+                                 AccountBalanceRepository accountBalanceRepository,
+                                 AccountRepository accountRepository,
+                                 ApplicationEventPublisher eventPublisher,
+                                 DatabaseDialect databaseDialect) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.accountBalanceRepository = accountBalanceRepository;
+        this.accountRepository = accountRepository;
+        this.eventPublisher = eventPublisher;
+        this.databaseDialect = databaseDialect;
+    }
+
+    /**
+     * Balances of the account, one per currency it has lines in.
+     */
+    @RequiresLegalEntityAccess(legalEntityIdParam = "legalEntityId")
+    @Transactional(readOnly = true)
+    public List<AccountBalanceDTO> getBalances(Long legalEntityId, Long accountId) {
+        boolean ofLegalEntity = accountRepository.findById(accountId)
+                .map(account -> account.getLegalEntity().getId().equals(legalEntityId))
+                .orElse(false);
+        if (!ofLegalEntity) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                    "Account " + accountId + " not found for legal entity " + legalEntityId);
+        }
+        return accountBalanceRepository.findByAccountIdOrderByCurrencyAsc(accountId).stream()
+                .map(balance -> AccountBalanceDTO.builder()
+                        .accountId(balance.getAccountId())
+                        .currency(balance.getCurrency())
+                        .debitTotal(balance.getDebitTotal())
+                        .creditTotal(balance.getCreditTotal())
+                        .balance(balance.getDebitTotal().subtract(balance.getCreditTotal()))
+                        .updatedAt(balance.getUpdatedAt())
+                        .build())
+                .toList();
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Long legalEntityId, AccountBalanceChanges changes) {
+        applyDeltas(changes);
+        eventPublisher.publishEvent(new LedgerChangedEvent(legalEntityId));
+    }
+
+    private void applyDeltas(AccountBalanceChanges changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Map.Entry<AccountBalanceChanges.Key, AccountBalanceChanges.Delta>> entries =
+                new ArrayList<>(changes.deltas().entrySet());
+        String sql = databaseDialect.isPostgres() ? UPSERT_BALANCE_SQL : MERGE_BALANCE_SQL;
+        jdbcTemplate.batchUpdate(sql, entries, entries.size(),
+                (ps, entry) -> {
+                    ps.setLong(1, entry.getKey().accountId());
+                    ps.setString(2, entry.getKey().currency());
+                    ps.setBigDecimal(3, entry.getValue().debits);
+                    ps.setBigDecimal(4, entry.getValue().credits);
+                    ps.setTimestamp(5, now);
+                });
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addLines(Collection<TransactionLine> lines) {
+        AccountBalanceChanges changes = new AccountBalanceChanges();
+        lines.forEach(line -> changes.add(line.getAccount().getId(), line.getTransaction().getCurrency(),
+                line.getAmount(), line.isDebit()));
+        applyDeltas(changes);
+        publishFor(lines);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeLines(Collection<TransactionLine> lines) {
+        AccountBalanceChanges changes = new AccountBalanceChanges();
+        lines.forEach(line -> changes.remove(line.getAccount().getId(), line.getTransaction().getCurrency(),
+                line.getAmount(), line.isDebit()));
+        applyDeltas(changes);
+        publishFor(lines);
+    }
+
+    /**
+     * Adds lines written through JDBC, looking up the currencies of their transactions in one
+     * query per thousand transactions.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addLineAmounts(Long legalEntityId, Collection<LineAmount> lines) {
+        Map<Long, String> currencies = transactionCurrencies(
+                lines.stream().map(LineAmount::transactionId).distinct().toList());
+        AccountBalanceChanges changes = new AccountBalanceChanges();
+        lines.forEach(line -> changes.add(line.accountId(), currencies.get(line.transactionId()),
+                line.amount(), line.debit()));
+        apply(legalEntityId, changes);
+    }
+
+    /**
+     * Adds the totals selected by {@code totalsSql}, which returns account id, currency, debit
+     * total and credit total per row; used by set-based writers that never see the lines in Java.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addTotals(Long legalEntityId, String totalsSql, Object... args) {
+        apply(legalEntityId, queryTotals(totalsSql, false, args));
+    }
+
+    /**
+     * Subtracts the totals selected by {@code totalsSql}, see {@link #addTotals}. Run it before
+     * the lines it sums are deleted.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeTotals(Long legalEntityId, String totalsSql, Object... args) {
+        apply(legalEntityId, queryTotals(totalsSql, true, args));
+    }
+
+    /**
+     * Moves the lines of a transaction whose currency changed to the balances of the new currency.
+     * The caller publishes the change along with its other edits of the transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void changeCurrency(Long transactionId, String fromCurrency, String toCurrency) {
+        if (fromCurrency == null || fromCurrency.equals(toCurrency)) {
+            return;
+        }
+        AccountBalanceChanges changes = new AccountBalanceChanges();
+        jdbcTemplate.query(TRANSACTION_TOTALS_SQL, (ResultSet rs) -> {
+            long accountId = rs.getLong(1);
+            changes.addTotals(accountId, fromCurrency, rs.getBigDecimal(2).negate(), rs.getBigDecimal(3).negate());
+            changes.addTotals(accountId, toCurrency, rs.getBigDecimal(2), rs.getBigDecimal(3));
+        }, transactionId);
+        applyDeltas(changes);
+    }
+
+    /**
+     * Fills an empty balance table from the existing lines with one grouped insert, and returns
+     * the number of balances created. Once any balance exists it does nothing.
+     */
+    public int backfill() {
+        return jdbcTemplate.update(BACKFILL_SQL);
+    }
+
+    /**
+     * Writers only ever add deltas, so the table is seeded the first time the application starts
+     * with it, before any bean that writes lines can run: they all depend on this service.
+     */
+    @PostConstruct
+    void backfillOnStartup() {
+        try {
+            int seeded = backfill();
+            if (seeded > 0) {
+                System.out.println("Seeded " + seeded + " account balances from existing transaction lines.");
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Another instance starting at the same time seeded the table first
+            System.out.println("Account balances were already seeded by another instance.");
+        }
+    }
+
+    private Map<Long, String> transactionCurrencies(Collection<Long> transactionIds) {
+        Map<Long, String> currencies = new HashMap<>();
+        List<Long> ids = new ArrayList<>(transactionIds);
+        for (int from = 0; from < ids.size(); from += IN_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + IN_BATCH_SIZE, ids.size()));
+            String placeholders = String.join(",", Collections.nCopies(batch.size(), "?"));
+            jdbcTemplate.query("SELECT id, currency FROM transactions WHERE id IN (" + placeholders + ")",
+                    (ResultSet rs) -> {
+                        currencies.put(rs.getLong(1), rs.getString(2));
+                    }, batch.toArray());
+        }
+        return currencies;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleteForAccount(Long accountId) {
+        accountBalanceRepository.deleteByAccountId(accountId);
+    }
+
+    /**
+     * Drops the balances of accounts that no longer exist, after a set-based account delete.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int deleteOrphaned() {
+        return jdbcTemplate.update(DELETE_ORPHANED_SQL);
+    }
+
+    private void publishFor(Collection<TransactionLine> lines) {
+        lines.stream()
+                .map(line -> line.getTransaction().getLegalEntity().getId())
+                .distinct()
+                .forEach(legalEntityId -> eventPublisher.publishEvent(new LedgerChangedEvent(legalEntityId)));
+    }
+
+    private AccountBalanceChanges queryTotals(String totalsSql, boolean negate, Object... args) {
+        AccountBalanceChanges changes = new AccountBalanceChanges();
+        jdbcTemplate.query(totalsSql, (ResultSet rs) -> {
+            BigDecimal debits = rs.getBigDecimal(3);
+            BigDecimal credits = rs.getBigDecimal(4);
+            changes.addTotals(rs.getLong(1), rs.getString(2),
+                    negate ? debits.negate() : debits, negate ? credits.negate() : credits);
+        }, args);
+        return changes;
+    }
+}
@@ -1,6 +1,7 @@
 package com.testApplication.service;
 
 import com.testApplication.dto.AccountDTO;
+import com.testApplication.dto.CursorPageDTO;
 import com.testApplication.mapper.AccountMapper;
 import com.testApplication.model.Account;
 import com.testApplication.model.AccountType;
@@ -9,14 +10,13 @@ import com.testApplication.repository.AccountRepository;
 import com.testApplication.repository.AccountTypeRepository;
 import com.testApplication.repository.LegalEntityRepository;
 import com.testApplication.security.RequiresLegalEntityAccess;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
-import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -26,15 +26,21 @@ public class AccountService {
     private final AccountTypeRepository accountTypeRepository;
     private final LegalEntityRepository legalEntityRepository;
     private final AccountMapper accountMapper;
+    private final AccountBalanceService accountBalanceService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public AccountService(AccountRepository accountRepository,
                         AccountTypeRepository accountTypeRepository,
                         LegalEntityRepository legalEntityRepository,
-                        AccountMapper accountMapper) {
+                        AccountMapper accountMapper,
+                        AccountBalanceService accountBalanceService,
+                        ApplicationEventPublisher eventPublisher) {
         this.accountRepository = accountRepository;
         this.accountTypeRepository = accountTypeRepository;
         this.legalEntityRepository = legalEntityRepository;
         this.accountMapper = accountMapper;
+        this.accountBalanceService = accountBalanceService;
+        this.eventPublisher = eventPublisher;
     }
 
     @RequiresLegalEntityAccess
@@ -74,24 +80,28 @@ public class AccountService {
             .map(accountMapper::toDTO);
     }    @RequiresLegalEntityAccess(legalEntityIdParam = "legalEntityId")
     @Transactional(readOnly = true)
-    public List<AccountDTO> getAllAccounts(Long legalEntityId) {
-        return accountRepository.findByLegalEntity_Id(legalEntityId).stream()
-            .map(accountMapper::toDTO)
-            .collect(java.util.stream.Collectors.toList());
+    public CursorPageDTO<AccountDTO> getAllAccounts(Long legalEntityId, String cursor, Integer size) {
+        return accountPage(legalEntityId, cursor, size);
     }
 
     @RequiresLegalEntityAccess
     @Transactional(readOnly = true)
-    public List<AccountDTO> getAccountsByLegalEntity(Long legalEntityId) {
+    public CursorPageDTO<AccountDTO> getAccountsByLegalEntity(Long legalEntityId, String cursor, Integer size) {
         if (!legalEntityRepository.existsById(legalEntityId)) {
             throw new RuntimeException("Legal entity not found with id: " + legalEntityId);
         }
-        return accountRepository.findByLegalEntity_Id(legalEntityId).stream()
-            .map(accountMapper::toDTO)
-            .collect(java.util.stream.Collectors.toList());
+        return accountPage(legalEntityId, cursor, size);
+    }
+
+    private CursorPageDTO<AccountDTO> accountPage(Long legalEntityId, String cursor, Integer size) {
+        int pageSize = CursorPagination.pageSize(size);
+        return CursorPagination.page(accountRepository.findByLegalEntity_IdAndIdGreaterThanOrderByIdAsc(
+                        legalEntityId, CursorPagination.after(cursor), CursorPagination.limit(pageSize)),
+                pageSize, Account::getId, accountMapper::toDTOList);
     }    @RequiresLegalEntityAccess
     @Transactional(readOnly = true)
-    public List<AccountDTO> getAccountsByParentAccount(Long legalEntityId, Long parentAccountId) {
+    public CursorPageDTO<AccountDTO> getAccountsByParentAccount(Long legalEntityId, Long parentAccountId,
+                                                                String cursor, Integer size) {
         Account parentAccount = accountRepository.findById(parentAccountId)
                 .orElseThrow(() -> new RuntimeException("Parent account not found with id: " + parentAccountId));
                 
@@ -100,11 +110,10 @@ public class AccountService {
             throw new RuntimeException("Parent account does not belong to legal entity: " + legalEntityId);
         }
         
-        return accountRepository.findByParentAccount(parentAccount)
-                .stream()
-                .filter(account -> account.getLegalEntity().getId().equals(legalEntityId))
-                .map(accountMapper::toDTO)
-                .collect(java.util.stream.Collectors.toList());
+        int pageSize = CursorPagination.pageSize(size);
+        return CursorPagination.page(accountRepository.findByParentAccountAndLegalEntity_IdAndIdGreaterThanOrderByIdAsc(
+                        parentAccount, legalEntityId, CursorPagination.after(cursor), CursorPagination.limit(pageSize)),
+                pageSize, Account::getId, accountMapper::toDTOList);
     }
 
     @RequiresLegalEntityAccess
@@ -142,6 +151,7 @@ public class AccountService {
         account.setUpdatedAt(Instant.now());
 
         Account savedAccount = accountRepository.save(account);
+        eventPublisher.publishEvent(new LedgerChangedEvent(legalEntityId));
         return accountMapper.toDTO(savedAccount);
     }
     @RequiresLegalEntityAccess(legalEntityIdParam = "legalEntityId")
@@ -153,6 +163,8 @@ public class AccountService {
             throw new RuntimeException("Account does not belong to legal entity: " + legalEntityId);
         }
         
+        accountBalanceService.deleteForAccount(id);
         accountRepository.deleteById(id);
+        eventPublisher.publishEvent(new LedgerChangedEvent(legalEntityId));
     }
 }
\ No newline at end of file
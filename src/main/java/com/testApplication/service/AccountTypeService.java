@@ -6,6 +6,7 @@ import com.testApplication.model.AccountType;
 import com.testApplication.model.AccountCategory;
 import com.testApplication.repository.AccountTypeRepository;
 import com.testApplication.repository.AccountCategoryRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,14 +22,17 @@ public class AccountTypeService {
     private final AccountTypeRepository accountTypeRepository;
     private final AccountTypeMapper accountTypeMapper;
     private final AccountCategoryRepository accountCategoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public AccountTypeService(
             AccountTypeRepository accountTypeRepository,
             AccountTypeMapper accountTypeMapper,
-            AccountCategoryRepository accountCategoryRepository) {
+            AccountCategoryRepository accountCategoryRepository,
+            ApplicationEventPublisher eventPublisher) {
         this.accountTypeRepository = accountTypeRepository;
         this.accountTypeMapper = accountTypeMapper;
         this.accountCategoryRepository = accountCategoryRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional(readOnly = true)
@@ -86,6 +90,8 @@ public class AccountTypeService {
         accountType.setUpdatedAt(Instant.now());
         
         AccountType updatedType = accountTypeRepository.save(accountType);
+        // Account types are shared by every legal entity's reports
+        eventPublisher.publishEvent(new LedgerChangedEvent(null));
         return accountTypeMapper.toDTO(updatedType);
     }
 
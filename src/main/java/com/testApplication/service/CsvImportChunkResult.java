@@ -0,0 +1,16 @@
+package com.testApplication.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class CsvImportChunkResult {
+    private final int rowsWritten;
+    private final int transactionsCreated;
+    private final int accountsCreated;
+    private final Map<String, Long> resolvedTransactionIds;
+    private final Map<String, Long> resolvedAccountIds;
+}
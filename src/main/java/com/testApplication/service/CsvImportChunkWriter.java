@@ -0,0 +1,308 @@
+package com.testApplication.service;
+
+import com.testApplication.model.Account;
+import com.testApplication.model.AccountType;
+import com.testApplication.model.LegalEntity;
+import com.testApplication.model.Transaction;
+import com.testApplication.repository.AccountRepository;
+import com.testApplication.repository.AccountTypeRepository;
+import com.testApplication.repository.LegalEntityRepository;
+import com.testApplication.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Persists one chunk of a streaming CSV import in its own transaction.
+ * Transaction lines are written with plain JDBC batches because the IDENTITY
+ * keys on the entities stop Hibernate from batching the inserts itself. Missing
+ * transactions and accounts are created with insert-if-absent statements, so imports
+ * racing on the same codes converge on the same rows instead of failing or duplicating.
+ */
+@Service
+@RequiredArgsConstructor
+public class CsvImportChunkWriter {
+
+    private static final String INSERT_TRANSACTION_LINE_SQL =
+            "INSERT INTO transaction_lines (transaction_id, account_id, amount, description, is_debit, import_batch_id) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    // PostgreSQL: one statement per chunk for all missing codes. Codes that a concurrent import
+    // created first are skipped instead of failing, and resolved by the follow-up lookup.
+    private static final String UPSERT_TRANSACTIONS_SQL =
+            "INSERT INTO transactions (transaction_code, transaction_type, date, description, approval_status, "
+                    + "legal_entity_id, created_at, created_by, amount, currency, import_batch_id) "
+                    + "SELECT code, ?, ?, ?, ?, ?, ?, ?, ?, ?, ? FROM unnest(?::varchar[]) AS code "
+                    + "ON CONFLICT (transaction_code, legal_entity_id) DO NOTHING "
+                    + "RETURNING id, transaction_code";
+
+    private static final String UPSERT_ACCOUNTS_SQL =
+            "INSERT INTO accounts (code, name, description, legal_entity_id, account_type_id, active, "
+                    + "created_at, created_by, updated_at, updated_by, import_batch_id) "
+                    + "SELECT code, 'Imported: ' || code, ?, ?, ?, ?, ?, ?, ?, ?, ? FROM unnest(?::varchar[]) AS code "
+                    + "ON CONFLICT (code, legal_entity_id) DO NOTHING "
+                    + "RETURNING id, code";
+
+    // Other databases (H2 in tests): batched MERGE that only inserts codes that do not exist yet
+    private static final String MERGE_TRANSACTION_SQL =
+            "MERGE INTO transactions t USING (SELECT CAST(? AS VARCHAR(255)) AS transaction_code, "
+                    + "CAST(? AS BIGINT) AS legal_entity_id) s "
+                    + "ON t.transaction_code = s.transaction_code AND t.legal_entity_id = s.legal_entity_id "
+                    + "WHEN NOT MATCHED THEN INSERT (transaction_code, transaction_type, date, description, "
+                    + "approval_status, legal_entity_id, created_at, created_by, amount, currency, import_batch_id) "
+                    + "VALUES (s.transaction_code, ?, ?, ?, ?, s.legal_entity_id, ?, ?, ?, ?, ?)";
+
+    private static final String MERGE_ACCOUNT_SQL =
+            "MERGE INTO accounts a USING (SELECT CAST(? AS VARCHAR(100)) AS code, "
+                    + "CAST(? AS BIGINT) AS legal_entity_id) s "
+                    + "ON a.code = s.code AND a.legal_entity_id = s.legal_entity_id "
+                    + "WHEN NOT MATCHED THEN INSERT (code, name, description, legal_entity_id, account_type_id, "
+                    + "active, created_at, created_by, updated_at, updated_by, import_batch_id) "
+                    + "VALUES (s.code, ?, ?, s.legal_entity_id, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ImportCheckpointService checkpointService;
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final AccountTypeRepository accountTypeRepository;
+    private final LegalEntityRepository legalEntityRepository;
+    private final AccountBalanceService accountBalanceService;
+    private final DatabaseDialect databaseDialect;
+
+    @Value("${app.import.jdbc-batch-size:500}")
+    private int jdbcBatchSize;
+
+    /**
+     * Resolves the transaction and account codes of the chunk that the import has not
+     * seen yet with one IN query each, batch-creates whatever is still missing,
+     * batch-inserts the lines and adds them to the account balances. Runs in a new
+     * transaction so that every chunk commits on its own and its persistence context is
+     * discarded afterwards.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public CsvImportChunkResult writeChunk(CsvImportContext context, List<CsvImportRow> rows) {
+        Set<String> unknownTransactionCodes = new LinkedHashSet<>();
+        Set<String> unknownAccountCodes = new LinkedHashSet<>();
+        for (CsvImportRow row : rows) {
+            if (!context.getTransactionIds().containsKey(row.getTransactionCode())) {
+                unknownTransactionCodes.add(row.getTransactionCode());
+            }
+            if (!context.getAccountIds().containsKey(row.getAccountCode())) {
+                unknownAccountCodes.add(row.getAccountCode());
+            }
+        }
+
+        Map<String, Long> resolvedTransactionIds = new HashMap<>();
+        Map<String, Long> resolvedAccountIds = new HashMap<>();
+        int transactionsCreated = resolveTransactions(context, unknownTransactionCodes, resolvedTransactionIds);
+        int accountsCreated = resolveAccounts(context, unknownAccountCodes, resolvedAccountIds);
+
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION_LINE_SQL, rows, jdbcBatchSize, (ps, row) -> {
+            ps.setLong(1, lookup(row.getTransactionCode(), context.getTransactionIds(), resolvedTransactionIds));
+            ps.setLong(2, lookup(row.getAccountCode(), context.getAccountIds(), resolvedAccountIds));
+            ps.setBigDecimal(3, row.getAmount());
+            ps.setString(4, row.getDescription());
+            ps.setBoolean(5, row.isDebit());
+            ps.setObject(6, context.getImportBatchId(), Types.BIGINT);
+        });
+        accountBalanceService.addLineAmounts(context.getLegalEntityId(), rows.stream()
+                .map(row -> new AccountBalanceService.LineAmount(
+                        lookup(row.getTransactionCode(), context.getTransactionIds(), resolvedTransactionIds),
+                        lookup(row.getAccountCode(), context.getAccountIds(), resolvedAccountIds),
+                        row.getAmount(), row.isDebit()))
+                .toList());
+
+        checkpointService.advance(context, rows);
+
+        return new CsvImportChunkResult(rows.size(), transactionsCreated, accountsCreated,
+                resolvedTransactionIds, resolvedAccountIds);
+    }
+
+    private int resolveTransactions(CsvImportContext context, Set<String> codes, Map<String, Long> resolved) {
+        if (codes.isEmpty()) {
+            return 0;
+        }
+        Long legalEntityId = context.getLegalEntityId();
+        transactionRepository.findByLegalEntity_IdAndTransactionCodeIn(legalEntityId, codes)
+                .forEach(transaction -> resolved.putIfAbsent(transaction.getTransactionCode(), transaction.getId()));
+
+        List<Transaction> missing = new ArrayList<>();
+        LegalEntity legalEntity = legalEntityRepository.getReferenceById(legalEntityId);
+        for (String code : codes) {
+            if (!resolved.containsKey(code)) {
+                missing.add(CsvImportService.newImportedTransaction(code, legalEntity, context.getImportBatchId()));
+            }
+        }
+        if (missing.isEmpty()) {
+            return 0;
+        }
+
+        int created = databaseDialect.isPostgres()
+                ? upsertTransactions(legalEntityId, missing, resolved)
+                : mergeTransactions(legalEntityId, missing);
+        List<String> unresolved = missing.stream()
+                .map(Transaction::getTransactionCode)
+                .filter(code -> !resolved.containsKey(code))
+                .toList();
+        if (!unresolved.isEmpty()) {
+            transactionRepository.findByLegalEntity_IdAndTransactionCodeIn(legalEntityId, unresolved)
+                    .forEach(transaction -> resolved.putIfAbsent(transaction.getTransactionCode(), transaction.getId()));
+        }
+        return created;
+    }
+
+    private int resolveAccounts(CsvImportContext context, Set<String> codes, Map<String, Long> resolved) {
+        if (codes.isEmpty()) {
+            return 0;
+        }
+        Long legalEntityId = context.getLegalEntityId();
+        accountRepository.findByLegalEntity_IdAndCodeIn(legalEntityId, codes)
+                .forEach(account -> resolved.put(account.getCode(), account.getId()));
+
+        List<Account> missing = new ArrayList<>();
+        LegalEntity legalEntity = legalEntityRepository.getReferenceById(legalEntityId);
+        for (String code : codes) {
+            if (!resolved.containsKey(code)) {
+                missing.add(CsvImportService.newImportedAccount(code, legalEntity, defaultAccountType(context),
+                        context.getImportBatchId()));
+            }
+        }
+        if (missing.isEmpty()) {
+            return 0;
+        }
+
+        int created = databaseDialect.isPostgres()
+                ? upsertAccounts(legalEntityId, missing, resolved)
+                : mergeAccounts(legalEntityId, missing);
+        List<String> unresolved = missing.stream()
+                .map(Account::getCode)
+                .filter(code -> !resolved.containsKey(code))
+                .toList();
+        if (!unresolved.isEmpty()) {
+            accountRepository.findByLegalEntity_IdAndCodeIn(legalEntityId, unresolved)
+                    .forEach(account -> resolved.put(account.getCode(), account.getId()));
+        }
+        return created;
+    }
+
+    /**
+     * Inserts the missing transactions with a single statement and resolves the ids of the
+     * rows it actually inserted from {@code RETURNING}.
+     */
+    private int upsertTransactions(Long legalEntityId, List<Transaction> missing, Map<String, Long> resolved) {
+        Transaction template = missing.get(0);
+        String[] codes = missing.stream().map(Transaction::getTransactionCode).toArray(String[]::new);
+        int[] created = {0};
+        jdbcTemplate.query(UPSERT_TRANSACTIONS_SQL, ps -> {
+            ps.setString(1, template.getTransactionType());
+            ps.setTimestamp(2, Timestamp.from(template.getDate()));
+            ps.setString(3, template.getDescription());
+            ps.setString(4, template.getApprovalStatus());
+            ps.setLong(5, legalEntityId);
+            ps.setTimestamp(6, Timestamp.from(template.getCreatedAt()));
+            ps.setString(7, template.getCreatedBy());
+            ps.setBigDecimal(8, template.getAmount());
+            ps.setString(9, template.getCurrency());
+            ps.setObject(10, template.getImportBatchId(), Types.BIGINT);
+            ps.setArray(11, ps.getConnection().createArrayOf("varchar", codes));
+        }, (ResultSet rs) -> {
+            resolved.put(rs.getString(2), rs.getLong(1));
+            created[0]++;
+        });
+        return created[0];
+    }
+
+    private int upsertAccounts(Long legalEntityId, List<Account> missing, Map<String, Long> resolved) {
+        Account template = missing.get(0);
+        String[] codes = missing.stream().map(Account::getCode).toArray(String[]::new);
+        int[] created = {0};
+        jdbcTemplate.query(UPSERT_ACCOUNTS_SQL, ps -> {
+            ps.setString(1, template.getDescription());
+            ps.setLong(2, legalEntityId);
+            ps.setLong(3, template.getAccountType().getId());
+            ps.setBoolean(4, template.isActive());
+            ps.setTimestamp(5, Timestamp.from(template.getCreatedAt()));
+            ps.setString(6, template.getCreatedBy());
+            ps.setTimestamp(7, Timestamp.from(template.getUpdatedAt()));
+            ps.setString(8, template.getUpdatedBy());
+            ps.setObject(9, template.getImportBatchId(), Types.BIGINT);
+            ps.setArray(10, ps.getConnection().createArrayOf("varchar", codes));
+        }, (ResultSet rs) -> {
+            resolved.put(rs.getString(2), rs.getLong(1));
+            created[0]++;
+        });
+        return created[0];
+    }
+
+    private int mergeTransactions(Long legalEntityId, List<Transaction> missing) {
+        return inserted(jdbcTemplate.batchUpdate(MERGE_TRANSACTION_SQL, missing, jdbcBatchSize, (ps, transaction) -> {
+            ps.setString(1, transaction.getTransactionCode());
+            ps.setLong(2, legalEntityId);
+            ps.setString(3, transaction.getTransactionType());
+            ps.setTimestamp(4, Timestamp.from(transaction.getDate()));
+            ps.setString(5, transaction.getDescription());
+            ps.setString(6, transaction.getApprovalStatus());
+            ps.setTimestamp(7, Timestamp.from(transaction.getCreatedAt()));
+            ps.setString(8, transaction.getCreatedBy());
+            ps.setBigDecimal(9, transaction.getAmount());
+            ps.setString(10, transaction.getCurrency());
+            ps.setObject(11, transaction.getImportBatchId(), Types.BIGINT);
+        }));
+    }
+
+    private int mergeAccounts(Long legalEntityId, List<Account> missing) {
+        return inserted(jdbcTemplate.batchUpdate(MERGE_ACCOUNT_SQL, missing, jdbcBatchSize, (ps, account) -> {
+            ps.setString(1, account.getCode());
+            ps.setLong(2, legalEntityId);
+            ps.setString(3, account.getName());
+            ps.setString(4, account.getDescription());
+            ps.setLong(5, account.getAccountType().getId());
+            ps.setBoolean(6, account.isActive());
+            ps.setTimestamp(7, Timestamp.from(account.getCreatedAt()));
+            ps.setString(8, account.getCreatedBy());
+            ps.setTimestamp(9, Timestamp.from(account.getUpdatedAt()));
+            ps.setString(10, account.getUpdatedBy());
+            ps.setObject(11, account.getImportBatchId(), Types.BIGINT);
+        }));
+    }
+
+    /**
+     * Rows inserted by a batch. Drivers that cannot tell report {@link Statement#SUCCESS_NO_INFO},
+     * which is counted as one row.
+     */
+    private static int inserted(int[][] counts) {
+        int inserted = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                inserted += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+            }
+        }
+        return inserted;
+    }
+
+    private AccountType defaultAccountType(CsvImportContext context) {
+        if (context.getDefaultAccountType() == null) {
+            context.setDefaultAccountType(CsvImportService.findDefaultAccountType(accountTypeRepository));
+        }
+        return context.getDefaultAccountType();
+    }
+
+    private static long lookup(String code, Map<String, Long> known, Map<String, Long> resolved) {
+        Long id = known.get(code);
+        return id != null ? id : resolved.get(code);
+    }
+}
@@ -0,0 +1,60 @@
+package com.testApplication.service;
+
+import com.testApplication.model.AccountType;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * State shared by every chunk of one streaming import. Codes resolved by earlier
+ * chunks are kept here so later chunks only look up codes they have not seen yet.
+ */
+@Getter
+public class CsvImportContext {
+    private final Long legalEntityId;
+    private final Map<String, Long> transactionIds = new HashMap<>();
+    private final Map<String, Long> accountIds = new HashMap<>();
+
+    @Setter
+    private AccountType defaultAccountType;
+
+    // SHA-256 of the upload, null when the source could not be fingerprinted
+    @Setter
+    private String fileHash;
+
+    // Receives malformed lines of a partial-accept import, null when any malformed line fails the import
+    @Setter
+    private CsvImportErrorReport errorReport;
+
+    // Batch stamped on every line, transaction and account the import creates
+    @Setter
+    private Long importBatchId;
+
+    // Checkpoint advanced with every chunk, null when the import is not resumable
+    @Setter
+    private Long checkpointId;
+
+    // Lines up to this one were committed by an earlier attempt and are skipped
+    @Setter
+    private long resumeAfterLine;
+
+    // Maps a line of the imported file to the line of the upload it came from, null when they are the same
+    @Setter
+    private LongUnaryOperator sourceLines;
+
+    public CsvImportContext(Long legalEntityId) {
+        this.legalEntityId = legalEntityId;
+    }
+
+    /**
+     * Remembers the ids resolved by a chunk. Only called once the chunk has committed,
+     * so ids of rolled back inserts never leak into later chunks.
+     */
+    public void register(CsvImportChunkResult chunkResult) {
+        transactionIds.putAll(chunkResult.getResolvedTransactionIds());
+        accountIds.putAll(chunkResult.getResolvedAccountIds());
+    }
+}
@@ -0,0 +1,181 @@
+package com.testApplication.service;
+
+import com.testApplication.repository.AccountTypeRepository;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PostgreSQL bulk-load variant of {@link CsvImportChunkWriter}. The rows of a chunk are
+ * streamed into a session-local staging table with {@code COPY ... FROM STDIN}, and the
+ * missing transactions and accounts as well as the lines themselves are then inserted
+ * with one set-based statement each; the account balances are updated from one grouped
+ * query over the same staging rows. Codes a concurrent import creates first are skipped
+ * by {@code ON CONFLICT DO NOTHING} and picked up by the line insert. Only used when
+ * {@code app.import.copy-enabled} is set and the datasource is PostgreSQL.
+ */
+@Service
+@RequiredArgsConstructor
+public class CsvImportCopyWriter {
+
+    private static final String CREATE_STAGING_SQL =
+            "CREATE TEMP TABLE IF NOT EXISTS csv_import_staging ("
+                    + "line_number BIGINT, transaction_code VARCHAR(255), account_code VARCHAR(100), "
+                    + "amount NUMERIC(19, 4), description VARCHAR(500), is_debit BOOLEAN) "
+                    + "ON COMMIT DELETE ROWS";
+
+    private static final String COPY_STAGING_SQL =
+            "COPY csv_import_staging (line_number, transaction_code, account_code, amount, description, is_debit) "
+                    + "FROM STDIN WITH (FORMAT csv)";
+
+    private static final String INSERT_MISSING_TRANSACTIONS_SQL =
+            "INSERT INTO transactions (transaction_code, transaction_type, date, description, approval_status, "
+                    + "legal_entity_id, created_at, created_by, amount, currency, import_batch_id) "
+                    + "SELECT s.transaction_code, 'CSV_IMPORT', ?, 'Imported from CSV', 'PENDING', ?, ?, 'SYSTEM', 0, 'USD', ? "
+                    + "FROM (SELECT DISTINCT transaction_code FROM csv_import_staging) s "
+                    + "WHERE NOT EXISTS (SELECT 1 FROM transactions t "
+                    + "WHERE t.legal_entity_id = ? AND t.transaction_code = s.transaction_code) "
+                    + "ON CONFLICT (transaction_code, legal_entity_id) DO NOTHING";
+
+    private static final String INSERT_MISSING_ACCOUNTS_SQL =
+            "INSERT INTO accounts (code, name, description, legal_entity_id, account_type_id, active, "
+                    + "created_at, created_by, updated_at, updated_by, import_batch_id) "
+                    + "SELECT s.account_code, 'Imported: ' || s.account_code, 'Auto-created from CSV import', ?, ?, TRUE, "
+                    + "?, 'SYSTEM', ?, 'SYSTEM', ? "
+                    + "FROM (SELECT DISTINCT account_code FROM csv_import_staging) s "
+                    + "WHERE NOT EXISTS (SELECT 1 FROM accounts a "
+                    + "WHERE a.legal_entity_id = ? AND a.code = s.account_code) "
+                    + "ON CONFLICT (code, legal_entity_id) DO NOTHING";
+
+    private static final String INSERT_LINES_SQL =
+            "INSERT INTO transaction_lines (transaction_id, account_id, amount, description, is_debit, import_batch_id) "
+                    + "SELECT t.id, a.id, s.amount, s.description, s.is_debit, ? "
+                    + "FROM csv_import_staging s "
+                    + "JOIN transactions t ON t.legal_entity_id = ? AND t.transaction_code = s.transaction_code "
+                    + "JOIN accounts a ON a.legal_entity_id = ? AND a.code = s.account_code "
+                    + "ORDER BY s.line_number";
+
+    private static final String STAGED_TOTALS_SQL =
+            "SELECT a.id, t.currency, "
+                    + "SUM(CASE WHEN s.is_debit THEN s.amount ELSE 0 END), "
+                    + "SUM(CASE WHEN s.is_debit THEN 0 ELSE s.amount END) "
+                    + "FROM csv_import_staging s "
+                    + "JOIN transactions t ON t.legal_entity_id = ? AND t.transaction_code = s.transaction_code "
+                    + "JOIN accounts a ON a.legal_entity_id = ? AND a.code = s.account_code "
+                    + "GROUP BY a.id, t.currency";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ImportCheckpointService checkpointService;
+    private final AccountTypeRepository accountTypeRepository;
+    private final AccountBalanceService accountBalanceService;
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public CsvImportChunkResult writeChunk(CsvImportContext context, List<CsvImportRow> rows) {
+        Long legalEntityId = context.getLegalEntityId();
+        if (context.getDefaultAccountType() == null) {
+            context.setDefaultAccountType(CsvImportService.findDefaultAccountType(accountTypeRepository));
+        }
+
+        jdbcTemplate.execute(CREATE_STAGING_SQL);
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyIn(COPY_STAGING_SQL, new CopyDataReader(rows));
+            } catch (IOException e) {
+                throw new SQLException("COPY into staging table failed", e);
+            }
+        });
+
+        Timestamp now = Timestamp.from(Instant.now());
+        SqlParameterValue importBatchId = new SqlParameterValue(Types.BIGINT, context.getImportBatchId());
+        int transactionsCreated = jdbcTemplate.update(INSERT_MISSING_TRANSACTIONS_SQL,
+                now, legalEntityId, now, importBatchId, legalEntityId);
+        int accountsCreated = jdbcTemplate.update(INSERT_MISSING_ACCOUNTS_SQL,
+                legalEntityId, context.getDefaultAccountType().getId(), now, now, importBatchId, legalEntityId);
+        int rowsWritten = jdbcTemplate.update(INSERT_LINES_SQL, importBatchId, legalEntityId, legalEntityId);
+        accountBalanceService.addTotals(legalEntityId, STAGED_TOTALS_SQL, legalEntityId, legalEntityId);
+
+        checkpointService.advance(context, rows);
+
+        return new CsvImportChunkResult(rowsWritten, transactionsCreated, accountsCreated, Map.of(), Map.of());
+    }
+
+    /**
+     * The chunk as COPY csv input, formatted one row at a time as the driver reads it rather
+     * than built up front. Text fields are always quoted so that empty descriptions load as
+     * empty strings rather than NULL.
+     */
+    static final class CopyDataReader extends Reader {
+        private final Iterator<CsvImportRow> rows;
+        private final StringBuilder line = new StringBuilder(128);
+        private int position;
+
+        CopyDataReader(List<CsvImportRow> rows) {
+            this.rows = rows.iterator();
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            int read = 0;
+            while (read < length) {
+                if (position == line.length()) {
+                    if (!rows.hasNext()) {
+                        break;
+                    }
+                    line.setLength(0);
+                    position = 0;
+                    appendRow(line, rows.next());
+                }
+                int count = Math.min(length - read, line.length() - position);
+                line.getChars(position, position + count, buffer, offset + read);
+                position += count;
+                read += count;
+            }
+            return read == 0 ? -1 : read;
+        }
+
+        @Override
+        public void close() {
+            // Nothing to release, the rows belong to the caller
+        }
+
+        private static void appendRow(StringBuilder out, CsvImportRow row) {
+            out.append(row.getLineNumber()).append(',');
+            appendQuoted(out, row.getTransactionCode()).append(',');
+            appendQuoted(out, row.getAccountCode()).append(',');
+            out.append(row.getAmount().toPlainString()).append(',');
+            appendQuoted(out, row.getDescription()).append(',');
+            out.append(row.isDebit()).append('\n');
+        }
+
+        private static StringBuilder appendQuoted(StringBuilder out, String value) {
+            out.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    out.append('"');
+                }
+                out.append(c);
+            }
+            return out.append('"');
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.testApplication.service;
+
+import com.testApplication.exception.CsvImportException;
+import com.testApplication.model.LegalEntity;
+import com.testApplication.repository.LegalEntityRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Imports files dropped on the server into {@code <app.import.drop-folder.path>/<legal entity>/},
+ * where the folder is named after the legal entity's id or name. Files are read straight from
+ * disk by {@link CsvImportService#importTransactionLinesFromFile} and then moved to the entity's
+ * {@code processed} or {@code failed} folder; a failed file gets a {@code .error} file with the reason.
+ * <p>
+ * A file is only picked up once it is complete. By default that is signalled by an empty
+ * {@code <file>.done} marker created after the file. With {@code require-marker} turned off, a
+ * {@code .csv} / {@code .csv.gz} is imported as soon as it appears, which is only safe when
+ * producers write under another name and rename; a file copied in place is additionally held
+ * back until its size and modification time stay unchanged for {@code settle-millis}.
+ */
+@Service
+@ConditionalOnProperty(name = "app.import.drop-folder.enabled", havingValue = "true")
+public class CsvImportDropFolderWatcher {
+
+    static final String PROCESSED_DIR = "processed";
+    static final String FAILED_DIR = "failed";
+    static final String MARKER_SUFFIX = ".done";
+
+    private final CsvImportService csvImportService;
+    private final CsvImportScheduler importScheduler;
+    private final LegalEntityRepository legalEntityRepository;
+    private final Path root;
+    private final boolean requireMarker;
+    private final long settleMillis;
+    private final ExecutorService watcherThread =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("csv-drop-folder-"));
+    private final Map<WatchKey, Path> watchedDirs = new HashMap<>();
+    private WatchService watchService;
+
+    public CsvImportDropFolderWatcher(
+            CsvImportService csvImportService,
+            CsvImportScheduler importScheduler,
+            LegalEntityRepository legalEntityRepository,
+            @Value("${app.import.drop-folder.path:import-inbox}") String path,
+            @Value("${app.import.drop-folder.require-marker:true}") boolean requireMarker,
+            @Value("${app.import.drop-folder.settle-millis:2000}") long settleMillis) {
+        this.csvImportService = csvImportService;
+        this.importScheduler = importScheduler;
+        this.legalEntityRepository = legalEntityRepository;
+        this.root = Paths.get(path).toAbsolutePath();
+        this.requireMarker = requireMarker;
+        this.settleMillis = settleMillis;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        Files.createDirectories(root);
+        watchService = root.getFileSystem().newWatchService();
+        watch(root);
+        watcherThread.execute(this::watchLoop);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        watchService.close();
+        watcherThread.shutdownNow();
+    }
+
+    private void watchLoop() {
+        // Files dropped while the application was down
+        rescan();
+        while (!Thread.currentThread().isInterrupted()) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            Path dir = watchedDirs.get(key);
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    rescan();
+                } else if (dir != null) {
+                    onCreated(dir, dir.resolve((Path) event.context()));
+                }
+            }
+            if (!key.reset()) {
+                watchedDirs.remove(key);
+            }
+        }
+    }
+
+    private void rescan() {
+        try (DirectoryStream<Path> entityDirs = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path entityDir : entityDirs) {
+                watch(entityDir);
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(entityDir, Files::isRegularFile)) {
+                    for (Path file : files) {
+                        onCreated(entityDir, file);
+                    }
+                }
+            }
+        } catch (IOException | ClosedWatchServiceException e) {
+            // Picked up again by the next overflow or restart
+        }
+    }
+
+    private void onCreated(Path dir, Path entry) {
+        if (dir.equals(root)) {
+            if (Files.isDirectory(entry)) {
+                // New legal entity folder; files may have landed before it was registered
+                watch(entry);
+                rescan();
+            }
+            return;
+        }
+        String name = entry.getFileName().toString();
+        if (name.endsWith(MARKER_SUFFIX)) {
+            Path file = entry.resolveSibling(name.substring(0, name.length() - MARKER_SUFFIX.length()));
+            deleteQuietly(entry);
+            if (Files.isRegularFile(file)) {
+                process(dir, file);
+            }
+        } else if (!requireMarker && isImportable(name) && Files.isRegularFile(entry) && awaitSettled(entry)) {
+            process(dir, entry);
+        }
+    }
+
+    /**
+     * Waits until the file stops changing, so a file still being copied in is not read half-written.
+     * @return false if the file went away or the watcher is stopping
+     */
+    private boolean awaitSettled(Path file) {
+        try {
+            String before = fingerprint(file);
+            while (true) {
+                Thread.sleep(settleMillis);
+                String after = fingerprint(file);
+                if (after.equals(before)) {
+                    return true;
+                }
+                before = after;
+            }
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static String fingerprint(Path file) throws IOException {
+        return Files.size(file) + "@" + Files.getLastModifiedTime(file).toMillis();
+    }
+
+    /**
+     * Imports one file and moves it out of the inbox, whatever the outcome.
+     */
+    void process(Path entityDir, Path file) {
+        try {
+            Long legalEntityId = resolveLegalEntity(entityDir.getFileName().toString());
+            importScheduler.run(legalEntityId, () -> csvImportService.importTransactionLinesFromFile(
+                    file, legalEntityId, new CsvImportProgress()));
+            moveTo(entityDir.resolve(PROCESSED_DIR), file, null);
+        } catch (RuntimeException e) {
+            moveTo(entityDir.resolve(FAILED_DIR), file, e.getMessage() != null ? e.getMessage() : e.toString());
+        }
+    }
+
+    private Long resolveLegalEntity(String folderName) {
+        if (folderName.chars().allMatch(Character::isDigit)) {
+            Long legalEntityId = Long.valueOf(folderName);
+            if (legalEntityRepository.existsById(legalEntityId)) {
+                return legalEntityId;
+            }
+        }
+        return legalEntityRepository.findByName(folderName)
+                .map(LegalEntity::getId)
+                .orElseThrow(() -> new CsvImportException.LegalEntityNotFoundException(
+                        "Legal Entity not found: " + folderName));
+    }
+
+    private void moveTo(Path targetDir, Path file, String error) {
+        // Prefixed with the time so a file dropped again under the same name does not clash
+        String targetName = Instant.now().toEpochMilli() + "-" + file.getFileName();
+        try {
+            Files.createDirectories(targetDir);
+            Files.move(file, targetDir.resolve(targetName), StandardCopyOption.ATOMIC_MOVE);
+            if (error != null) {
+                Files.writeString(targetDir.resolve(targetName + ".error"), error, StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            // Left in the inbox; a restart retries it
+        }
+    }
+
+    private void watch(Path dir) {
+        if (watchedDirs.containsValue(dir)) {
+            return;
+        }
+        try {
+            watchedDirs.put(dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE), dir);
+        } catch (IOException e) {
+            // Not a watchable directory
+        }
+    }
+
+    private static boolean isImportable(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        return lower.endsWith(".csv") || lower.endsWith(".csv.gz");
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // A stale marker only triggers a lookup of a file that is gone
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.testApplication.service;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Rejected lines of a partial-accept import. Each line is appended to a temp CSV file as soon
+ * as it is rejected, so the report never has to be held in memory. Only written by the thread
+ * running the import.
+ */
+public class CsvImportErrorReport implements Closeable {
+
+    static final String HEADER = "line_number,reason";
+
+    private final Path file;
+    private final BufferedWriter writer;
+    private long rowsRejected;
+
+    private CsvImportErrorReport(Path file) throws IOException {
+        this.file = file;
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        writer.write(HEADER);
+        writer.newLine();
+    }
+
+    public static CsvImportErrorReport create() {
+        try {
+            return new CsvImportErrorReport(Files.createTempFile("csv-import-errors-", ".csv"));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create import error report", e);
+        }
+    }
+
+    public void reject(CsvImportRow row) {
+        try {
+            writer.write(Long.toString(row.getLineNumber()));
+            writer.write(',');
+            writeQuoted(row.getRejectionReason());
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write import error report", e);
+        }
+        rowsRejected++;
+    }
+
+    private void writeQuoted(String value) throws IOException {
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write import error report", e);
+        }
+    }
+
+    public void delete() {
+        try {
+            writer.close();
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Temp files are cleaned up by the OS eventually
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.testApplication.service;
+
+import com.testApplication.dto.CsvImportResultDTO;
+import com.testApplication.model.enums.ImportJobStatusEnum;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * In-memory state of one asynchronous import. Written by the import thread and
+ * read by status requests, hence the volatile fields.
+ */
+@Getter
+public class CsvImportJob {
+    private final String id;
+    private final Long legalEntityId;
+    private final String fileName;
+    private final boolean partialAccept;
+    private final Instant submittedAt = Instant.now();
+    private final CsvImportProgress progress = new CsvImportProgress();
+
+    private volatile ImportJobStatusEnum status = ImportJobStatusEnum.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile CsvImportResultDTO result;
+    private volatile String errorMessage;
+    // Rejected lines of a partial-accept job, created when the job starts
+    private volatile CsvImportErrorReport errorReport;
+
+    public CsvImportJob(String id, Long legalEntityId, String fileName, boolean partialAccept) {
+        this.id = id;
+        this.legalEntityId = legalEntityId;
+        this.fileName = fileName;
+        this.partialAccept = partialAccept;
+    }
+
+    public void markRunning() {
+        if (partialAccept) {
+            errorReport = CsvImportErrorReport.create();
+        }
+        startedAt = Instant.now();
+        status = ImportJobStatusEnum.RUNNING;
+    }
+
+    public void markCompleted(CsvImportResultDTO result) {
+        this.result = result;
+        finishedAt = Instant.now();
+        status = ImportJobStatusEnum.COMPLETED;
+    }
+
+    public void markFailed(String errorMessage) {
+        this.errorMessage = errorMessage;
+        finishedAt = Instant.now();
+        status = ImportJobStatusEnum.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status == ImportJobStatusEnum.COMPLETED || status == ImportJobStatusEnum.FAILED;
+    }
+}
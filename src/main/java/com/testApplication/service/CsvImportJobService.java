@@ -0,0 +1,264 @@
+package com.testApplication.service;
+
+import com.testApplication.dto.CsvImportJobStatusDTO;
+import com.testApplication.dto.CsvImportResultDTO;
+import com.testApplication.dto.CsvImportSchedulerStatusDTO;
+import com.testApplication.exception.CsvImportException;
+import com.testApplication.repository.LegalEntityRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs streaming CSV imports in the background so that the upload request returns immediately
+ * with a job id that clients poll for progress. Jobs wait in {@link CsvImportScheduler} without
+ * holding a worker thread and reach the pool only once they may start, so a backlog of one
+ * legal entity never keeps the jobs of other entities from running.
+ */
+@Service
+public class CsvImportJobService {
+
+    private final CsvImportService csvImportService;
+    private final CsvImportRegistry importRegistry;
+    private final CsvImportScheduler importScheduler;
+    private final LegalEntityRepository legalEntityRepository;
+    private final SecurityService securityService;
+    private final ThreadPoolExecutor importExecutor;
+    private final int queueCapacity;
+    private final AtomicInteger queuedJobs = new AtomicInteger();
+    private final Duration jobRetention;
+    private final Map<String, CsvImportJob> jobs = new ConcurrentHashMap<>();
+
+    public CsvImportJobService(
+            CsvImportService csvImportService,
+            CsvImportRegistry importRegistry,
+            CsvImportScheduler importScheduler,
+            LegalEntityRepository legalEntityRepository,
+            SecurityService securityService,
+            @Value("${app.import.executor.pool-size:4}") int poolSize,
+            @Value("${app.import.executor.queue-capacity:20}") int queueCapacity,
+            @Value("${app.import.job-retention-minutes:60}") long jobRetentionMinutes) {
+        this.csvImportService = csvImportService;
+        this.importRegistry = importRegistry;
+        this.importScheduler = importScheduler;
+        this.legalEntityRepository = legalEntityRepository;
+        this.securityService = securityService;
+        this.queueCapacity = queueCapacity;
+        this.jobRetention = Duration.ofMinutes(jobRetentionMinutes);
+        // The scheduler never starts more than max-concurrent jobs, so with as many threads the
+        // work queue stays empty
+        int threads = Math.max(poolSize, importScheduler.getMaxConcurrentImports());
+        this.importExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("csv-import-"));
+    }
+
+    public CsvImportJobStatusDTO submit(MultipartFile file, Long legalEntityId) {
+        return submit(file, legalEntityId, false);
+    }
+
+    /**
+     * With {@code partialAccept}, malformed lines do not fail the job; they are left out and
+     * reported in an error CSV available from {@link #getErrorReport} once the job finished.
+     */
+    public CsvImportJobStatusDTO submit(MultipartFile file, Long legalEntityId, boolean partialAccept) {
+        if (!legalEntityRepository.existsById(legalEntityId)) {
+            throw new CsvImportException.LegalEntityNotFoundException("Legal Entity not found: " + legalEntityId);
+        }
+        // The multipart file is gone once the request completes, so keep our own copy
+        Path spooledFile = spool(file);
+        try {
+            // Answer a re-upload right away instead of queueing a job that is bound to fail
+            importRegistry.rejectDuplicate(legalEntityId, fingerprint(spooledFile));
+        } catch (CsvImportException e) {
+            deleteQuietly(spooledFile);
+            throw e;
+        }
+        if (queuedJobs.incrementAndGet() > queueCapacity) {
+            queuedJobs.decrementAndGet();
+            deleteQuietly(spooledFile);
+            throw new CsvImportException.ImportQueueFullException("Import queue is full, please retry later");
+        }
+        CsvImportJob job = new CsvImportJob(UUID.randomUUID().toString(), legalEntityId, file.getOriginalFilename(),
+                partialAccept);
+        jobs.put(job.getId(), job);
+        importScheduler.submit(legalEntityId, importExecutor, () -> run(job, spooledFile))
+                .exceptionally(e -> {
+                    // Only if the pool refused the job, i.e. during shutdown
+                    queuedJobs.decrementAndGet();
+                    job.markFailed(e.getMessage());
+                    deleteQuietly(spooledFile);
+                    return null;
+                });
+        return toStatus(job);
+    }
+
+    /**
+     * Status of a job, for users with access to its legal entity.
+     */
+    public Optional<CsvImportJobStatusDTO> getStatus(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId))
+                .map(job -> {
+                    checkAccess(job.getLegalEntityId());
+                    return toStatus(job);
+                });
+    }
+
+    /**
+     * The error CSV of a finished partial-accept job, for users with access to its legal entity.
+     */
+    public Optional<Path> getErrorReport(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId))
+                .filter(job -> {
+                    checkAccess(job.getLegalEntityId());
+                    return job.isFinished();
+                })
+                .map(CsvImportJob::getErrorReport)
+                .map(CsvImportErrorReport::getFile);
+    }
+
+    /**
+     * Scheduler status listing only the queues of legal entities the caller has access to.
+     */
+    public CsvImportSchedulerStatusDTO getSchedulerStatus() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserDetails principal)) {
+            return importScheduler.getStatus(legalEntityId -> false);
+        }
+        return importScheduler.getStatus(
+                legalEntityId -> securityService.hasAccessToLegalEntity(principal, legalEntityId));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importExecutor.shutdown();
+    }
+
+    // Called by the scheduler once the job's legal entity and a global import slot are free
+    private CsvImportResultDTO run(CsvImportJob job, Path spooledFile) {
+        queuedJobs.decrementAndGet();
+        try {
+            job.markRunning();
+            CsvImportResultDTO result = csvImportService.importTransactionLinesFromFile(
+                    spooledFile, job.getLegalEntityId(), job.getProgress(), job.getId(), job.getErrorReport());
+            closeErrorReport(job);
+            job.markCompleted(result);
+            return result;
+        } catch (Exception e) {
+            closeErrorReport(job);
+            job.markFailed(e.getMessage());
+            return null;
+        } finally {
+            deleteQuietly(spooledFile);
+        }
+    }
+
+    private static void closeErrorReport(CsvImportJob job) {
+        if (job.getErrorReport() != null) {
+            job.getErrorReport().close();
+        }
+    }
+
+    private Path spool(MultipartFile file) {
+        try {
+            Path spooledFile = Files.createTempFile("csv-import-", ".csv");
+            file.transferTo(spooledFile);
+            return spooledFile;
+        } catch (IOException e) {
+            throw new CsvImportException.InvalidFileException("Failed to store uploaded file: " + e.getMessage());
+        }
+    }
+
+    private static String fingerprint(Path spooledFile) {
+        try (InputStream in = Files.newInputStream(spooledFile)) {
+            return ImportCheckpointService.sha256(in);
+        } catch (IOException e) {
+            throw new CsvImportException.InvalidFileException("Failed to read uploaded file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Forgets jobs finished longer than {@code app.import.job-retention-minutes} ago and deletes
+     * their error reports. Runs on a timer, so the temp files go away without further uploads.
+     */
+    @Scheduled(fixedDelayString = "${app.import.job-eviction-interval-ms:60000}")
+    void evictExpiredJobs() {
+        Instant cutoff = Instant.now().minus(jobRetention);
+        jobs.values().removeIf(job -> {
+            if (!job.isFinished() || !job.getFinishedAt().isBefore(cutoff)) {
+                return false;
+            }
+            if (job.getErrorReport() != null) {
+                job.getErrorReport().delete();
+            }
+            return true;
+        });
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // Temp files are cleaned up by the OS eventually
+        }
+    }
+
+    private void checkAccess(Long legalEntityId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserDetails principal)
+                || !securityService.hasAccessToLegalEntity(principal, legalEntityId)) {
+            throw new AccessDeniedException("Access denied to legal entity: " + legalEntityId);
+        }
+    }
+
+    private CsvImportJobStatusDTO toStatus(CsvImportJob job) {
+        CsvImportProgress progress = job.getProgress();
+        double rowsPerSecond = 0;
+        if (job.getStartedAt() != null) {
+            Instant end = job.getFinishedAt() != null ? job.getFinishedAt() : Instant.now();
+            long elapsedMillis = Duration.between(job.getStartedAt(), end).toMillis();
+            if (elapsedMillis > 0) {
+                rowsPerSecond = progress.getRowsPersisted() * 1000.0 / elapsedMillis;
+            }
+        }
+
+        return CsvImportJobStatusDTO.builder()
+                .jobId(job.getId())
+                .legalEntityId(job.getLegalEntityId())
+                .fileName(job.getFileName())
+                .status(job.getStatus())
+                .rowsParsed(progress.getRowsParsed())
+                .rowsPersisted(progress.getRowsPersisted())
+                .rowsRejected(progress.getRowsRejected())
+                .errorReportAvailable(job.isFinished() && job.getErrorReport() != null)
+                .rowsPerSecond(rowsPerSecond)
+                .errors(job.getErrorMessage() != null ? List.of(job.getErrorMessage()) : List.of())
+                .submittedAt(job.getSubmittedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .result(job.getResult())
+                .build();
+    }
+}
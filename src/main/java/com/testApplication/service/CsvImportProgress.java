@@ -0,0 +1,36 @@
+package com.testApplication.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Row counters updated by a running import and read concurrently by status requests.
+ */
+public class CsvImportProgress {
+    private final AtomicLong rowsParsed = new AtomicLong();
+    private final AtomicLong rowsPersisted = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+
+    public void rowsParsed(int count) {
+        rowsParsed.addAndGet(count);
+    }
+
+    public void rowsPersisted(int count) {
+        rowsPersisted.addAndGet(count);
+    }
+
+    public void rowsRejected(int count) {
+        rowsRejected.addAndGet(count);
+    }
+
+    public long getRowsParsed() {
+        return rowsParsed.get();
+    }
+
+    public long getRowsPersisted() {
+        return rowsPersisted.get();
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected.get();
+    }
+}
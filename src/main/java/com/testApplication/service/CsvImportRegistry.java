@@ -0,0 +1,84 @@
+package com.testApplication.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testApplication.dto.ImportRecordDTO;
+import com.testApplication.exception.CsvImportException;
+import com.testApplication.model.ImportRecord;
+import com.testApplication.repository.ImportRecordRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Registry of completed imports per legal entity and file hash, used to short-circuit
+ * exact re-uploads with the summary of the original import.
+ */
+@Service
+@RequiredArgsConstructor
+public class CsvImportRegistry {
+
+    private final ImportRecordRepository importRecordRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Throws {@link CsvImportException.DuplicateImportException} if the file was imported before.
+     */
+    @Transactional(readOnly = true)
+    public void rejectDuplicate(Long legalEntityId, String fileHash) {
+        importRecordRepository.findByLegalEntityIdAndFileHash(legalEntityId, fileHash)
+                .ifPresent(record -> {
+                    throw new CsvImportException.DuplicateImportException(toDTO(record));
+                });
+    }
+
+    /**
+     * Records a completed import. Joins the caller's transaction when there is one, so a
+     * single-transaction import and its record commit together.
+     */
+    @Transactional
+    public void record(Long legalEntityId, String fileHash, String fileName, long rowsImported, Object summary) {
+        String summaryJson;
+        try {
+            summaryJson = objectMapper.writeValueAsString(summary);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize import summary", e);
+        }
+        importRecordRepository.save(ImportRecord.builder()
+                .legalEntityId(legalEntityId)
+                .fileHash(fileHash)
+                .fileName(fileName)
+                .rowsImported(rowsImported)
+                .summaryJson(summaryJson)
+                .createdAt(Instant.now())
+                .createdBy(currentUsername())
+                .build());
+    }
+
+    private ImportRecordDTO toDTO(ImportRecord record) {
+        try {
+            return ImportRecordDTO.builder()
+                    .importId(record.getId())
+                    .legalEntityId(record.getLegalEntityId())
+                    .fileHash(record.getFileHash())
+                    .fileName(record.getFileName())
+                    .rowsImported(record.getRowsImported())
+                    .importedAt(record.getCreatedAt())
+                    .importedBy(record.getCreatedBy())
+                    .duplicate(true)
+                    .summary(objectMapper.readTree(record.getSummaryJson()))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored import summary is not valid JSON", e);
+        }
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "SYSTEM";
+    }
+}
@@ -0,0 +1,38 @@
+package com.testApplication.service;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * One parsed CSV row, kept only until the chunk it belongs to is written.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class CsvImportRow {
+    private final long lineNumber;
+    private final String transactionCode;
+    private final String accountCode;
+    private final BigDecimal amount;
+    private final String description;
+    private final boolean debit;
+    // Leading legal entity id or name of a multi-entity file, null otherwise
+    private final String legalEntityKey;
+    // Why the line was rejected by a partial-accept import, null for a valid row
+    private final String rejectionReason;
+
+    public CsvImportRow(long lineNumber, String transactionCode, String accountCode, BigDecimal amount,
+                        String description, boolean debit, String legalEntityKey) {
+        this(lineNumber, transactionCode, accountCode, amount, description, debit, legalEntityKey, null);
+    }
+
+    public static CsvImportRow rejected(long lineNumber, String reason) {
+        return new CsvImportRow(lineNumber, null, null, null, null, false, null, reason);
+    }
+
+    public boolean isRejected() {
+        return rejectionReason != null;
+    }
+}
@@ -0,0 +1,246 @@
+package com.testApplication.service;
+
+import com.testApplication.dto.CsvImportSchedulerStatusDTO;
+import com.testApplication.exception.CsvImportException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Decides when an import may touch the database. Imports of the same legal entity run one
+ * after the other, so they never race to create the same transaction or account, and at most
+ * {@code app.import.scheduler.max-concurrent} imports run at once across all entities.
+ * <p>
+ * Waiting imports are kept in one queue in arrival order. Whenever an import finishes, the
+ * oldest waiting imports whose entity is idle are started, so an entity with a backlog of
+ * imports holds at most one slot and cannot starve the others. {@link #run} waits on the
+ * caller's thread; {@link #submit} holds no thread while it waits and only hands the import to
+ * an executor once it may start. Callers must not nest {@link #run} calls.
+ */
+@Service
+public class CsvImportScheduler {
+
+    private final int maxConcurrentImports;
+    private final long maxWaitNanos;
+    // Guarded by this, like busyEntities and running
+    private final Deque<Ticket> waiting = new ArrayDeque<>();
+    private final Set<Long> busyEntities = new HashSet<>();
+    private int running;
+    private final AtomicLong startedImports = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxObservedWaitNanos = new AtomicLong();
+
+    public CsvImportScheduler(
+            @Value("${app.import.scheduler.max-concurrent:4}") int maxConcurrentImports,
+            @Value("${app.import.scheduler.max-wait-seconds:600}") long maxWaitSeconds) {
+        this.maxConcurrentImports = maxConcurrentImports;
+        this.maxWaitNanos = TimeUnit.SECONDS.toNanos(maxWaitSeconds);
+    }
+
+    public int getMaxConcurrentImports() {
+        return maxConcurrentImports;
+    }
+
+    /**
+     * Runs {@code importTask} on the caller's thread once the legal entity and a global slot are free.
+     * @throws CsvImportException.ImportQueueFullException if that takes longer than
+     *         {@code app.import.scheduler.max-wait-seconds}
+     */
+    public <T> T run(Long legalEntityId, Supplier<T> importTask) {
+        CompletableFuture<Void> granted = new CompletableFuture<>();
+        Ticket ticket = enqueue(legalEntityId, started -> granted.complete(null));
+        try {
+            granted.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Started in the meantime if it is no longer waiting
+            if (withdraw(ticket)) {
+                throw new CsvImportException.ImportQueueFullException("No import slot for legal entity "
+                        + legalEntityId + " within " + TimeUnit.NANOSECONDS.toSeconds(maxWaitNanos)
+                        + "s, please retry later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (!withdraw(ticket)) {
+                release(ticket);
+            }
+            throw new CsvImportException.ImportQueueFullException("Interrupted while waiting for an import slot");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+        try {
+            return importTask.get();
+        } finally {
+            release(ticket);
+        }
+    }
+
+    /**
+     * Queues {@code importTask} without holding a thread while it waits, and runs it on
+     * {@code executor} once the legal entity and a global slot are free. Background imports have
+     * nobody waiting on an answer, so they wait as long as it takes; no max-wait applies.
+     * @return completes with the result of the import, or exceptionally if it failed or the
+     *         executor refused it
+     */
+    public <T> CompletableFuture<T> submit(Long legalEntityId, Executor executor, Supplier<T> importTask) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        enqueue(legalEntityId, ticket -> {
+            try {
+                executor.execute(() -> {
+                    try {
+                        result.complete(importTask.get());
+                    } catch (RuntimeException e) {
+                        result.completeExceptionally(e);
+                    } finally {
+                        release(ticket);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                release(ticket);
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Runs {@code task} on the caller's thread if no import of the legal entity is running, and
+     * holds the entity until it returns; it never waits. Meant for short maintenance such as a
+     * rollback, so it does not take one of the global import slots.
+     * @throws CsvImportException.LegalEntityBusyException if an import of the entity is running
+     */
+    public <T> T runExclusive(Long legalEntityId, Supplier<T> task) {
+        synchronized (this) {
+            if (!busyEntities.add(legalEntityId)) {
+                throw new CsvImportException.LegalEntityBusyException("An import of legal entity "
+                        + legalEntityId + " is running, please retry once it has finished");
+            }
+        }
+        try {
+            return task.get();
+        } finally {
+            List<Ticket> startable;
+            synchronized (this) {
+                busyEntities.remove(legalEntityId);
+                startable = takeStartable();
+            }
+            start(startable);
+        }
+    }
+
+    public CsvImportSchedulerStatusDTO getStatus() {
+        return getStatus(legalEntityId -> true);
+    }
+
+    /**
+     * Status with the queues of the legal entities {@code listed} accepts; the totals still
+     * count every import.
+     */
+    public CsvImportSchedulerStatusDTO getStatus(LongPredicate listed) {
+        Map<Long, Integer> queuedPerLegalEntity = new TreeMap<>();
+        int runningImports;
+        synchronized (this) {
+            waiting.forEach(ticket -> queuedPerLegalEntity.merge(ticket.legalEntityId, 1, Integer::sum));
+            runningImports = running;
+        }
+        int queuedImports = queuedPerLegalEntity.values().stream().mapToInt(Integer::intValue).sum();
+        // Outside the monitor: the filter may look up access rights
+        queuedPerLegalEntity.keySet().removeIf(legalEntityId -> !listed.test(legalEntityId));
+        long started = startedImports.get();
+        return CsvImportSchedulerStatusDTO.builder()
+                .maxConcurrentImports(maxConcurrentImports)
+                .runningImports(runningImports)
+                .queuedImports(queuedImports)
+                .queuedPerLegalEntity(queuedPerLegalEntity)
+                .startedImports(started)
+                .averageWaitMillis(started > 0 ? TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get() / started) : 0)
+                .maxWaitMillis(TimeUnit.NANOSECONDS.toMillis(maxObservedWaitNanos.get()))
+                .build();
+    }
+
+    private Ticket enqueue(Long legalEntityId, Consumer<Ticket> onStart) {
+        Ticket ticket = new Ticket(legalEntityId, onStart);
+        List<Ticket> startable;
+        synchronized (this) {
+            waiting.addLast(ticket);
+            startable = takeStartable();
+        }
+        start(startable);
+        return ticket;
+    }
+
+    /**
+     * Removes a ticket that is still waiting; false if it was started meanwhile.
+     */
+    private synchronized boolean withdraw(Ticket ticket) {
+        return waiting.remove(ticket);
+    }
+
+    private void release(Ticket ticket) {
+        List<Ticket> startable;
+        synchronized (this) {
+            busyEntities.remove(ticket.legalEntityId);
+            running--;
+            startable = takeStartable();
+        }
+        start(startable);
+    }
+
+    // Oldest first: the first waiting ticket of an idle entity is also that entity's oldest
+    private List<Ticket> takeStartable() {
+        List<Ticket> startable = new ArrayList<>();
+        Iterator<Ticket> it = waiting.iterator();
+        while (running < maxConcurrentImports && it.hasNext()) {
+            Ticket ticket = it.next();
+            if (busyEntities.add(ticket.legalEntityId)) {
+                it.remove();
+                running++;
+                startable.add(ticket);
+            }
+        }
+        return startable;
+    }
+
+    // Outside the monitor, so a start action may release its ticket right away
+    private void start(List<Ticket> startable) {
+        for (Ticket ticket : startable) {
+            recordWait(System.nanoTime() - ticket.queuedAt);
+            ticket.onStart.accept(ticket);
+        }
+    }
+
+    private void recordWait(long waitNanos) {
+        startedImports.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        maxObservedWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    private static final class Ticket {
+        private final Long legalEntityId;
+        private final Consumer<Ticket> onStart;
+        private final long queuedAt = System.nanoTime();
+
+        private Ticket(Long legalEntityId, Consumer<Ticket> onStart) {
+            this.legalEntityId = legalEntityId;
+            this.onStart = onStart;
+        }
+    }
+}
@@ -1,24 +1,47 @@
 package com.testApplication.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testApplication.dto.CsvImportResultDTO;
+import com.testApplication.dto.CsvImportSummaryDTO;
+import com.testApplication.dto.CsvImportValidationReportDTO;
 import com.testApplication.dto.TransactionLineDTO;
+import com.testApplication.exception.CsvImportException;
 import com.testApplication.model.*;
 import com.testApplication.repository.*;
 import com.testApplication.mapper.TransactionLineMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import lombok.RequiredArgsConstructor;
 
 import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.Instant;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.LongUnaryOperator;
 
 @Service
 @RequiredArgsConstructor
 public class CsvImportService {
+    private static final int MAX_HEADER_BYTES = 4096;
+
+    private static final ThreadLocal<CsvLineTokenizer> TOKENIZERS = ThreadLocal.withInitial(CsvLineTokenizer::new);
+
     @Autowired
     private TransactionLineMapper transactionLineMapper;
 
@@ -37,12 +60,149 @@ public class CsvImportService {
     @Autowired
     private AccountTypeRepository accountTypeRepository;
 
+    @Autowired
+    private CsvImportChunkWriter chunkWriter;
+
+    @Autowired
+    private CsvParsePipeline parsePipeline;
+
+    @Autowired
+    private CsvImportCopyWriter copyWriter;
+
+    @Autowired
+    private DatabaseDialect databaseDialect;
+
+    @Autowired
+    private ImportCheckpointService checkpointService;
+
+    @Autowired
+    private CsvImportRegistry importRegistry;
+
+    @Autowired
+    private AccountBalanceService accountBalanceService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ImportBatchService importBatchService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.import.copy-enabled:false}")
+    private boolean copyEnabled;
+
     @Transactional
     public List<TransactionLineDTO> importTransactionLinesFromCsv(MultipartFile file, Long legalEntityId) {
+        String fileHash = fingerprint(file);
+        importRegistry.rejectDuplicate(legalEntityId, fileHash);
+        CsvImportStatistics statistics = new CsvImportStatistics();
+        ImportBatch batch = importBatchService.start(legalEntityId, fileHash, file.getOriginalFilename(), null);
+        List<TransactionLine> savedLines = importLines(file, legalEntityId, batch.getId(), statistics);
+        importBatchService.complete(batch.getId(), savedLines.size());
+        importRegistry.record(legalEntityId, fileHash, file.getOriginalFilename(), savedLines.size(),
+                statistics.toSummary(legalEntityId));
+        return transactionLineMapper.toDTOList(savedLines);
+    }
+
+    /**
+     * Dry run of an import: streams the file, checks that the debits and credits of every
+     * transaction code balance, and reports the transactions and accounts the import would
+     * create. Existing codes are looked up in batches and nothing is written. The file is parsed
+     * outside any transaction, so a slow upload holds no pooled connection; only the lookups at
+     * the end share one short read-only transaction.
+     */
+    public CsvImportValidationReportDTO validateTransactionLines(MultipartFile file, Long legalEntityId) {
+        if (!legalEntityRepository.existsById(legalEntityId)) {
+            throw new CsvImportException.LegalEntityNotFoundException("Legal Entity not found: " + legalEntityId);
+        }
+
+        CsvImportValidation validation = new CsvImportValidation();
+        try (InputStream in = CsvUploadDecoder.decode(file.getInputStream())) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String header = reader.readLine();
+            if (header == null) {
+                throw new CsvImportException.InvalidCsvFormatException("CSV file has no header");
+            }
+            validateHeader(header);
+
+            try (CsvParsePipeline.Execution pipeline =
+                         parsePipeline.start(reader, 2, new CsvImportProgress(), this::parseRecord)) {
+                List<CsvImportRow> rows;
+                while ((rows = pipeline.nextBlock()) != null) {
+                    rows.forEach(validation::line);
+                }
+            }
+        } catch (IOException e) {
+            throw new CsvImportException.InvalidFileException("Failed to read CSV: " + e.getMessage());
+        }
+
+        TransactionTemplate lookups = new TransactionTemplate(transactionManager);
+        lookups.setReadOnly(true);
+        return lookups.execute(status -> {
+            Set<String> existingTransactionCodes = new HashSet<>();
+            inBatches(validation.getTransactionCodes(), codes ->
+                    transactionRepository.findByLegalEntity_IdAndTransactionCodeIn(legalEntityId, codes)
+                            .forEach(transaction -> existingTransactionCodes.add(transaction.getTransactionCode())));
+            Set<String> existingAccountCodes = new HashSet<>();
+            inBatches(validation.getAccountCodes(), codes ->
+                    accountRepository.findByLegalEntity_IdAndCodeIn(legalEntityId, codes)
+                            .forEach(account -> existingAccountCodes.add(account.getCode())));
+
+            CsvImportValidationReportDTO report =
+                    validation.toReport(legalEntityId, existingTransactionCodes, existingAccountCodes);
+            if (!report.getAccountsToCreate().isEmpty()
+                    && accountTypeRepository.findByCode("CURRENT_ASSET").isEmpty()) {
+                report.getErrors().add("Default CURRENT_ASSET account type not found, new accounts cannot be created");
+                report.setValid(false);
+            }
+            return report;
+        });
+    }
+
+    /**
+     * Same single-transaction import as {@link #importTransactionLinesFromCsv}, answered with a
+     * summary instead of every persisted line. The lines can be read back page by page through
+     * {@link ImportBatchService#getLines} with the summary's {@code importBatchId}.
+     */
+    @Transactional
+    public CsvImportSummaryDTO importTransactionLinesWithSummary(MultipartFile file, Long legalEntityId) {
+        String fileHash = fingerprint(file);
+        importRegistry.rejectDuplicate(legalEntityId, fileHash);
+        CsvImportStatistics statistics = new CsvImportStatistics();
+        ImportBatch batch = importBatchService.start(legalEntityId, fileHash, file.getOriginalFilename(), null);
+        List<TransactionLine> savedLines = importLines(file, legalEntityId, batch.getId(), statistics);
+        importBatchService.complete(batch.getId(), savedLines.size());
+        importRegistry.record(legalEntityId, fileHash, file.getOriginalFilename(), savedLines.size(),
+                statistics.toSummary(legalEntityId));
+
+        CsvImportSummaryDTO summary = statistics.toSummary(legalEntityId);
+        summary.setImportBatchId(batch.getId());
+        return summary;
+    }
+
+    private static String fingerprint(MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            return ImportCheckpointService.sha256(in);
+        } catch (IOException e) {
+            throw new CsvImportException.InvalidFileException("Failed to read CSV: " + e.getMessage());
+        }
+    }
+
+    private List<TransactionLine> importLines(MultipartFile file, Long legalEntityId, Long importBatchId,
+                                              CsvImportStatistics statistics) {
         List<TransactionLine> transactionLines = new ArrayList<>();
         Map<String, Transaction> transactionCache = new HashMap<>();
+        Map<String, Account> accountCache = new HashMap<>();
+        CsvImportContext context = new CsvImportContext(legalEntityId);
+        context.setImportBatchId(importBatchId);
 
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream()))) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(CsvUploadDecoder.decode(file.getInputStream()), StandardCharsets.UTF_8))) {
             // Verify legal entity exists
             LegalEntity legalEntity = legalEntityRepository.findById(legalEntityId)
                     .orElseThrow(() -> new RuntimeException("Legal Entity not found: " + legalEntityId));
@@ -51,61 +211,476 @@ public class CsvImportService {
             String header = reader.readLine();
             validateHeader(header);
 
+            CsvLineTokenizer tokenizer = new CsvLineTokenizer();
+            long lineNumber = 1;
             String line;
-            while ((line = reader.readLine()) != null) {
-                String[] data = line.split(",");
-                validateData(data);
-
-                // Parse CSV data
-                String transactionCode = data[0].trim();
-                String accountCode = data[1].trim();
-                BigDecimal amount = new BigDecimal(data[2].trim());
-                String description = data[3].trim();
-                boolean isDebit = Boolean.parseBoolean(data[4].trim());
+            while (true) {
+                long parseStarted = System.nanoTime();
+                line = reader.readLine();
+                if (line == null) {
+                    break;
+                }
+                CsvImportRow row = tokenizer.parse(line.toCharArray(), 0, line.length(), ++lineNumber);
+                statistics.stage("parse", parseStarted);
+                statistics.line(row);
+                String transactionCode = row.getTransactionCode();
+                String accountCode = row.getAccountCode();
 
+                long resolveStarted = System.nanoTime();
                 // Get or create Transaction
                 Transaction transaction = transactionCache.computeIfAbsent(transactionCode, code -> {
                     return transactionRepository.findByTransactionCodeAndLegalEntity_Id(code, legalEntityId)
-                            .orElseGet(() -> createNewTransaction(code, legalEntity));
-                });                // Get or create Account
-                Account account = accountRepository.findByCodeAndLegalEntity_Id(accountCode, legalEntityId)
-                        .orElseGet(() -> createNewAccount(accountCode, legalEntity));
+                            .orElseGet(() -> {
+                                statistics.transactionCreated();
+                                return createNewTransaction(code, legalEntity, importBatchId);
+                            });
+                });
+                // Get or create Account, once per distinct code
+                Account account = accountCache.computeIfAbsent(accountCode, code ->
+                        accountRepository.findByCodeAndLegalEntity_Id(code, legalEntityId)
+                                .orElseGet(() -> {
+                                    statistics.accountCreated(code);
+                                    return createNewAccount(code, legalEntity, context);
+                                }));
+                statistics.stage("resolve", resolveStarted);
 
                 // Create TransactionLine
                 TransactionLine transactionLine = TransactionLine.builder()
                         .transaction(transaction)
                         .account(account)
-                        .amount(amount)
-                        .description(description)
-                        .isDebit(isDebit)
+                        .amount(row.getAmount())
+                        .description(row.getDescription())
+                        .isDebit(row.isDebit())
+                        .importBatchId(importBatchId)
                         .build();
 
                 transactionLines.add(transactionLine);
             }
 
+            long persistStarted = System.nanoTime();
             List<TransactionLine> savedLines = transactionLineRepository.saveAll(transactionLines);
-            return transactionLineMapper.toDTOList(savedLines);
+            accountBalanceService.addLines(savedLines);
+            statistics.stage("persist", persistStarted);
+            return savedLines;
         } catch (Exception e) {
             throw new RuntimeException("Failed to import CSV: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Imports the file in fixed-size chunks instead of one transaction for the whole file.
+     * Lines are parsed in parallel by {@link CsvParsePipeline} and handed back in file order;
+     * every chunk is committed by {@link CsvImportChunkWriter}, so memory use stays flat
+     * regardless of the file size. Chunks committed before a failing line stay committed,
+     * and importing the same file again resumes after the last committed line.
+     */
+    public CsvImportResultDTO importTransactionLinesStreaming(MultipartFile file, Long legalEntityId) {
+        String fileHash = fingerprint(file);
+        try {
+            try (InputStream in = CsvUploadDecoder.decode(file.getInputStream())) {
+                return importTransactionLinesStreaming(in, legalEntityId, new CsvImportProgress(), fileHash, null, null,
+                        null);
+            }
+        } catch (IOException e) {
+            throw new CsvImportException.InvalidFileException("Failed to read CSV: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Streaming import over any byte source, reporting row counts to {@code progress} as it goes.
+     * Without the hash of the content there is nothing to key a checkpoint on, so the import
+     * always starts from the first line.
+     */
+    public CsvImportResultDTO importTransactionLinesStreaming(InputStream in, Long legalEntityId,
+                                                              CsvImportProgress progress) {
+        return importTransactionLinesStreaming(in, legalEntityId, progress, null, null, null, null);
+    }
+
+    private CsvImportResultDTO importTransactionLinesStreaming(InputStream in, Long legalEntityId,
+                                                               CsvImportProgress progress, String fileHash,
+                                                               String jobId, CsvImportErrorReport errorReport,
+                                                               LongUnaryOperator sourceLines) {
+        long startedAt = System.currentTimeMillis();
+        if (!legalEntityRepository.existsById(legalEntityId)) {
+            throw new CsvImportException.LegalEntityNotFoundException("Legal Entity not found: " + legalEntityId);
+        }
+        CsvImportContext context = startImport(legalEntityId, fileHash, jobId);
+        context.setErrorReport(errorReport);
+        context.setSourceLines(sourceLines);
+        CsvImportResultDTO result = CsvImportResultDTO.builder()
+                .legalEntityId(legalEntityId)
+                .importBatchId(context.getImportBatchId())
+                .build();
+
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String header = reader.readLine();
+            if (header == null) {
+                throw new CsvImportException.InvalidCsvFormatException("CSV file has no header");
+            }
+            validateHeader(header);
+
+            // Line 1 is the header, data starts on line 2
+            try (CsvParsePipeline.Execution pipeline = parsePipeline.start(reader, 2, progress, lineParser(context))) {
+                writeChunks(pipeline, context, result, progress);
+            }
+        } catch (IOException e) {
+            throw failImport(context, result,
+                    new CsvImportException.InvalidFileException("Failed to read CSV: " + e.getMessage()));
+        } catch (RuntimeException e) {
+            throw failImport(context, result, e);
+        }
+
+        return finishImport(context, result, startedAt);
+    }
+
+    /**
+     * Large-file mode: copies the request body to a temp file without holding it in memory,
+     * then imports it through {@link #importTransactionLinesFromFile}.
+     */
+    public CsvImportResultDTO importTransactionLinesSpooled(InputStream body, Long legalEntityId) {
+        if (!legalEntityRepository.existsById(legalEntityId)) {
+            throw new CsvImportException.LegalEntityNotFoundException("Legal Entity not found: " + legalEntityId);
+        }
+        Path spooledFile = null;
+        try {
+            spooledFile = Files.createTempFile("csv-import-", ".csv");
+            Files.copy(body, spooledFile, StandardCopyOption.REPLACE_EXISTING);
+            return importTransactionLinesFromFile(spooledFile, legalEntityId, new CsvImportProgress());
+        } catch (IOException e) {
+            throw new CsvImportException.InvalidFileException("Failed to store uploaded file: " + e.getMessage());
+        } finally {
+            if (spooledFile != null) {
+                try {
+                    Files.deleteIfExists(spooledFile);
+                } catch (IOException ignored) {
+                    // Temp files are cleaned up by the OS eventually
+                }
+            }
+        }
+    }
+
+    /**
+     * Streaming import of newline-delimited JSON records shaped like {@link TransactionLineDTO}.
+     * Records are read one at a time with the Jackson streaming parser and written in chunks
+     * through the same writers as the CSV streaming import, so the body is never materialized.
+     * gzip or zlib compressed bodies are decompressed on the fly.
+     */
+    public CsvImportResultDTO importTransactionLinesNdjson(InputStream body, Long legalEntityId) {
+        long startedAt = System.currentTimeMillis();
+        if (!legalEntityRepository.existsById(legalEntityId)) {
+            throw new CsvImportException.LegalEntityNotFoundException("Legal Entity not found: " + legalEntityId);
+        }
+        // The body can only be read once, so there is no file hash to checkpoint against
+        CsvImportContext context = startImport(legalEntityId, null, null);
+        CsvImportResultDTO result = CsvImportResultDTO.builder()
+                .legalEntityId(legalEntityId)
+                .importBatchId(context.getImportBatchId())
+                .build();
+        CsvImportProgress progress = new CsvImportProgress();
+
+        try (NdjsonRecordReader reader = new NdjsonRecordReader(
+                objectMapper.getFactory().createParser(CsvUploadDecoder.decode(body)))) {
+            List<CsvImportRow> chunk = new ArrayList<>(chunkSize);
+            CsvImportRow row;
+            while ((row = reader.next()) != null) {
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    progress.rowsParsed(chunk.size());
+                    writeChunk(context, chunk, result, progress);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                progress.rowsParsed(chunk.size());
+                writeChunk(context, chunk, result, progress);
+            }
+        } catch (IOException e) {
+            throw failImport(context, result,
+                    new CsvImportException.InvalidFileException("Failed to read JSON: " + e.getMessage()));
+        } catch (RuntimeException e) {
+            throw failImport(context, result, e);
+        }
+
+        return finishImport(context, result, startedAt);
+    }
+
+    /**
+     * Streaming import of a UTF-8 file on local disk. The file is memory-mapped window by
+     * window and cut into blocks at record boundaries before decoding, so files in the
+     * gigabyte range import with the same heap footprint as small ones. Compressed files
+     * are decompressed on the fly through the streaming path instead.
+     */
+    public CsvImportResultDTO importTransactionLinesFromFile(Path file, Long legalEntityId,
+                                                             CsvImportProgress progress) {
+        return importTransactionLinesFromFile(file, legalEntityId, progress, null, null);
+    }
+
+    /**
+     * Same as {@link #importTransactionLinesFromFile(Path, Long, CsvImportProgress)}, recording
+     * {@code jobId} on the checkpoint of the file.
+     */
+    public CsvImportResultDTO importTransactionLinesFromFile(Path file, Long legalEntityId,
+                                                             CsvImportProgress progress, String jobId,
+                                                             CsvImportErrorReport errorReport) {
+        return importFile(file, legalEntityId, progress, jobId, errorReport, null);
+    }
+
+    /**
+     * Imports one partition of a multi-entity upload, see {@link CsvMultiEntityImportService}.
+     * {@code sourceLines} maps a line of the partition to the line of the upload it was taken
+     * from, so that errors and checkpoints refer to the file the user uploaded.
+     */
+    public CsvImportResultDTO importPartition(Path partition, Long legalEntityId, CsvImportProgress progress,
+                                              LongUnaryOperator sourceLines) {
+        return importFile(partition, legalEntityId, progress, null, null, sourceLines);
+    }
+
+    private CsvImportResultDTO importFile(Path file, Long legalEntityId, CsvImportProgress progress, String jobId,
+                                          CsvImportErrorReport errorReport, LongUnaryOperator sourceLines) {
+        long startedAt = System.currentTimeMillis();
+        if (!legalEntityRepository.existsById(legalEntityId)) {
+            throw new CsvImportException.LegalEntityNotFoundException("Legal Entity not found: " + legalEntityId);
+        }
+
+        String fileHash;
+        CsvUploadDecoder.Compression compression;
+        try (InputStream in = Files.newInputStream(file)) {
+            fileHash = ImportCheckpointService.sha256(in);
+            compression = CsvUploadDecoder.detect(file);
+        } catch (IOException e) {
+            throw new CsvImportException.InvalidFileException("Failed to read CSV: " + e.getMessage());
+        }
+        if (compression != CsvUploadDecoder.Compression.NONE) {
+            // A compressed file cannot be mapped; decompress it as a stream instead of expanding it
+            try (InputStream in = CsvUploadDecoder.decode(Files.newInputStream(file))) {
+                return importTransactionLinesStreaming(in, legalEntityId, progress, fileHash, jobId, errorReport,
+                        sourceLines);
+            } catch (IOException e) {
+                throw new CsvImportException.InvalidFileException("Failed to read CSV: " + e.getMessage());
+            }
+        }
+        CsvImportContext context = startImport(legalEntityId, fileHash, jobId);
+        context.setErrorReport(errorReport);
+        context.setSourceLines(sourceLines);
+        CsvImportResultDTO result = CsvImportResultDTO.builder()
+                .legalEntityId(legalEntityId)
+                .importBatchId(context.getImportBatchId())
+                .build();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long dataOffset = readHeader(channel);
+            try (CsvParsePipeline.Execution pipeline =
+                         parsePipeline.start(channel, dataOffset, 2, progress, lineParser(context))) {
+                writeChunks(pipeline, context, result, progress);
+            }
+        } catch (IOException e) {
+            throw failImport(context, result,
+                    new CsvImportException.InvalidFileException("Failed to read CSV: " + e.getMessage()));
+        } catch (RuntimeException e) {
+            throw failImport(context, result, e);
+        }
+
+        return finishImport(context, result, startedAt);
+    }
+
+    /**
+     * Opens the import's batch, or reopens the batch of the interrupted attempt that a
+     * resumed import continues, so that all lines of the file can be rolled back together.
+     */
+    private CsvImportContext startImport(Long legalEntityId, String fileHash, String jobId) {
+        CsvImportContext context = new CsvImportContext(legalEntityId);
+        ImportBatch batch = null;
+        if (fileHash != null) {
+            importRegistry.rejectDuplicate(legalEntityId, fileHash);
+            context.setFileHash(fileHash);
+            ImportCheckpoint checkpoint = checkpointService.begin(legalEntityId, fileHash, jobId);
+            context.setCheckpointId(checkpoint.getId());
+            context.setResumeAfterLine(checkpoint.getLastCommittedLine());
+            if (checkpoint.getLastCommittedLine() > 0 && checkpoint.getImportBatchId() != null) {
+                batch = importBatchService.resume(checkpoint.getImportBatchId(), jobId);
+            }
+        }
+        if (batch == null) {
+            batch = importBatchService.start(legalEntityId, fileHash, null, jobId);
+            if (context.getCheckpointId() != null) {
+                checkpointService.attachBatch(context.getCheckpointId(), batch.getId());
+            }
+        }
+        context.setImportBatchId(batch.getId());
+        return context;
+    }
+
+    private CsvImportResultDTO finishImport(CsvImportContext context, CsvImportResultDTO result, long startedAt) {
+        if (context.getCheckpointId() != null) {
+            checkpointService.complete(context.getCheckpointId());
+        }
+        importBatchService.complete(context.getImportBatchId(), result.getRowsImported());
+        result.setResumedAfterLine(context.getResumeAfterLine());
+        result.setElapsedMillis(System.currentTimeMillis() - startedAt);
+        if (context.getFileHash() != null) {
+            importRegistry.record(context.getLegalEntityId(), context.getFileHash(), null,
+                    result.getRowsImported() + result.getRowsSkipped(), result);
+        }
+        return result;
+    }
+
+    /**
+     * Marks the batch of a streaming import that stopped halfway. Returns {@code failure}
+     * for the caller to rethrow.
+     */
+    private RuntimeException failImport(CsvImportContext context, CsvImportResultDTO result,
+                                        RuntimeException failure) {
+        try {
+            importBatchService.fail(context.getImportBatchId(), result.getRowsImported());
+        } catch (RuntimeException e) {
+            failure.addSuppressed(e);
+        }
+        return failure;
+    }
+
+    private void inBatches(Collection<String> codes, Consumer<List<String>> lookup) {
+        List<String> batch = new ArrayList<>(chunkSize);
+        for (String code : codes) {
+            batch.add(code);
+            if (batch.size() >= chunkSize) {
+                lookup.accept(batch);
+                batch = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            lookup.accept(batch);
+        }
+    }
+
+    private void writeChunks(CsvParsePipeline.Execution pipeline, CsvImportContext context,
+                             CsvImportResultDTO result, CsvImportProgress progress) {
+        List<CsvImportRow> chunk = new ArrayList<>(chunkSize);
+        List<CsvImportRow> rows;
+        while ((rows = pipeline.nextBlock()) != null) {
+            for (CsvImportRow row : rows) {
+                if (row.getLineNumber() <= context.getResumeAfterLine()) {
+                    // Committed by an earlier attempt at the same file
+                    result.setRowsSkipped(result.getRowsSkipped() + 1);
+                    continue;
+                }
+                if (row.isRejected()) {
+                    context.getErrorReport().reject(row);
+                    progress.rowsRejected(1);
+                    result.setRowsRejected(result.getRowsRejected() + 1);
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(context, chunk, result, progress);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(context, chunk, result, progress);
+        }
+    }
+
+    /**
+     * Validates the header line of a mapped file and returns the byte offset of line 2.
+     */
+    private long readHeader(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_HEADER_BYTES);
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while (read != -1 && buffer.hasRemaining());
+        buffer.flip();
+        if (!buffer.hasRemaining()) {
+            throw new CsvImportException.InvalidCsvFormatException("CSV file has no header");
+        }
+        int lineBreak = 0;
+        while (lineBreak < buffer.limit() && buffer.get(lineBreak) != '\n') {
+            lineBreak++;
+        }
+        validateHeader(new String(buffer.array(), 0, lineBreak, StandardCharsets.UTF_8));
+        return Math.min(lineBreak + 1, buffer.limit());
+    }
+
+    private void writeChunk(CsvImportContext context, List<CsvImportRow> chunk, CsvImportResultDTO result,
+                            CsvImportProgress progress) {
+        importBatchService.heartbeat(context.getImportBatchId());
+        CsvImportChunkResult chunkResult = useCopy()
+                ? copyWriter.writeChunk(context, chunk)
+                : chunkWriter.writeChunk(context, chunk);
+        context.register(chunkResult);
+        progress.rowsPersisted(chunkResult.getRowsWritten());
+        result.setRowsImported(result.getRowsImported() + chunkResult.getRowsWritten());
+        result.setTransactionsCreated(result.getTransactionsCreated() + chunkResult.getTransactionsCreated());
+        result.setAccountsCreated(result.getAccountsCreated() + chunkResult.getAccountsCreated());
+        result.setChunksCommitted(result.getChunksCommitted() + 1);
+    }
+
+    /**
+     * COPY is PostgreSQL-only; any other database (H2 in tests) keeps using the JDBC batch writer.
+     */
+    private boolean useCopy() {
+        if (!copyEnabled) {
+            return false;
+        }
+        return databaseDialect.isPostgres();
+    }
+
+    private CsvImportRow parseRecord(char[] chars, int start, int end, long lineNumber) {
+        return TOKENIZERS.get().parse(chars, start, end, lineNumber);
+    }
+
+    /**
+     * Partial-accept imports turn a malformed line into a rejected row instead of failing the import.
+     */
+    private CsvParsePipeline.LineParser lineParser(CsvImportContext context) {
+        LongUnaryOperator sourceLines = context.getSourceLines() != null
+                ? context.getSourceLines()
+                : LongUnaryOperator.identity();
+        if (context.getErrorReport() == null) {
+            return (chars, start, end, lineNumber) ->
+                    parseRecord(chars, start, end, sourceLines.applyAsLong(lineNumber));
+        }
+        return (chars, start, end, lineNumber) -> {
+            long sourceLine = sourceLines.applyAsLong(lineNumber);
+            try {
+                return parseRecord(chars, start, end, sourceLine);
+            } catch (CsvImportException.InvalidCsvFormatException e) {
+                return CsvImportRow.rejected(sourceLine, e.getMessage());
+            }
+        };
+    }
+
     private void validateHeader(String header) {
         String expectedHeader = "transaction_code,account_code,amount,description,is_debit";
         if (!expectedHeader.equalsIgnoreCase(header.trim())) {
-            throw new RuntimeException("Invalid CSV header. Expected: " + expectedHeader);
+            throw new CsvImportException.InvalidCsvFormatException("Invalid CSV header. Expected: " + expectedHeader);
         }
     }
 
-    private void validateData(String[] data) {
-        if (data.length != 5) {
-            throw new RuntimeException("Invalid CSV line. Expected 5 columns but found " + data.length);
+    private Transaction createNewTransaction(String transactionCode, LegalEntity legalEntity, Long importBatchId) {
+        return transactionRepository.save(newImportedTransaction(transactionCode, legalEntity, importBatchId));
+    }
+
+    private Account createNewAccount(String accountCode, LegalEntity legalEntity, CsvImportContext context) {
+        // Default to CURRENT_ASSET type for imported accounts, looked up once per import
+        if (context.getDefaultAccountType() == null) {
+            context.setDefaultAccountType(findDefaultAccountType(accountTypeRepository));
+        }
+        Account account = newImportedAccount(accountCode, legalEntity, context.getDefaultAccountType(),
+                context.getImportBatchId());
+
+        try {
+            return accountRepository.save(account);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to create account: " + accountCode + " - " + e.getMessage(), e);
         }
     }
 
-    private Transaction createNewTransaction(String transactionCode, LegalEntity legalEntity) {
+    static Transaction newImportedTransaction(String transactionCode, LegalEntity legalEntity, Long importBatchId) {
         Instant now = Instant.now();
-        Transaction transaction = Transaction.builder()
+        return Transaction.builder()
                 .transactionCode(transactionCode)
                 .transactionType("CSV_IMPORT")
                 .date(now)
@@ -116,35 +691,31 @@ public class CsvImportService {
                 .createdBy("SYSTEM") // Set created by
                 .amount(BigDecimal.ZERO) // Will be updated by transaction lines
                 .currency("USD") // Default currency
+                .importBatchId(importBatchId)
                 .build();
-        return transactionRepository.save(transaction);
     }
 
-    private Account createNewAccount(String accountCode, LegalEntity legalEntity) {
-        // Default to CURRENT_ASSET type for imported accounts
-        AccountType assetType = accountTypeRepository.findByCode("CURRENT_ASSET")
+    static AccountType findDefaultAccountType(AccountTypeRepository accountTypeRepository) {
+        return accountTypeRepository.findByCode("CURRENT_ASSET")
                 .orElseThrow(() -> new RuntimeException(
                         "Default CURRENT_ASSET account type not found. Please ensure DataInitializer ran."));
+    }
 
+    static Account newImportedAccount(String accountCode, LegalEntity legalEntity, AccountType accountType,
+                                      Long importBatchId) {
         Instant now = Instant.now();
-
-        Account account = Account.builder()
+        return Account.builder()
                 .code(accountCode)
                 .name("Imported: " + accountCode)
                 .description("Auto-created from CSV import")
                 .legalEntity(legalEntity)
-                .accountType(assetType)
+                .accountType(accountType)
                 .active(true)
                 .createdAt(now)
                 .createdBy("SYSTEM")
                 .updatedAt(now)
                 .updatedBy("SYSTEM")
+                .importBatchId(importBatchId)
                 .build();
-
-        try {
-            return accountRepository.save(account);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to create account: " + accountCode + " - " + e.getMessage(), e);
-        }
     }
 }
@@ -0,0 +1,67 @@
+package com.testApplication.service;
+
+import com.testApplication.dto.CsvImportSummaryDTO;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the figures of an import summary while the lines go by, so that the response
+ * never has to walk the persisted entities again.
+ */
+public class CsvImportStatistics {
+    private final long startedAt = System.nanoTime();
+    private final Map<String, Long> linesPerTransaction = new LinkedHashMap<>();
+    private final List<String> createdAccountCodes = new ArrayList<>();
+    private final Map<String, Long> stageNanos = new LinkedHashMap<>();
+    private BigDecimal totalDebits = BigDecimal.ZERO;
+    private BigDecimal totalCredits = BigDecimal.ZERO;
+    private long rows;
+    private int transactionsCreated;
+
+    public void line(CsvImportRow row) {
+        rows++;
+        linesPerTransaction.merge(row.getTransactionCode(), 1L, Long::sum);
+        if (row.isDebit()) {
+            totalDebits = totalDebits.add(row.getAmount());
+        } else {
+            totalCredits = totalCredits.add(row.getAmount());
+        }
+    }
+
+    public void transactionCreated() {
+        transactionsCreated++;
+    }
+
+    public void accountCreated(String code) {
+        createdAccountCodes.add(code);
+    }
+
+    /**
+     * Adds the time since {@code startNanos} to {@code stage}.
+     */
+    public void stage(String stage, long startNanos) {
+        stageNanos.merge(stage, System.nanoTime() - startNanos, Long::sum);
+    }
+
+    public CsvImportSummaryDTO toSummary(Long legalEntityId) {
+        Map<String, Long> stageMillis = new LinkedHashMap<>();
+        stageNanos.forEach((stage, nanos) -> stageMillis.put(stage, TimeUnit.NANOSECONDS.toMillis(nanos)));
+        return CsvImportSummaryDTO.builder()
+                .legalEntityId(legalEntityId)
+                .rowsImported(rows)
+                .transactionsCreated(transactionsCreated)
+                .accountsCreated(createdAccountCodes.size())
+                .createdAccountCodes(createdAccountCodes)
+                .linesPerTransaction(linesPerTransaction)
+                .totalDebits(totalDebits)
+                .totalCredits(totalCredits)
+                .stageMillis(stageMillis)
+                .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt))
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.testApplication.service;
+
+import com.testApplication.dto.CsvImportValidationReportDTO;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregates the lines of a dry-run import: debit and credit totals per transaction code
+ * and the distinct account codes. Only the totals are kept, never the lines themselves.
+ */
+public class CsvImportValidation {
+
+    static final int MAX_REPORTED_UNBALANCED = 1000;
+
+    private final long startedAt = System.nanoTime();
+    // transaction code -> {debits, credits}
+    private final Map<String, BigDecimal[]> totals = new HashMap<>();
+    private final Set<String> accountCodes = new HashSet<>();
+    private BigDecimal totalDebits = BigDecimal.ZERO;
+    private BigDecimal totalCredits = BigDecimal.ZERO;
+    private long rows;
+
+    public void line(CsvImportRow row) {
+        rows++;
+        accountCodes.add(row.getAccountCode());
+        BigDecimal[] transactionTotals = totals.computeIfAbsent(row.getTransactionCode(),
+                code -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+        if (row.isDebit()) {
+            transactionTotals[0] = transactionTotals[0].add(row.getAmount());
+            totalDebits = totalDebits.add(row.getAmount());
+        } else {
+            transactionTotals[1] = transactionTotals[1].add(row.getAmount());
+            totalCredits = totalCredits.add(row.getAmount());
+        }
+    }
+
+    public Set<String> getTransactionCodes() {
+        return totals.keySet();
+    }
+
+    public Set<String> getAccountCodes() {
+        return accountCodes;
+    }
+
+    public CsvImportValidationReportDTO toReport(Long legalEntityId, Set<String> existingTransactionCodes,
+                                                 Set<String> existingAccountCodes) {
+        List<CsvImportValidationReportDTO.UnbalancedTransaction> unbalanced = new ArrayList<>();
+        int unbalancedCount = 0;
+        for (Map.Entry<String, BigDecimal[]> entry : totals.entrySet()) {
+            BigDecimal debits = entry.getValue()[0];
+            BigDecimal credits = entry.getValue()[1];
+            if (debits.compareTo(credits) != 0) {
+                unbalancedCount++;
+                unbalanced.add(CsvImportValidationReportDTO.UnbalancedTransaction.builder()
+                        .transactionCode(entry.getKey())
+                        .debits(debits)
+                        .credits(credits)
+                        .difference(debits.subtract(credits))
+                        .build());
+            }
+        }
+        unbalanced.sort((a, b) -> a.getTransactionCode().compareTo(b.getTransactionCode()));
+
+        int transactionsToCreate = 0;
+        for (String code : totals.keySet()) {
+            if (!existingTransactionCodes.contains(code)) {
+                transactionsToCreate++;
+            }
+        }
+        List<String> accountsToCreate = accountCodes.stream()
+                .filter(code -> !existingAccountCodes.contains(code))
+                .sorted()
+                .toList();
+
+        return CsvImportValidationReportDTO.builder()
+                .legalEntityId(legalEntityId)
+                .valid(unbalancedCount == 0)
+                .rowsRead(rows)
+                .transactionCount(totals.size())
+                .transactionsToCreate(transactionsToCreate)
+                .accountsToCreate(accountsToCreate)
+                .totalDebits(totalDebits)
+                .totalCredits(totalCredits)
+                .unbalancedTransactionCount(unbalancedCount)
+                .unbalancedTransactions(unbalanced.size() > MAX_REPORTED_UNBALANCED
+                        ? new ArrayList<>(unbalanced.subList(0, MAX_REPORTED_UNBALANCED)) : unbalanced)
+                .errors(new ArrayList<>())
+                .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt))
+                .build();
+    }
+}
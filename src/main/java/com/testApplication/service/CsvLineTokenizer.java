@@ -0,0 +1,231 @@
+package com.testApplication.service;
+
+import com.testApplication.exception.CsvImportException;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+
+/**
+ * Tokenizer for the {@code transaction_code,account_code,amount,description,is_debit}
+ * import format that works directly on the block buffer handed out by {@link CsvParsePipeline}.
+ * <p>
+ * Fields follow RFC 4180: a field may be wrapped in double quotes, in which case it can
+ * contain commas and line breaks, and a doubled quote stands for one quote character.
+ * Quoted fields are unescaped in place, unquoted fields are trimmed by moving offsets, and
+ * the amount and the debit flag are read straight from the buffer, so the only objects
+ * created per line are the three text fields and the amount itself.
+ * <p>
+ * Instances keep their field offsets between calls and are not thread-safe; use one per thread.
+ */
+public final class CsvLineTokenizer {
+
+    static final int COLUMNS = 5;
+
+    private static final char QUOTE = '"';
+    private static final char SEPARATOR = ',';
+    private static final char[] TRUE = {'t', 'r', 'u', 'e'};
+
+    // 1 when every record starts with a legal entity column, see CsvMultiEntityImportService
+    private final int offset;
+    private final int columns;
+    private final int[] fieldStart;
+    private final int[] fieldEnd;
+
+    public CsvLineTokenizer() {
+        this(false);
+    }
+
+    public CsvLineTokenizer(boolean leadingEntityColumn) {
+        this.offset = leadingEntityColumn ? 1 : 0;
+        this.columns = COLUMNS + offset;
+        this.fieldStart = new int[columns];
+        this.fieldEnd = new int[columns];
+    }
+
+    /**
+     * Parses the record held in {@code chars[start, end)}. Quoted fields are unescaped in
+     * place, so the buffer content of the record is not preserved.
+     */
+    public CsvImportRow parse(char[] chars, int start, int end, long lineNumber) {
+        int found = tokenize(chars, start, end, lineNumber);
+        if (found != columns) {
+            throw new CsvImportException.InvalidCsvFormatException(
+                    "Invalid CSV line " + lineNumber + ". Expected " + columns + " columns but found " + found);
+        }
+        return new CsvImportRow(
+                lineNumber,
+                text(chars, offset),
+                text(chars, offset + 1),
+                amount(chars, lineNumber),
+                text(chars, offset + 3),
+                isTrue(chars, offset + 4),
+                offset == 1 ? text(chars, 0) : null);
+    }
+
+    /**
+     * Splits the record into fields and returns how many there are. Offsets are only kept
+     * for the expected number of fields; any extra fields are just counted.
+     */
+    private int tokenize(char[] chars, int start, int end, long lineNumber) {
+        int column = 0;
+        int pos = start;
+        while (true) {
+            int from = skipWhitespace(chars, pos, end);
+            int valueStart;
+            int valueEnd;
+            if (from < end && chars[from] == QUOTE) {
+                valueStart = from + 1;
+                int read = valueStart;
+                int write = valueStart;
+                while (true) {
+                    if (read >= end) {
+                        throw new CsvImportException.InvalidCsvFormatException(
+                                "Unterminated quoted field on CSV line " + lineNumber);
+                    }
+                    char c = chars[read++];
+                    if (c == QUOTE) {
+                        if (read < end && chars[read] == QUOTE) {
+                            read++;
+                        } else {
+                            break;
+                        }
+                    }
+                    chars[write++] = c;
+                }
+                valueEnd = write;
+                pos = skipWhitespace(chars, read, end);
+                if (pos < end && chars[pos] != SEPARATOR) {
+                    throw new CsvImportException.InvalidCsvFormatException(
+                            "Unexpected character after quoted field on CSV line " + lineNumber);
+                }
+            } else {
+                pos = from;
+                while (pos < end && chars[pos] != SEPARATOR) {
+                    pos++;
+                }
+                valueStart = from;
+                valueEnd = trimEnd(chars, from, pos);
+            }
+
+            if (column < columns) {
+                fieldStart[column] = valueStart;
+                fieldEnd[column] = valueEnd;
+            }
+            column++;
+            if (pos >= end) {
+                return column;
+            }
+            pos++; // separator
+        }
+    }
+
+    private String text(char[] chars, int column) {
+        return new String(chars, fieldStart[column], fieldEnd[column] - fieldStart[column]);
+    }
+
+    private BigDecimal amount(char[] chars, long lineNumber) {
+        int start = fieldStart[offset + 2];
+        int length = fieldEnd[offset + 2] - start;
+        try {
+            return new BigDecimal(chars, start, length);
+        } catch (NumberFormatException e) {
+            throw new CsvImportException.InvalidCsvFormatException(
+                    "Invalid amount on CSV line " + lineNumber + ": " + new String(chars, start, length));
+        }
+    }
+
+    /**
+     * Same result as {@link Boolean#parseBoolean(String)}: {@code true} ignoring case, anything else is false.
+     */
+    private boolean isTrue(char[] chars, int column) {
+        int start = fieldStart[column];
+        if (fieldEnd[column] - start != TRUE.length) {
+            return false;
+        }
+        for (int i = 0; i < TRUE.length; i++) {
+            if (Character.toLowerCase(chars[start + i]) != TRUE[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int skipWhitespace(char[] chars, int pos, int end) {
+        while (pos < end && chars[pos] != SEPARATOR && Character.isWhitespace(chars[pos])) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int trimEnd(char[] chars, int start, int end) {
+        while (end > start && Character.isWhitespace(chars[end - 1])) {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Returns the index of the first line break at or after {@code from} that ends a record,
+     * i.e. is not inside a quoted field, or {@code length} if the record runs to the end.
+     * {@code chars[from]} must be the start of a record.
+     */
+    static int recordEnd(char[] chars, int from, int length) {
+        boolean quoted = false;
+        boolean atFieldStart = true;
+        for (int i = from; i < length; i++) {
+            char c = chars[i];
+            if (quoted) {
+                if (c == QUOTE) {
+                    if (i + 1 < length && chars[i + 1] == QUOTE) {
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                }
+            } else if (c == '\n') {
+                return i;
+            } else if (c == SEPARATOR) {
+                atFieldStart = true;
+            } else if (c == QUOTE && atFieldStart) {
+                // Only a quote opening a field starts a quoted section, like in tokenize()
+                quoted = true;
+                atFieldStart = false;
+            } else if (!Character.isWhitespace(c)) {
+                atFieldStart = false;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Byte variant of {@link #recordEnd(char[], int, int)} for UTF-8 input. Quotes, separators
+     * and line breaks are single bytes in UTF-8 and never occur inside a multi-byte sequence,
+     * so records can be cut before the bytes are decoded.
+     */
+    static int recordEnd(ByteBuffer bytes, int from, int length) {
+        boolean quoted = false;
+        boolean atFieldStart = true;
+        for (int i = from; i < length; i++) {
+            byte b = bytes.get(i);
+            if (quoted) {
+                if (b == QUOTE) {
+                    if (i + 1 < length && bytes.get(i + 1) == QUOTE) {
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                }
+            } else if (b == '\n') {
+                return i;
+            } else if (b == SEPARATOR) {
+                atFieldStart = true;
+            } else if (b == QUOTE && atFieldStart) {
+                quoted = true;
+                atFieldStart = false;
+            } else if (b != ' ' && b != '\t' && b != '\r') {
+                atFieldStart = false;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,292 @@
+package com.testApplication.service;
+
+import com.testApplication.dto.CsvImportResultDTO;
+import com.testApplication.dto.CsvMultiEntityImportResultDTO;
+import com.testApplication.exception.CsvImportException;
+import com.testApplication.model.LegalEntity;
+import com.testApplication.repository.LegalEntityRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Imports group-level extracts whose rows belong to several legal entities. The first column
+ * is either {@code legal_entity_id} or {@code legal_entity} (the entity name).
+ * <p>
+ * One pass over the upload resolves every distinct entity once, checks the caller's access to
+ * it once, and spools its rows into a partition file in the single-entity format. Nothing is
+ * written to the database until the whole file has been read, so an unknown or forbidden
+ * entity anywhere in the file fails the upload up front. The partitions are then imported in
+ * parallel through {@link CsvImportService#importPartition}, each on its own worker and with
+ * its own chunk transactions. Every partition keeps the upload line of each of its records, so
+ * errors and checkpoints refer to the line numbers of the uploaded file.
+ */
+@Service
+public class CsvMultiEntityImportService {
+
+    static final String ID_HEADER = "legal_entity_id,transaction_code,account_code,amount,description,is_debit";
+    static final String NAME_HEADER = "legal_entity,transaction_code,account_code,amount,description,is_debit";
+    private static final String PARTITION_HEADER = "transaction_code,account_code,amount,description,is_debit";
+
+    private static final ThreadLocal<CsvLineTokenizer> TOKENIZERS =
+            ThreadLocal.withInitial(() -> new CsvLineTokenizer(true));
+
+    private final CsvImportService csvImportService;
+    private final CsvImportScheduler importScheduler;
+    private final CsvParsePipeline parsePipeline;
+    private final LegalEntityRepository legalEntityRepository;
+    private final SecurityService securityService;
+    private final ExecutorService partitionExecutor;
+
+    public CsvMultiEntityImportService(
+            CsvImportService csvImportService,
+            CsvImportScheduler importScheduler,
+            CsvParsePipeline parsePipeline,
+            LegalEntityRepository legalEntityRepository,
+            SecurityService securityService,
+            @Value("${app.import.partition-threads:4}") int partitionThreads) {
+        this.csvImportService = csvImportService;
+        this.importScheduler = importScheduler;
+        this.parsePipeline = parsePipeline;
+        this.legalEntityRepository = legalEntityRepository;
+        this.securityService = securityService;
+        this.partitionExecutor = Executors.newFixedThreadPool(partitionThreads,
+                new CustomizableThreadFactory("csv-partition-"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        partitionExecutor.shutdownNow();
+    }
+
+    public CsvMultiEntityImportResultDTO importMultiEntity(InputStream in) {
+        long startedAt = System.currentTimeMillis();
+        Map<Long, Path> partitions = new LinkedHashMap<>();
+        Map<Long, SourceLines> sourceLines = new HashMap<>();
+        try {
+            long rowsRead = partition(in, partitions, sourceLines);
+
+            Map<Long, Future<CsvImportResultDTO>> futures = new LinkedHashMap<>();
+            partitions.forEach((legalEntityId, file) -> futures.put(legalEntityId, partitionExecutor.submit(
+                    () -> importScheduler.run(legalEntityId, () -> csvImportService.importPartition(
+                            file, legalEntityId, new CsvImportProgress(), sourceLines.get(legalEntityId))))));
+
+            Map<Long, CsvImportResultDTO> results = new LinkedHashMap<>();
+            Map<Long, String> errors = new LinkedHashMap<>();
+            for (Map.Entry<Long, Future<CsvImportResultDTO>> entry : futures.entrySet()) {
+                try {
+                    results.put(entry.getKey(), entry.getValue().get());
+                } catch (ExecutionException e) {
+                    errors.put(entry.getKey(), e.getCause().getMessage());
+                }
+            }
+
+            return CsvMultiEntityImportResultDTO.builder()
+                    .rowsRead(rowsRead)
+                    .results(results)
+                    .errors(errors)
+                    .elapsedMillis(System.currentTimeMillis() - startedAt)
+                    .build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CsvImportException.InvalidFileException("CSV import was interrupted");
+        } finally {
+            partitions.values().forEach(CsvMultiEntityImportService::deleteQuietly);
+        }
+    }
+
+    /**
+     * Splits the upload into one single-entity CSV per legal entity and returns the number of rows.
+     */
+    private long partition(InputStream in, Map<Long, Path> partitions, Map<Long, SourceLines> sourceLines) {
+        Map<String, Long> entityIds = new HashMap<>();
+        Map<Long, Writer> writers = new HashMap<>();
+        long rows = 0;
+        try {
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(CsvUploadDecoder.decode(in), StandardCharsets.UTF_8));
+            String header = reader.readLine();
+            boolean byName = parseHeader(header);
+            UserDetails principal = currentUser();
+
+            try (CsvParsePipeline.Execution pipeline = parsePipeline.start(reader, 2, new CsvImportProgress(),
+                    (chars, start, end, lineNumber) -> TOKENIZERS.get().parse(chars, start, end, lineNumber))) {
+                List<CsvImportRow> block;
+                while ((block = pipeline.nextBlock()) != null) {
+                    for (CsvImportRow row : block) {
+                        Long legalEntityId = entityIds.get(row.getLegalEntityKey());
+                        if (legalEntityId == null) {
+                            legalEntityId = resolveEntity(row, byName, principal);
+                            entityIds.put(row.getLegalEntityKey(), legalEntityId);
+                        }
+                        Writer writer = writers.get(legalEntityId);
+                        if (writer == null) {
+                            writer = openPartition(legalEntityId, partitions);
+                            writers.put(legalEntityId, writer);
+                            sourceLines.put(legalEntityId, new SourceLines());
+                        }
+                        writeRow(writer, row);
+                        sourceLines.get(legalEntityId).add(row);
+                        rows++;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new CsvImportException.InvalidFileException("Failed to read CSV: " + e.getMessage());
+        } finally {
+            for (Writer writer : writers.values()) {
+                try {
+                    writer.close();
+                } catch (IOException ignored) {
+                    // The partition is deleted or fails to import anyway
+                }
+            }
+        }
+        return rows;
+    }
+
+    private boolean parseHeader(String header) {
+        if (header != null && ID_HEADER.equalsIgnoreCase(header.trim())) {
+            return false;
+        }
+        if (header != null && NAME_HEADER.equalsIgnoreCase(header.trim())) {
+            return true;
+        }
+        throw new CsvImportException.InvalidCsvFormatException(
+                "Invalid CSV header. Expected: " + ID_HEADER + " or " + NAME_HEADER);
+    }
+
+    /**
+     * Looks the entity up and checks the caller's access to it; runs once per distinct entity.
+     */
+    private Long resolveEntity(CsvImportRow row, boolean byName, UserDetails principal) {
+        String key = row.getLegalEntityKey();
+        Long legalEntityId;
+        if (byName) {
+            legalEntityId = legalEntityRepository.findByName(key)
+                    .map(LegalEntity::getId)
+                    .orElseThrow(() -> new CsvImportException.LegalEntityNotFoundException(
+                            "Legal Entity not found on CSV line " + row.getLineNumber() + ": " + key));
+        } else {
+            try {
+                legalEntityId = Long.valueOf(key);
+            } catch (NumberFormatException e) {
+                throw new CsvImportException.InvalidCsvFormatException(
+                        "Invalid legal entity id on CSV line " + row.getLineNumber() + ": " + key);
+            }
+            if (!legalEntityRepository.existsById(legalEntityId)) {
+                throw new CsvImportException.LegalEntityNotFoundException(
+                        "Legal Entity not found on CSV line " + row.getLineNumber() + ": " + key);
+            }
+        }
+        if (!securityService.hasAccessToLegalEntity(principal, legalEntityId)) {
+            throw new AccessDeniedException("Access denied to legal entity: " + legalEntityId);
+        }
+        return legalEntityId;
+    }
+
+    private static UserDetails currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserDetails principal)) {
+            throw new AccessDeniedException("Authentication required for multi-entity imports");
+        }
+        return principal;
+    }
+
+    private static Writer openPartition(Long legalEntityId, Map<Long, Path> partitions) throws IOException {
+        Path file = Files.createTempFile("csv-import-" + legalEntityId + "-", ".csv");
+        partitions.put(legalEntityId, file);
+        BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        writer.write(PARTITION_HEADER);
+        writer.write('\n');
+        return writer;
+    }
+
+    private static void writeRow(Writer writer, CsvImportRow row) throws IOException {
+        writeQuoted(writer, row.getTransactionCode());
+        writer.write(',');
+        writeQuoted(writer, row.getAccountCode());
+        writer.write(',');
+        writer.write(row.getAmount().toPlainString());
+        writer.write(',');
+        writeQuoted(writer, row.getDescription());
+        writer.write(',');
+        writer.write(row.isDebit() ? "true" : "false");
+        writer.write('\n');
+    }
+
+    private static void writeQuoted(Writer writer, String value) throws IOException {
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    /**
+     * Upload line of every record of a partition, indexed by the partition line the record starts
+     * on. Line breaks inside quoted fields make a record span several partition lines; the lines
+     * it continues on are never looked up.
+     */
+    static final class SourceLines implements LongUnaryOperator {
+        // Line 1 of a partition is its header
+        private long[] lines = new long[256];
+        private int nextLine = 2;
+
+        void add(CsvImportRow row) {
+            int line = nextLine;
+            if (line - 2 >= lines.length) {
+                lines = Arrays.copyOf(lines, Math.max(lines.length * 2, line - 1));
+            }
+            lines[line - 2] = row.getLineNumber();
+            nextLine = line + 1 + lineBreaks(row.getTransactionCode()) + lineBreaks(row.getAccountCode())
+                    + lineBreaks(row.getDescription());
+        }
+
+        @Override
+        public long applyAsLong(long partitionLine) {
+            return lines[(int) partitionLine - 2];
+        }
+
+        private static int lineBreaks(String value) {
+            int count = 0;
+            for (int i = 0; i < value.length(); i++) {
+                if (value.charAt(i) == '\n') {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // Temp files are cleaned up by the OS eventually
+        }
+    }
+}
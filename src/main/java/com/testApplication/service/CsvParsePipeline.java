@@ -0,0 +1,370 @@
+package com.testApplication.service;
+
+import com.testApplication.exception.CsvImportException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Reader -> parser workers -> single consumer pipeline for CSV imports.
+ * <p>
+ * One reader thread per import cuts the character stream into blocks at line boundaries
+ * and hands each block to a shared pool of parser threads. The parse futures are queued in
+ * file order in a bounded queue, which gives backpressure on the reader and lets the
+ * consumer (the importing thread, which does the batched writes) receive rows in their
+ * original order with errors reported against the line they occurred on.
+ */
+@Component
+public class CsvParsePipeline {
+
+    /**
+     * Parses the record held in {@code chars[start, end)}, line terminator excluded. The
+     * parser owns that range of the buffer and may rewrite it.
+     */
+    @FunctionalInterface
+    public interface LineParser {
+        CsvImportRow parse(char[] chars, int start, int end, long lineNumber);
+    }
+
+    private static final int MAX_RECORD_LENGTH = 1 << 24;
+
+    private static final int MAP_WINDOW = 64 * 1024 * 1024;
+
+    private static final ParsedBlock END_OF_INPUT = new ParsedBlock(List.of(), null);
+
+    private final ExecutorService parserPool;
+    private final ExecutorService readerPool;
+    private final int blockSize;
+    private final int queueCapacity;
+
+    public CsvParsePipeline(
+            @Value("${app.import.parser-threads:0}") int parserThreads,
+            @Value("${app.import.block-size:65536}") int blockSize,
+            @Value("${app.import.pipeline-queue-capacity:16}") int queueCapacity) {
+        int threads = parserThreads > 0 ? parserThreads : Runtime.getRuntime().availableProcessors();
+        this.parserPool = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("csv-parser-"));
+        this.readerPool = Executors.newCachedThreadPool(new CustomizableThreadFactory("csv-reader-"));
+        this.blockSize = blockSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Starts reading {@code reader} in the background. The first character read is expected
+     * to be the start of line {@code firstLineNumber}.
+     */
+    public Execution start(Reader reader, long firstLineNumber, CsvImportProgress progress, LineParser parser) {
+        Execution execution = new Execution(progress, parser);
+        execution.readerTask = readerPool.submit(() -> execution.read(reader, firstLineNumber));
+        return execution;
+    }
+
+    /**
+     * Starts reading {@code channel} from byte {@code offset} through memory-mapped windows.
+     * The reader only looks for record boundaries in the mapped bytes; decoding the UTF-8
+     * blocks into characters happens on the parser threads, so heap use does not depend on
+     * the file size.
+     */
+    public Execution start(FileChannel channel, long offset, long firstLineNumber,
+                           CsvImportProgress progress, LineParser parser) {
+        Execution execution = new Execution(progress, parser);
+        execution.readerTask = readerPool.submit(() -> execution.read(channel, offset, firstLineNumber));
+        return execution;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        readerPool.shutdownNow();
+        parserPool.shutdownNow();
+    }
+
+    private record ParsedBlock(List<CsvImportRow> rows, CsvImportException error) {
+    }
+
+    public class Execution implements AutoCloseable {
+        private final BlockingQueue<Future<ParsedBlock>> blocks = new ArrayBlockingQueue<>(queueCapacity);
+        private final CsvImportProgress progress;
+        private final LineParser parser;
+        private volatile boolean cancelled;
+        private Future<?> readerTask;
+        private CsvImportException pendingError;
+        private boolean finished;
+
+        private Execution(CsvImportProgress progress, LineParser parser) {
+            this.progress = progress;
+            this.parser = parser;
+        }
+
+        /**
+         * Returns the rows of the next block in file order, or {@code null} once the input is
+         * exhausted. When a block contains an invalid line, the rows before it are returned
+         * first and the error is thrown by the following call.
+         */
+        public List<CsvImportRow> nextBlock() {
+            if (pendingError != null) {
+                throw pendingError;
+            }
+            if (finished) {
+                return null;
+            }
+            try {
+                ParsedBlock block = blocks.take().get();
+                if (block == END_OF_INPUT) {
+                    finished = true;
+                    return null;
+                }
+                pendingError = block.error();
+                return block.rows();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CsvImportException.InvalidFileException("CSV import was interrupted");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new CsvImportException.InvalidFileException("Failed to read CSV: " + e.getCause().getMessage());
+            }
+        }
+
+        @Override
+        public void close() {
+            cancelled = true;
+            if (readerTask != null) {
+                readerTask.cancel(true);
+            }
+            Future<ParsedBlock> block;
+            while ((block = blocks.poll()) != null) {
+                block.cancel(true);
+            }
+        }
+
+        private void read(Reader reader, long firstLineNumber) {
+            try {
+                char[] buffer = new char[blockSize];
+                int filled = 0;
+                long lineNumber = firstLineNumber;
+                while (!cancelled) {
+                    int read = reader.read(buffer, filled, buffer.length - filled);
+                    if (read == -1) {
+                        if (filled > 0) {
+                            submit(buffer, filled, lineNumber);
+                        }
+                        break;
+                    }
+                    filled += read;
+                    if (filled < buffer.length) {
+                        continue;
+                    }
+
+                    int cut = lastRecordBreak(buffer, filled);
+                    if (cut < 0) {
+                        // A single record longer than the block: grow and keep reading
+                        if (buffer.length >= MAX_RECORD_LENGTH) {
+                            throw new CsvImportException.InvalidCsvFormatException("CSV record starting on line "
+                                    + lineNumber + " is longer than " + MAX_RECORD_LENGTH
+                                    + " characters, check for an unterminated quote");
+                        }
+                        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                        continue;
+                    }
+                    char[] next = new char[Math.max(blockSize, filled - cut - 1)];
+                    System.arraycopy(buffer, cut + 1, next, 0, filled - cut - 1);
+                    submit(buffer, cut + 1, lineNumber);
+                    lineNumber += countLineBreaks(buffer, 0, cut + 1);
+                    filled = filled - cut - 1;
+                    buffer = next;
+                }
+                blocks.put(CompletableFuture.completedFuture(END_OF_INPUT));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | RuntimeException e) {
+                if (!cancelled) {
+                    try {
+                        blocks.put(CompletableFuture.failedFuture(e));
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        }
+
+        private void read(FileChannel channel, long offset, long firstLineNumber) {
+            try {
+                long size = channel.size();
+                long position = offset;
+                long lineNumber = firstLineNumber;
+                while (!cancelled && position < size) {
+                    int windowLength = (int) Math.min(MAP_WINDOW, size - position);
+                    boolean lastWindow = position + windowLength == size;
+                    MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, windowLength);
+
+                    int blockStart = 0;
+                    while (!cancelled && blockStart < windowLength) {
+                        int cut = blockEnd(window, blockStart, windowLength, lastWindow);
+                        if (cut == blockStart) {
+                            if (blockStart == 0) {
+                                throw new CsvImportException.InvalidCsvFormatException("CSV record starting on line "
+                                        + lineNumber + " is longer than " + MAP_WINDOW
+                                        + " bytes, check for an unterminated quote");
+                            }
+                            // The record continues past this window, map the next one from its start
+                            break;
+                        }
+                        ByteBuffer block = window.slice(blockStart, cut - blockStart);
+                        long blockFirstLine = lineNumber;
+                        enqueue(parserPool.submit(() -> {
+                            CharBuffer chars = decode(block, blockFirstLine);
+                            return parseBlock(chars.array(), chars.remaining(), blockFirstLine);
+                        }));
+                        lineNumber += countLineBreaks(window, blockStart, cut);
+                        blockStart = cut;
+                    }
+                    position += blockStart;
+                }
+                blocks.put(CompletableFuture.completedFuture(END_OF_INPUT));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | RuntimeException e) {
+                if (!cancelled) {
+                    try {
+                        blocks.put(CompletableFuture.failedFuture(e));
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        }
+
+        /**
+         * End (exclusive) of the block starting at {@code start}: the first record boundary at
+         * or after {@code blockSize} bytes, or the end of the window when it ends the file.
+         * Returns {@code start} when no complete record follows within the window.
+         */
+        private int blockEnd(ByteBuffer window, int start, int windowLength, boolean lastWindow) {
+            int target = (int) Math.min((long) start + blockSize, windowLength);
+            int end = start;
+            while (end < target) {
+                int recordEnd = CsvLineTokenizer.recordEnd(window, end, windowLength);
+                if (recordEnd == windowLength) {
+                    return lastWindow ? windowLength : end;
+                }
+                end = recordEnd + 1;
+            }
+            return end;
+        }
+
+        private void submit(char[] chars, int length, long firstLineNumber) throws InterruptedException {
+            enqueue(parserPool.submit(() -> parseBlock(chars, length, firstLineNumber)));
+        }
+
+        private void enqueue(Future<ParsedBlock> block) throws InterruptedException {
+            try {
+                blocks.put(block);
+            } catch (InterruptedException e) {
+                // Closed while waiting for room: the block is not in the queue for close() to cancel
+                block.cancel(true);
+                throw e;
+            }
+        }
+
+        private ParsedBlock parseBlock(char[] chars, int length, long firstLineNumber) {
+            List<CsvImportRow> rows = new ArrayList<>();
+            long lineNumber = firstLineNumber;
+            int recordStart = 0;
+            try {
+                while (recordStart < length) {
+                    int recordEnd = CsvLineTokenizer.recordEnd(chars, recordStart, length);
+                    int lineEnd = recordEnd;
+                    if (lineEnd > recordStart && chars[lineEnd - 1] == '\r') {
+                        lineEnd--;
+                    }
+                    // Quoted fields may span lines; errors name the line the record starts on
+                    long linesInRecord = 1 + countLineBreaks(chars, recordStart, lineEnd);
+                    if (!isBlank(chars, recordStart, lineEnd)) {
+                        rows.add(parser.parse(chars, recordStart, lineEnd, lineNumber));
+                    }
+                    lineNumber += linesInRecord;
+                    recordStart = recordEnd + 1;
+                }
+                return new ParsedBlock(rows, null);
+            } catch (CsvImportException e) {
+                return new ParsedBlock(rows, e);
+            } finally {
+                progress.rowsParsed(rows.size());
+            }
+        }
+    }
+
+    /**
+     * Index of the last line break in {@code chars[0, length)} that ends a record, or -1.
+     */
+    private static int lastRecordBreak(char[] chars, int length) {
+        int last = -1;
+        int end;
+        while ((end = CsvLineTokenizer.recordEnd(chars, last + 1, length)) < length) {
+            last = end;
+        }
+        return last;
+    }
+
+    private static CharBuffer decode(ByteBuffer bytes, long firstLineNumber) {
+        try {
+            return StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(bytes);
+        } catch (CharacterCodingException e) {
+            throw new CsvImportException.InvalidFileException(
+                    "CSV file is not valid UTF-8 in the block starting on line " + firstLineNumber);
+        }
+    }
+
+    private static int countLineBreaks(ByteBuffer bytes, int start, int end) {
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            if (bytes.get(i) == '\n') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int countLineBreaks(char[] chars, int start, int end) {
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            if (chars[i] == '\n') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean isBlank(char[] chars, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(chars[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
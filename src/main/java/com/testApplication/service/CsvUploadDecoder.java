@@ -0,0 +1,71 @@
+package com.testApplication.service;
+
+import com.testApplication.exception.CsvImportException;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Recognises compressed uploads by their magic bytes and decompresses them as a stream, so
+ * compressed CSVs are parsed without ever being expanded on disk or in memory.
+ * gzip and zlib/deflate are supported through {@code java.util.zip}; zstd is detected but
+ * rejected with a clear error because no zstd decoder is available on the classpath.
+ */
+public final class CsvUploadDecoder {
+
+    public static final Set<String> CONTENT_TYPES = Set.of(
+            "text/csv", "application/gzip", "application/x-gzip", "application/zlib", "application/octet-stream");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private CsvUploadDecoder() {
+    }
+
+    public enum Compression { NONE, GZIP, DEFLATE, ZSTD }
+
+    /**
+     * Wraps {@code raw} in the matching decompressor, or just buffers it when it is plain text.
+     */
+    public static InputStream decode(InputStream raw) throws IOException {
+        InputStream in = raw.markSupported() ? raw : new BufferedInputStream(raw, BUFFER_SIZE);
+        in.mark(4);
+        byte[] magic = in.readNBytes(4);
+        in.reset();
+        return switch (detect(magic)) {
+            case GZIP -> new GZIPInputStream(in, BUFFER_SIZE);
+            case DEFLATE -> new InflaterInputStream(in, new Inflater(), BUFFER_SIZE);
+            case ZSTD -> throw new CsvImportException.InvalidFileException(
+                    "zstd-compressed uploads are not supported, please compress with gzip");
+            case NONE -> in;
+        };
+    }
+
+    public static Compression detect(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return detect(in.readNBytes(4));
+        }
+    }
+
+    static Compression detect(byte[] magic) {
+        if (magic.length >= 2 && (magic[0] & 0xff) == 0x1f && (magic[1] & 0xff) == 0x8b) {
+            return Compression.GZIP;
+        }
+        if (magic.length >= 4 && (magic[0] & 0xff) == 0x28 && (magic[1] & 0xff) == 0xb5
+                && (magic[2] & 0xff) == 0x2f && (magic[3] & 0xff) == 0xfd) {
+            return Compression.ZSTD;
+        }
+        // zlib header: CM = 8 (deflate), window of at most 32K, 16-bit header a multiple of 31
+        if (magic.length >= 2 && (magic[0] & 0x0f) == 0x08 && (magic[0] & 0xff) >> 4 <= 7
+                && (((magic[0] & 0xff) << 8) | (magic[1] & 0xff)) % 31 == 0) {
+            return Compression.DEFLATE;
+        }
+        return Compression.NONE;
+    }
+}
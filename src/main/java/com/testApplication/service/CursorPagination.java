@@ -0,0 +1,124 @@
+package com.testApplication.service;
+
+import com.testApplication.dto.CursorPageDTO;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination on the primary key. A page is read with {@code WHERE id > :after ORDER BY id}
+ * and a limit, which the database answers with an index seek, so a deep page costs the same as the
+ * first one. The cursor handed to clients is the opaque, URL-safe encoding of the last id returned.
+ * <p>
+ * Pages sorted on another column seek past a {@link Keyset}, the sort value and id of the last row,
+ * whose cursor also names the sort so it cannot be replayed against a different order.
+ */
+public final class CursorPagination {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final String PREFIX = "id:";
+    private static final String KEYSET_SEPARATOR = "|";
+
+    /**
+     * The sort value, as a string, and the id of the last row of a page.
+     */
+    public record Keyset(String value, long id) {
+    }
+
+    private CursorPagination() {
+    }
+
+    /**
+     * The id to seek after; 0 for the first page.
+     */
+    public static long after(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.startsWith(PREFIX)) {
+                return Long.parseLong(decoded.substring(PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // Falls through to the bad request below; NumberFormatException is one as well
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+
+    /**
+     * The position to seek after in a page sorted by {@code sort}; null for the first page.
+     */
+    public static Keyset keysetAfter(String cursor, String sort) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String prefix = sort + KEYSET_SEPARATOR;
+            int idStart = decoded.lastIndexOf(KEYSET_SEPARATOR);
+            if (decoded.startsWith(prefix) && idStart >= prefix.length()) {
+                return new Keyset(decoded.substring(prefix.length(), idStart),
+                        Long.parseLong(decoded.substring(idStart + 1)));
+            }
+        } catch (IllegalArgumentException e) {
+            // Bad request below
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+
+    public static int pageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * One row more than the page holds, to tell whether another page follows without a count query.
+     */
+    public static Limit limit(int pageSize) {
+        return Limit.of(pageSize + 1);
+    }
+
+    public static String encode(long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String encode(String sort, String value, long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((sort + KEYSET_SEPARATOR + value + KEYSET_SEPARATOR + id)
+                        .getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Cuts the rows read with {@link #limit} down to the page and maps them.
+     */
+    public static <E, D> CursorPageDTO<D> page(List<E> rows, int pageSize, Function<E, Long> idOf,
+                                               Function<List<E>, List<D>> mapper) {
+        return keysetPage(rows, pageSize, row -> encode(idOf.apply(row)), mapper);
+    }
+
+    /**
+     * Like {@link #page}, with the cursor of the last row built by {@code cursorOf}.
+     */
+    public static <E, D> CursorPageDTO<D> keysetPage(List<E> rows, int pageSize, Function<E, String> cursorOf,
+                                                     Function<List<E>, List<D>> mapper) {
+        boolean hasMore = rows.size() > pageSize;
+        List<E> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        return CursorPageDTO.<D>builder()
+                .items(mapper.apply(pageRows))
+                .size(pageRows.size())
+                .nextCursor(hasMore ? cursorOf.apply(pageRows.get(pageRows.size() - 1)) : null)
+                .hasMore(hasMore)
+                .build();
+    }
+}
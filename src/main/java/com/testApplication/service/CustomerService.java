@@ -1,5 +1,6 @@
 package com.testApplication.service;
 
+import com.testApplication.dto.CursorPageDTO;
 import com.testApplication.dto.CustomerDTO;
 import com.testApplication.mapper.CustomerMapper;
 import com.testApplication.model.Customer;
@@ -12,7 +13,6 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.time.Instant;
-import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -56,15 +56,21 @@ public class CustomerService {
     }
 
     @Transactional(readOnly = true)
-    public List<CustomerDTO> getAllCustomers() {
-        return customerMapper.toDTOList(customerRepository.findAll());
+    public CursorPageDTO<CustomerDTO> getAllCustomers(String cursor, Integer size) {
+        int pageSize = CursorPagination.pageSize(size);
+        return CursorPagination.page(customerRepository.findByIdGreaterThanOrderByIdAsc(
+                        CursorPagination.after(cursor), CursorPagination.limit(pageSize)),
+                pageSize, Customer::getId, customerMapper::toDTOList);
     }    @RequiresLegalEntityAccess(legalEntityIdParam = "legalEntityId")
     @Transactional(readOnly = true)
-    public List<CustomerDTO> getCustomersByLegalEntity(Long legalEntityId) {
+    public CursorPageDTO<CustomerDTO> getCustomersByLegalEntity(Long legalEntityId, String cursor, Integer size) {
         if (!legalEntityRepository.existsById(legalEntityId)) {
             throw new RuntimeException("Legal entity not found with id: " + legalEntityId);
         }
-        return customerMapper.toDTOList(customerRepository.findByLegalEntity_Id(legalEntityId));
+        int pageSize = CursorPagination.pageSize(size);
+        return CursorPagination.page(customerRepository.findByLegalEntity_IdAndIdGreaterThanOrderByIdAsc(
+                        legalEntityId, CursorPagination.after(cursor), CursorPagination.limit(pageSize)),
+                pageSize, Customer::getId, customerMapper::toDTOList);
     }
 
     @RequiresLegalEntityAccess(legalEntityIdParam = "legalEntityId")
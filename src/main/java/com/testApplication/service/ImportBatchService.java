@@ -0,0 +1,268 @@
+package com.testApplication.service;
+
+import com.testApplication.dto.CursorPageDTO;
+import com.testApplication.dto.ImportBatchDTO;
+import com.testApplication.dto.TransactionLineDTO;
+import com.testApplication.exception.CsvImportException;
+import com.testApplication.mapper.TransactionLineMapper;
+import com.testApplication.model.ImportBatch;
+import com.testApplication.model.TransactionLine;
+import com.testApplication.model.enums.ImportBatchStatusEnum;
+import com.testApplication.repository.ImportBatchRepository;
+import com.testApplication.repository.ImportCheckpointRepository;
+import com.testApplication.repository.ImportRecordRepository;
+import com.testApplication.repository.TransactionLineRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Lifecycle of {@link ImportBatch} records and the set-based rollback of a whole batch.
+ */
+@Service
+@RequiredArgsConstructor
+public class ImportBatchService {
+
+    private static final String BATCH_LINE_TOTALS_SQL =
+            "SELECT l.account_id, t.currency, "
+                    + "SUM(CASE WHEN l.is_debit THEN l.amount ELSE 0 END), "
+                    + "SUM(CASE WHEN l.is_debit THEN 0 ELSE l.amount END) "
+                    + "FROM transaction_lines l JOIN transactions t ON t.id = l.transaction_id "
+                    + "WHERE l.import_batch_id = ? GROUP BY l.account_id, t.currency";
+
+    private static final String DELETE_LINES_SQL =
+            "DELETE FROM transaction_lines WHERE import_batch_id = ?";
+
+    // Transactions and accounts of the batch that lines of other imports still use are kept
+    private static final String DELETE_TRANSACTIONS_SQL =
+            "DELETE FROM transactions t WHERE t.import_batch_id = ? "
+                    + "AND NOT EXISTS (SELECT 1 FROM transaction_lines l WHERE l.transaction_id = t.id)";
+
+    private static final String DELETE_ACCOUNTS_SQL =
+            "DELETE FROM accounts a WHERE a.import_batch_id = ? "
+                    + "AND NOT EXISTS (SELECT 1 FROM transaction_lines l WHERE l.account_id = a.id) "
+                    + "AND NOT EXISTS (SELECT 1 FROM accounts c WHERE c.parent_account_id = a.id) "
+                    + "AND NOT EXISTS (SELECT 1 FROM account_allocation_template_accounts t WHERE t.account_id = a.id)";
+
+    private static final String COUNT_TRANSACTIONS_SQL =
+            "SELECT COUNT(*) FROM transactions WHERE import_batch_id = ?";
+
+    private static final String COUNT_ACCOUNTS_SQL =
+            "SELECT COUNT(*) FROM accounts WHERE import_batch_id = ?";
+
+    private final ImportBatchRepository importBatchRepository;
+    private final ImportRecordRepository importRecordRepository;
+    private final ImportCheckpointRepository checkpointRepository;
+    private final SecurityService securityService;
+    private final JdbcTemplate jdbcTemplate;
+    private final AccountBalanceService accountBalanceService;
+    private final TransactionLineRepository transactionLineRepository;
+    private final TransactionLineMapper transactionLineMapper;
+
+    @Value("${app.import.batch-abandoned-after-minutes:15}")
+    private long abandonedAfterMinutes;
+
+    /**
+     * Opens a batch. Joins the caller's transaction when there is one, so a single-transaction
+     * import that rolls back leaves no batch behind.
+     */
+    @Transactional
+    public ImportBatch start(Long legalEntityId, String fileHash, String fileName, String jobId) {
+        Instant now = Instant.now();
+        return importBatchRepository.save(ImportBatch.builder()
+                .legalEntityId(legalEntityId)
+                .fileHash(fileHash)
+                .fileName(fileName)
+                .jobId(jobId)
+                .status(ImportBatchStatusEnum.RUNNING)
+                .createdAt(now)
+                .heartbeatAt(now)
+                .createdBy(currentUsername())
+                .build());
+    }
+
+    /**
+     * Reopens the batch of an interrupted import that is resumed from its checkpoint.
+     * Returns null if that batch was rolled back in the meantime.
+     */
+    @Transactional
+    public ImportBatch resume(Long importBatchId, String jobId) {
+        return importBatchRepository.findById(importBatchId)
+                .filter(batch -> batch.getStatus() != ImportBatchStatusEnum.ROLLED_BACK)
+                .map(batch -> {
+                    batch.setStatus(ImportBatchStatusEnum.RUNNING);
+                    batch.setJobId(jobId);
+                    batch.setHeartbeatAt(Instant.now());
+                    batch.setFinishedAt(null);
+                    return importBatchRepository.save(batch);
+                })
+                .orElse(null);
+    }
+
+    /**
+     * Records that the import of the batch is still alive; called before every chunk. Fails once
+     * the batch was rolled back as abandoned, so a stalled import that wakes up again stops instead
+     * of writing into a rolled back batch.
+     */
+    @Transactional
+    public void heartbeat(Long importBatchId) {
+        if (importBatchRepository.heartbeat(importBatchId, ImportBatchStatusEnum.RUNNING, Instant.now()) == 0) {
+            throw new CsvImportException.ImportBatchStateException(
+                    "Import batch " + importBatchId + " is no longer running");
+        }
+    }
+
+    @Transactional
+    public void complete(Long importBatchId, long rowsImported) {
+        finish(importBatchId, ImportBatchStatusEnum.COMPLETED, rowsImported);
+    }
+
+    /**
+     * Marks a streaming import that stopped halfway. Its committed chunks stay in the
+     * database until the import is resumed or the batch is rolled back.
+     */
+    @Transactional
+    public void fail(Long importBatchId, long rowsImported) {
+        finish(importBatchId, ImportBatchStatusEnum.FAILED, rowsImported);
+    }
+
+    private void finish(Long importBatchId, ImportBatchStatusEnum status, long rowsImported) {
+        ImportBatch batch = importBatchRepository.findById(importBatchId)
+                .orElseThrow(() -> notFound(importBatchId));
+        // Rolled back as abandoned while the import was stalled
+        if (batch.getStatus() == ImportBatchStatusEnum.ROLLED_BACK) {
+            throw new CsvImportException.ImportBatchStateException(
+                    "Import batch " + importBatchId + " was rolled back while it was running");
+        }
+        batch.setStatus(status);
+        batch.setRowsImported(batch.getRowsImported() + rowsImported);
+        batch.setFinishedAt(Instant.now());
+        importBatchRepository.save(batch);
+    }
+
+    @Transactional(readOnly = true)
+    public ImportBatchDTO getBatch(Long importBatchId) {
+        ImportBatch batch = importBatchRepository.findById(importBatchId)
+                .orElseThrow(() -> notFound(importBatchId));
+        checkAccess(batch.getLegalEntityId());
+        return toDTO(batch).build();
+    }
+
+    /**
+     * One keyset page of the lines the batch wrote, in the order they were written. Pass the
+     * page's {@code nextCursor} back as {@code cursor} for the following one.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TransactionLineDTO> getLines(Long importBatchId, String cursor, Integer size) {
+        ImportBatch batch = importBatchRepository.findById(importBatchId)
+                .orElseThrow(() -> notFound(importBatchId));
+        checkAccess(batch.getLegalEntityId());
+        int pageSize = CursorPagination.pageSize(size);
+        return CursorPagination.page(transactionLineRepository.findByImportBatchIdAndIdGreaterThanOrderByIdAsc(
+                        importBatchId, CursorPagination.after(cursor), CursorPagination.limit(pageSize)),
+                pageSize, TransactionLine::getId, transactionLineMapper::toDTOList);
+    }
+
+    /**
+     * Removes everything the batch created with one statement per table: its lines, then its
+     * transactions and accounts that no other line refers to. The lines' totals are taken off the
+     * account balances first, with one grouped query. The file's import record and
+     * checkpoint are dropped as well, so the corrected or even the same file can be imported again.
+     *
+     * <p>A RUNNING batch is rejected while its import is alive. An import that dies with its JVM
+     * leaves the batch RUNNING for good, so once the batch has had no heartbeat for
+     * {@code app.import.batch-abandoned-after-minutes} it counts as abandoned and can be rolled
+     * back like a failed one. The alternative is re-uploading the file, which resumes the batch
+     * from its checkpoint.
+     */
+    @Transactional
+    public ImportBatchDTO rollback(Long importBatchId) {
+        ImportBatch batch = importBatchRepository.findById(importBatchId)
+                .orElseThrow(() -> notFound(importBatchId));
+        checkAccess(batch.getLegalEntityId());
+        if (batch.getStatus() == ImportBatchStatusEnum.RUNNING && !isAbandoned(batch)) {
+            throw new CsvImportException.ImportBatchStateException("Import batch " + importBatchId
+                    + " is still running; it can be rolled back once it has shown no progress for "
+                    + abandonedAfterMinutes + " minutes");
+        }
+        if (batch.getStatus() == ImportBatchStatusEnum.ROLLED_BACK) {
+            throw new CsvImportException.ImportBatchStateException(
+                    "Import batch " + importBatchId + " was already rolled back");
+        }
+
+        accountBalanceService.removeTotals(batch.getLegalEntityId(), BATCH_LINE_TOTALS_SQL, importBatchId);
+        int linesDeleted = jdbcTemplate.update(DELETE_LINES_SQL, importBatchId);
+        int transactionsDeleted = jdbcTemplate.update(DELETE_TRANSACTIONS_SQL, importBatchId);
+        int accountsDeleted = jdbcTemplate.update(DELETE_ACCOUNTS_SQL, importBatchId);
+        if (accountsDeleted > 0) {
+            accountBalanceService.deleteOrphaned();
+        }
+        Integer transactionsKept = jdbcTemplate.queryForObject(COUNT_TRANSACTIONS_SQL, Integer.class, importBatchId);
+        Integer accountsKept = jdbcTemplate.queryForObject(COUNT_ACCOUNTS_SQL, Integer.class, importBatchId);
+
+        if (batch.getFileHash() != null) {
+            importRecordRepository.deleteByLegalEntityIdAndFileHash(batch.getLegalEntityId(), batch.getFileHash());
+            checkpointRepository.deleteByLegalEntityIdAndFileHash(batch.getLegalEntityId(), batch.getFileHash());
+        }
+        batch.setStatus(ImportBatchStatusEnum.ROLLED_BACK);
+        batch.setRolledBackAt(Instant.now());
+        batch.setRolledBackBy(currentUsername());
+        importBatchRepository.save(batch);
+
+        return toDTO(batch)
+                .linesDeleted(linesDeleted)
+                .transactionsDeleted(transactionsDeleted)
+                .accountsDeleted(accountsDeleted)
+                .transactionsKept(transactionsKept)
+                .accountsKept(accountsKept)
+                .build();
+    }
+
+    private boolean isAbandoned(ImportBatch batch) {
+        Instant lastSeen = batch.getHeartbeatAt() != null ? batch.getHeartbeatAt() : batch.getCreatedAt();
+        return lastSeen.isBefore(Instant.now().minus(Duration.ofMinutes(abandonedAfterMinutes)));
+    }
+
+    private void checkAccess(Long legalEntityId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserDetails principal)
+                || !securityService.hasAccessToLegalEntity(principal, legalEntityId)) {
+            throw new AccessDeniedException("Access denied to legal entity: " + legalEntityId);
+        }
+    }
+
+    private static ImportBatchDTO.ImportBatchDTOBuilder toDTO(ImportBatch batch) {
+        return ImportBatchDTO.builder()
+                .importBatchId(batch.getId())
+                .legalEntityId(batch.getLegalEntityId())
+                .fileHash(batch.getFileHash())
+                .fileName(batch.getFileName())
+                .jobId(batch.getJobId())
+                .status(batch.getStatus())
+                .rowsImported(batch.getRowsImported())
+                .createdAt(batch.getCreatedAt())
+                .createdBy(batch.getCreatedBy())
+                .heartbeatAt(batch.getHeartbeatAt())
+                .finishedAt(batch.getFinishedAt())
+                .rolledBackAt(batch.getRolledBackAt())
+                .rolledBackBy(batch.getRolledBackBy());
+    }
+
+    private static CsvImportException notFound(Long importBatchId) {
+        return new CsvImportException.ImportBatchNotFoundException("Import batch not found: " + importBatchId);
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "SYSTEM";
+    }
+}
@@ -0,0 +1,94 @@
+package com.testApplication.service;
+
+import com.testApplication.model.ImportCheckpoint;
+import com.testApplication.repository.ImportCheckpointRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Keeps the per-file checkpoints that make chunked imports resumable.
+ */
+@Service
+@RequiredArgsConstructor
+public class ImportCheckpointService {
+
+    private final ImportCheckpointRepository checkpointRepository;
+
+    /**
+     * Finds the checkpoint of an earlier, unfinished import of the same file or starts a new
+     * one. A file whose previous import completed starts over from the first line.
+     */
+    @Transactional
+    public ImportCheckpoint begin(Long legalEntityId, String fileHash, String jobId) {
+        Instant now = Instant.now();
+        ImportCheckpoint checkpoint = checkpointRepository.findByLegalEntityIdAndFileHash(legalEntityId, fileHash)
+                .orElseGet(() -> ImportCheckpoint.builder()
+                        .legalEntityId(legalEntityId)
+                        .fileHash(fileHash)
+                        .createdAt(now)
+                        .build());
+        if (checkpoint.isCompleted()) {
+            checkpoint.setCompleted(false);
+            checkpoint.setLastCommittedLine(0);
+            checkpoint.setRowsCommitted(0);
+        }
+        checkpoint.setJobId(jobId);
+        checkpoint.setUpdatedAt(now);
+        return checkpointRepository.save(checkpoint);
+    }
+
+    /**
+     * Records a chunk as committed. Must run inside the chunk's own transaction so the
+     * checkpoint never gets ahead of, or falls behind, the lines in the database.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void advance(CsvImportContext context, List<CsvImportRow> rows) {
+        if (context.getCheckpointId() == null || rows.isEmpty()) {
+            return;
+        }
+        long lastLine = rows.get(rows.size() - 1).getLineNumber();
+        checkpointRepository.advance(context.getCheckpointId(), lastLine, rows.size(), Instant.now());
+    }
+
+    @Transactional
+    public void attachBatch(Long checkpointId, Long importBatchId) {
+        checkpointRepository.findById(checkpointId)
+                .ifPresent(checkpoint -> checkpoint.setImportBatchId(importBatchId));
+    }
+
+    @Transactional
+    public void complete(Long checkpointId) {
+        checkpointRepository.findById(checkpointId).ifPresent(checkpoint -> {
+            checkpoint.setCompleted(true);
+            checkpoint.setUpdatedAt(Instant.now());
+        });
+    }
+
+    /**
+     * Hex-encoded SHA-256 of the stream, which is read to the end but not closed.
+     */
+    public static String sha256(InputStream in) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,9 @@
+package com.testApplication.service;
+
+/**
+ * Published whenever lines, transactions or accounts of a legal entity change in a way that
+ * alters its reports. A null legal entity id stands for a change that touches every entity,
+ * such as a renamed account type.
+ */
+public record LedgerChangedEvent(Long legalEntityId) {
+}
@@ -0,0 +1,127 @@
+package com.testApplication.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.testApplication.exception.CsvImportException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Reads newline-delimited JSON records shaped like {@link com.testApplication.dto.TransactionLineDTO}
+ * one token at a time, so only the record being read is ever held in memory.
+ * <p>
+ * The debit flag is accepted as {@code isDebit}, {@code debit} (the name the DTO is serialized
+ * with) or {@code is_debit}. Other fields of the DTO, such as {@code id} or {@code accountName},
+ * and unknown fields are skipped, nested values included. The fields read must hold a single
+ * value; an object or array there is rejected. Rows carry the line the record starts on as line number.
+ */
+public class NdjsonRecordReader implements Closeable {
+
+    private final JsonParser parser;
+
+    public NdjsonRecordReader(JsonParser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Returns the next record, or null at the end of the input.
+     */
+    public CsvImportRow next() throws IOException {
+        try {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return null;
+            }
+            long lineNumber = parser.currentTokenLocation().getLineNr();
+            if (token != JsonToken.START_OBJECT) {
+                throw new CsvImportException.InvalidJsonFormatException(
+                        "Expected a JSON object on line " + lineNumber + " but found " + token);
+            }
+            return readRecord(lineNumber);
+        } catch (JsonProcessingException e) {
+            String line = e.getLocation() != null ? " on line " + e.getLocation().getLineNr() : "";
+            throw new CsvImportException.InvalidJsonFormatException("Invalid JSON" + line + ": " + e.getOriginalMessage());
+        }
+    }
+
+    private CsvImportRow readRecord(long lineNumber) throws IOException {
+        String transactionCode = null;
+        String accountCode = null;
+        BigDecimal amount = null;
+        String description = "";
+        boolean debit = false;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value.isStructStart() && isRead(field)) {
+                throw new CsvImportException.InvalidJsonFormatException("Expected a single value for " + field
+                        + " in JSON record on line " + lineNumber + " but found "
+                        + (value == JsonToken.START_OBJECT ? "an object" : "an array"));
+            }
+            switch (field) {
+                case "transactionCode" -> transactionCode = text(value);
+                case "accountCode" -> accountCode = text(value);
+                case "amount" -> amount = amount(value, lineNumber);
+                case "description" -> description = value == JsonToken.VALUE_NULL ? "" : parser.getValueAsString();
+                case "isDebit", "debit", "is_debit" -> debit = value == JsonToken.VALUE_TRUE
+                        || value == JsonToken.VALUE_STRING && Boolean.parseBoolean(parser.getText());
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (transactionCode == null || transactionCode.isBlank()) {
+            throw missing("transactionCode", lineNumber);
+        }
+        if (accountCode == null || accountCode.isBlank()) {
+            throw missing("accountCode", lineNumber);
+        }
+        if (amount == null) {
+            throw missing("amount", lineNumber);
+        }
+        return new CsvImportRow(lineNumber, transactionCode.trim(), accountCode.trim(), amount, description,
+                debit, null);
+    }
+
+    private static boolean isRead(String field) {
+        return switch (field) {
+            case "transactionCode", "accountCode", "amount", "description", "isDebit", "debit", "is_debit" -> true;
+            default -> false;
+        };
+    }
+
+    private String text(JsonToken value) throws IOException {
+        return value == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+    }
+
+    private BigDecimal amount(JsonToken value, long lineNumber) throws IOException {
+        if (value == JsonToken.VALUE_NUMBER_INT || value == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getDecimalValue();
+        }
+        if (value == JsonToken.VALUE_STRING) {
+            try {
+                return new BigDecimal(parser.getText().trim());
+            } catch (NumberFormatException e) {
+                // reported below
+            }
+        }
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        throw new CsvImportException.InvalidJsonFormatException(
+                "Invalid amount on line " + lineNumber + ": " + parser.getText());
+    }
+
+    private static CsvImportException missing(String field, long lineNumber) {
+        return new CsvImportException.InvalidJsonFormatException(
+                "Missing " + field + " in JSON record on line " + lineNumber);
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
@@ -0,0 +1,239 @@
+package com.testApplication.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testApplication.model.enums.ExportFormatEnum;
+import com.testApplication.repository.LegalEntityRepository;
+import com.testApplication.security.RequiresLegalEntityAccess;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Ledger extracts of one legal entity and date range as CSV or a JSON array. Rows are read
+ * through a forward-only JDBC cursor with {@code app.export.fetch-size} rows per round trip and
+ * written to the response as they arrive, so an extract of any size runs in constant memory and
+ * the first bytes go out before the query has finished.
+ */
+@Service
+public class TransactionExportService {
+
+    private static final String TRANSACTIONS_SQL =
+            "SELECT t.id, t.transaction_code, t.transaction_type, t.date, t.description, t.approval_status, "
+                    + "t.amount, t.currency "
+                    + "FROM transactions t "
+                    + "WHERE t.legal_entity_id = ? AND t.date >= ? AND t.date < ? "
+                    + "ORDER BY t.date, t.id";
+
+    private static final String TRANSACTION_LINES_SQL =
+            "SELECT t.transaction_code, a.code, l.amount, l.description, l.is_debit, l.id, t.date, t.currency "
+                    + "FROM transaction_lines l "
+                    + "JOIN transactions t ON t.id = l.transaction_id "
+                    + "JOIN accounts a ON a.id = l.account_id "
+                    + "WHERE t.legal_entity_id = ? AND t.date >= ? AND t.date < ? "
+                    + "ORDER BY t.date, t.id, l.id";
+
+    // CSV headers follow the import format, JSON keys the DTOs
+    private static final String[] TRANSACTION_CSV_COLUMNS = {
+            "id", "transaction_code", "transaction_type", "date", "description", "approval_status", "amount", "currency"};
+    private static final String[] TRANSACTION_JSON_FIELDS = {
+            "id", "transactionCode", "transactionType", "date", "description", "approvalStatus", "amount", "currency"};
+    private static final String[] LINE_CSV_COLUMNS = {
+            "transaction_code", "account_code", "amount", "description", "is_debit", "line_id", "transaction_date",
+            "currency"};
+    private static final String[] LINE_JSON_FIELDS = {
+            "transactionCode", "accountCode", "amount", "description", "isDebit", "id", "transactionDate", "currency"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final LegalEntityRepository legalEntityRepository;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public TransactionExportService(JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    LegalEntityRepository legalEntityRepository,
+                                    ObjectMapper objectMapper,
+                                    @Value("${app.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.legalEntityRepository = legalEntityRepository;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        // PostgreSQL only honours the fetch size, instead of reading the whole result, outside autocommit
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Transactions dated {@code from} to {@code to}, both inclusive (UTC). Access is checked here,
+     * on the request thread; the returned body runs the query when the response is written.
+     */
+    @RequiresLegalEntityAccess(legalEntityIdParam = "legalEntityId")
+    public StreamingResponseBody exportTransactions(Long legalEntityId, LocalDate from, LocalDate to,
+                                                    ExportFormatEnum format) {
+        validate(legalEntityId, from, to);
+        return out -> export(TRANSACTIONS_SQL, TRANSACTION_CSV_COLUMNS, TRANSACTION_JSON_FIELDS,
+                legalEntityId, from, to, format, out);
+    }
+
+    /**
+     * Lines of the transactions dated {@code from} to {@code to}, see {@link #exportTransactions}.
+     */
+    @RequiresLegalEntityAccess(legalEntityIdParam = "legalEntityId")
+    public StreamingResponseBody exportTransactionLines(Long legalEntityId, LocalDate from, LocalDate to,
+                                                        ExportFormatEnum format) {
+        validate(legalEntityId, from, to);
+        return out -> export(TRANSACTION_LINES_SQL, LINE_CSV_COLUMNS, LINE_JSON_FIELDS,
+                legalEntityId, from, to, format, out);
+    }
+
+    private void validate(Long legalEntityId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+        if (!legalEntityRepository.existsById(legalEntityId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Legal Entity not found: " + legalEntityId);
+        }
+    }
+
+    private void export(String sql, String[] csvColumns, String[] jsonFields, Long legalEntityId,
+                        LocalDate from, LocalDate to, ExportFormatEnum format, OutputStream out) throws IOException {
+        RowWriter writer = format == ExportFormatEnum.JSON
+                ? new JsonRowWriter(objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8), jsonFields)
+                : new CsvRowWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024),
+                csvColumns);
+        Timestamp start = Timestamp.from(from.atStartOfDay(ZoneOffset.UTC).toInstant());
+        Timestamp end = Timestamp.from(to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(sql,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize);
+                ps.setLong(1, legalEntityId);
+                ps.setTimestamp(2, start);
+                ps.setTimestamp(3, end);
+                return ps;
+            }, (ResultSet rs) -> {
+                try {
+                    writer.row(rs);
+                } catch (IOException e) {
+                    // The client went away; stop reading instead of draining the cursor
+                    throw new UncheckedIOException(e);
+                }
+            }));
+            writer.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private interface RowWriter {
+        void row(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer out;
+
+        CsvRowWriter(Writer out, String[] columns) throws IOException {
+            this.out = out;
+            out.write(String.join(",", columns));
+            out.write('\n');
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            int columns = rs.getMetaData().getColumnCount();
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) {
+                    out.write(',');
+                }
+                Object value = value(rs, i);
+                if (value instanceof String text) {
+                    writeQuoted(text);
+                } else if (value instanceof BigDecimal amount) {
+                    out.write(amount.toPlainString());
+                } else if (value != null) {
+                    out.write(value.toString());
+                }
+            }
+            out.write('\n');
+        }
+
+        private void writeQuoted(String text) throws IOException {
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                out.write(text);
+                return;
+            }
+            out.write('"');
+            out.write(text.replace("\"", "\"\""));
+            out.write('"');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            out.flush();
+        }
+    }
+
+    private static final class JsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private final String[] fields;
+
+        JsonRowWriter(JsonGenerator generator, String[] fields) throws IOException {
+            this.generator = generator;
+            this.fields = fields;
+            generator.writeStartArray();
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < fields.length; i++) {
+                generator.writeObjectField(fields[i], value(rs, i + 1));
+            }
+            generator.writeEndObject();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.writeEndArray();
+            generator.flush();
+        }
+    }
+
+    private static Object value(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        // ISO-8601 instants in both formats, like the DTOs
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toInstant().toString();
+        }
+        if (value instanceof OffsetDateTime dateTime) {
+            return dateTime.toInstant().toString();
+        }
+        return value;
+    }
+}
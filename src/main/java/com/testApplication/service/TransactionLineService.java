@@ -1,5 +1,6 @@
 package com.testApplication.service;
 
+import com.testApplication.dto.CursorPageDTO;
 import com.testApplication.model.TransactionLine;
 import com.testApplication.model.Transaction;
 import com.testApplication.model.Account;
@@ -8,6 +9,7 @@ import com.testApplication.repository.TransactionRepository;
 import com.testApplication.repository.AccountRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,16 +20,21 @@ public class TransactionLineService {
     private final TransactionLineRepository transactionLineRepository;
     private final TransactionRepository transactionRepository;
     private final AccountRepository accountRepository;
+    private final AccountBalanceService accountBalanceService;
 
     @Autowired
     public TransactionLineService(TransactionLineRepository transactionLineRepository,
                                  TransactionRepository transactionRepository,
-                                 AccountRepository accountRepository) {
+                                 AccountRepository accountRepository,
+                                 AccountBalanceService accountBalanceService) {
         this.transactionLineRepository = transactionLineRepository;
         this.transactionRepository = transactionRepository;
         this.accountRepository = accountRepository;
+        this.accountBalanceService = accountBalanceService;
     }
 
+    // Line writes update the account balances in the same transaction
+    @Transactional
     public TransactionLine createTransactionLine(TransactionLine transactionLine, Long transactionId, Long accountId) {
         Transaction transaction = transactionRepository.findById(transactionId)
                 .orElseThrow(() -> new RuntimeException("Transaction not found with id: " + transactionId));
@@ -35,40 +42,64 @@ public class TransactionLineService {
                 .orElseThrow(() -> new RuntimeException("Account not found with id: " + accountId));
         transactionLine.setTransaction(transaction);
         transactionLine.setAccount(account);
-        return transactionLineRepository.save(transactionLine);
+        TransactionLine saved = transactionLineRepository.save(transactionLine);
+        accountBalanceService.addLines(List.of(saved));
+        return saved;
     }
 
     public Optional<TransactionLine> getTransactionLineById(Long id) {
         return transactionLineRepository.findById(id);
     }
 
-    public List<TransactionLine> getAllTransactionLines() {
-        return transactionLineRepository.findAll();
+    public CursorPageDTO<TransactionLine> getAllTransactionLines(String cursor, Integer size) {
+        int pageSize = CursorPagination.pageSize(size);
+        return CursorPagination.page(transactionLineRepository.findByIdGreaterThanOrderByIdAsc(
+                        CursorPagination.after(cursor), CursorPagination.limit(pageSize)),
+                pageSize, TransactionLine::getId, lines -> lines);
     }
 
-    public List<TransactionLine> getTransactionLinesByTransaction(Long transactionId) {
+    public CursorPageDTO<TransactionLine> getTransactionLinesByTransaction(Long transactionId, String cursor,
+                                                                           Integer size) {
         Transaction transaction = transactionRepository.findById(transactionId)
                 .orElseThrow(() -> new RuntimeException("Transaction not found with id: " + transactionId));
-        return transactionLineRepository.findByTransaction(transaction);
+        int pageSize = CursorPagination.pageSize(size);
+        return CursorPagination.page(transactionLineRepository.findByTransactionAndIdGreaterThanOrderByIdAsc(
+                        transaction, CursorPagination.after(cursor), CursorPagination.limit(pageSize)),
+                pageSize, TransactionLine::getId, lines -> lines);
     }
 
-    public List<TransactionLine> getTransactionLinesByAccount(Long accountId) {
+    public CursorPageDTO<TransactionLine> getTransactionLinesByAccount(Long accountId, String cursor, Integer size) {
         Account account = accountRepository.findById(accountId)
                 .orElseThrow(() -> new RuntimeException("Account not found with id: " + accountId));
-        return transactionLineRepository.findByAccount(account);
+        int pageSize = CursorPagination.pageSize(size);
+        return CursorPagination.page(transactionLineRepository.findByAccountAndIdGreaterThanOrderByIdAsc(
+                        account, CursorPagination.after(cursor), CursorPagination.limit(pageSize)),
+                pageSize, TransactionLine::getId, lines -> lines);
     }
 
+    @Transactional
     public TransactionLine updateTransactionLine(Long id, TransactionLine updated) {
         TransactionLine transactionLine = transactionLineRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("TransactionLine not found with id: " + id));
+        accountBalanceService.removeLines(List.of(TransactionLine.builder()
+                .transaction(transactionLine.getTransaction())
+                .account(transactionLine.getAccount())
+                .amount(transactionLine.getAmount())
+                .isDebit(transactionLine.isDebit())
+                .build()));
         transactionLine.setAmount(updated.getAmount());
         transactionLine.setDescription(updated.getDescription());
         transactionLine.setDebit(updated.isDebit());
         // Optionally update transaction/account if needed
-        return transactionLineRepository.save(transactionLine);
+        TransactionLine saved = transactionLineRepository.save(transactionLine);
+        accountBalanceService.addLines(List.of(saved));
+        return saved;
     }
 
+    @Transactional
     public void deleteTransactionLine(Long id) {
+        transactionLineRepository.findById(id)
+                .ifPresent(line -> accountBalanceService.removeLines(List.of(line)));
         transactionLineRepository.deleteById(id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,293 @@
+package com.testApplication.service;
+
+import com.testApplication.dto.TransactionPostingDTO;
+import com.testApplication.dto.TransactionPostingResultDTO;
+import com.testApplication.exception.TransactionPostingException;
+import com.testApplication.model.Customer;
+import com.testApplication.repository.AccountRepository;
+import com.testApplication.repository.CustomerRepository;
+import com.testApplication.repository.LegalEntityRepository;
+import com.testApplication.repository.TransactionRepository;
+import com.testApplication.security.RequiresLegalEntityAccess;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Posts many transactions with their lines in one call. The whole request is validated first,
+ * with customers, accounts and existing transaction codes resolved by one IN query per batch of
+ * codes instead of per transaction; then headers and lines are written with JDBC batches.
+ * Either every transaction is posted, together with its effect on the account balances, or none is.
+ */
+@Service
+public class TransactionPostingService {
+
+    private static final String INSERT_TRANSACTION_SQL =
+            "INSERT INTO transactions (transaction_code, transaction_type, date, description, approval_status, "
+                    + "amount, currency, customer_id, legal_entity_id, created_at, created_by, updated_at, updated_by) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_TRANSACTION_LINE_SQL =
+            "INSERT INTO transaction_lines (transaction_id, account_id, amount, description, is_debit) "
+                    + "VALUES (?, ?, ?, ?, ?)";
+
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final CustomerRepository customerRepository;
+    private final LegalEntityRepository legalEntityRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final AccountBalanceService accountBalanceService;
+    private final int maxTransactions;
+    private final int jdbcBatchSize;
+
+    public TransactionPostingService(TransactionRepository transactionRepository,
+                                     AccountRepository accountRepository,
+                                     CustomerRepository customerRepository,
+                                     LegalEntityRepository legalEntityRepository,
+                                     JdbcTemplate jdbcTemplate,
+                                     AccountBalanceService accountBalanceService,
+                                     @Value("${app.posting.max-transactions:5000}") int maxTransactions,
+                                     @Value("${app.posting.jdbc-batch-size:500}") int jdbcBatchSize) {
+        this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
+        this.customerRepository = customerRepository;
+        this.legalEntityRepository = legalEntityRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.accountBalanceService = accountBalanceService;
+        this.maxTransactions = maxTransactions;
+        this.jdbcBatchSize = jdbcBatchSize;
+    }
+
+    @RequiresLegalEntityAccess(legalEntityIdParam = "legalEntityId")
+    @Transactional
+    public TransactionPostingResultDTO postTransactions(Long legalEntityId, List<TransactionPostingDTO> transactions) {
+        long startedAt = System.currentTimeMillis();
+        if (transactions.size() > maxTransactions) {
+            throw new TransactionPostingException.TooManyTransactionsException(
+                    "At most " + maxTransactions + " transactions can be posted at once, got " + transactions.size());
+        }
+        if (!legalEntityRepository.existsById(legalEntityId)) {
+            throw new TransactionPostingException.LegalEntityNotFoundException(
+                    "Legal Entity not found: " + legalEntityId);
+        }
+
+        List<String> errors = new ArrayList<>();
+        Set<String> codes = new LinkedHashSet<>();
+        Set<String> accountCodes = new HashSet<>();
+        Set<Long> customerIds = new HashSet<>();
+        for (int i = 0; i < transactions.size(); i++) {
+            validate(i, transactions.get(i), codes, errors);
+            TransactionPostingDTO transaction = transactions.get(i);
+            if (transaction.getCustomerId() != null) {
+                customerIds.add(transaction.getCustomerId());
+            }
+            if (transaction.getLines() != null) {
+                transaction.getLines().forEach(line -> accountCodes.add(line.getAccountCode()));
+            }
+        }
+
+        Set<String> existingCodes = new HashSet<>();
+        inBatches(codes, batch -> existingCodes.addAll(
+                transactionRepository.findTransactionCodes(legalEntityId, batch)));
+        Map<String, Long> accountIds = new HashMap<>();
+        inBatches(accountCodes, batch -> accountRepository.findByLegalEntity_IdAndCodeIn(legalEntityId, batch)
+                .forEach(account -> accountIds.put(account.getCode(), account.getId())));
+        Set<Long> customersOfEntity = new HashSet<>();
+        for (Customer customer : customerRepository.findAllById(customerIds)) {
+            if (customer.getLegalEntity() != null && legalEntityId.equals(customer.getLegalEntity().getId())) {
+                customersOfEntity.add(customer.getId());
+            }
+        }
+
+        for (int i = 0; i < transactions.size(); i++) {
+            TransactionPostingDTO transaction = transactions.get(i);
+            String prefix = "Transaction " + i + " (" + transaction.getTransactionCode() + "): ";
+            if (existingCodes.contains(transaction.getTransactionCode())) {
+                errors.add(prefix + "already exists for this legal entity");
+            }
+            if (transaction.getCustomerId() != null && !customersOfEntity.contains(transaction.getCustomerId())) {
+                errors.add(prefix + "customer " + transaction.getCustomerId() + " not found for this legal entity");
+            }
+            if (transaction.getLines() != null) {
+                transaction.getLines().stream()
+                        .map(TransactionPostingDTO.Line::getAccountCode)
+                        .filter(code -> code != null && !accountIds.containsKey(code))
+                        .distinct()
+                        .forEach(code -> errors.add(prefix + "account " + code + " not found"));
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new TransactionPostingException.ValidationException(errors);
+        }
+
+        Map<String, Long> transactionIds = insertTransactions(legalEntityId, transactions);
+        int linesCreated = insertLines(transactions, transactionIds, accountIds);
+        AccountBalanceChanges balanceChanges = new AccountBalanceChanges();
+        for (TransactionPostingDTO transaction : transactions) {
+            transaction.getLines().forEach(line -> balanceChanges.add(accountIds.get(line.getAccountCode()),
+                    transaction.getCurrency(), line.getAmount(), line.getIsDebit()));
+        }
+        accountBalanceService.apply(legalEntityId, balanceChanges);
+
+        return TransactionPostingResultDTO.builder()
+                .legalEntityId(legalEntityId)
+                .transactionsCreated(transactionIds.size())
+                .linesCreated(linesCreated)
+                .transactionIds(transactionIds)
+                .elapsedMillis(System.currentTimeMillis() - startedAt)
+                .build();
+    }
+
+    private static void validate(int index, TransactionPostingDTO transaction, Set<String> codes, List<String> errors) {
+        String prefix = "Transaction " + index + " (" + transaction.getTransactionCode() + "): ";
+        if (transaction.getTransactionCode() == null || transaction.getTransactionCode().isBlank()) {
+            errors.add(prefix + "transactionCode is required");
+        } else if (!codes.add(transaction.getTransactionCode())) {
+            errors.add(prefix + "transactionCode appears more than once in the request");
+        }
+        if (transaction.getTransactionType() == null || transaction.getTransactionType().isBlank()) {
+            errors.add(prefix + "transactionType is required");
+        }
+        if (transaction.getDate() == null) {
+            errors.add(prefix + "date is required");
+        }
+        if (transaction.getCurrency() == null || transaction.getCurrency().isBlank()) {
+            errors.add(prefix + "currency is required");
+        }
+        if (transaction.getLines() == null || transaction.getLines().size() < 2) {
+            errors.add(prefix + "at least two lines are required");
+            return;
+        }
+
+        BigDecimal debits = BigDecimal.ZERO;
+        BigDecimal credits = BigDecimal.ZERO;
+        for (TransactionPostingDTO.Line line : transaction.getLines()) {
+            if (line.getAccountCode() == null || line.getAccountCode().isBlank()) {
+                errors.add(prefix + "every line needs an accountCode");
+            }
+            if (line.getIsDebit() == null) {
+                errors.add(prefix + "every line needs isDebit");
+            }
+            if (line.getAmount() == null || line.getAmount().signum() <= 0) {
+                errors.add(prefix + "line amounts must be positive");
+                continue;
+            }
+            if (Boolean.TRUE.equals(line.getIsDebit())) {
+                debits = debits.add(line.getAmount());
+            } else {
+                credits = credits.add(line.getAmount());
+            }
+        }
+        if (debits.compareTo(credits) != 0) {
+            errors.add(prefix + "debits " + debits.toPlainString() + " do not balance credits "
+                    + credits.toPlainString());
+        }
+    }
+
+    /**
+     * Batch-inserts the headers and reads their generated ids back in insert order.
+     */
+    private Map<String, Long> insertTransactions(Long legalEntityId, List<TransactionPostingDTO> transactions) {
+        String currentUser = SecurityContextHolder.getContext().getAuthentication().getName();
+        Timestamp now = Timestamp.from(Instant.now());
+        Map<String, Long> transactionIds = new LinkedHashMap<>();
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_TRANSACTION_SQL, new String[] { "id" })) {
+                for (int from = 0; from < transactions.size(); from += jdbcBatchSize) {
+                    List<TransactionPostingDTO> batch =
+                            transactions.subList(from, Math.min(from + jdbcBatchSize, transactions.size()));
+                    for (TransactionPostingDTO transaction : batch) {
+                        ps.setString(1, transaction.getTransactionCode());
+                        ps.setString(2, transaction.getTransactionType());
+                        ps.setTimestamp(3, Timestamp.from(transaction.getDate()));
+                        ps.setString(4, transaction.getDescription());
+                        ps.setString(5, transaction.getApprovalStatus() != null
+                                ? transaction.getApprovalStatus() : "PENDING");
+                        ps.setBigDecimal(6, debits(transaction));
+                        ps.setString(7, transaction.getCurrency());
+                        ps.setObject(8, transaction.getCustomerId(), Types.BIGINT);
+                        ps.setLong(9, legalEntityId);
+                        ps.setTimestamp(10, now);
+                        ps.setString(11, currentUser);
+                        ps.setTimestamp(12, now);
+                        ps.setString(13, currentUser);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        for (TransactionPostingDTO transaction : batch) {
+                            keys.next();
+                            transactionIds.put(transaction.getTransactionCode(), keys.getLong(1));
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+        return transactionIds;
+    }
+
+    private int insertLines(List<TransactionPostingDTO> transactions, Map<String, Long> transactionIds,
+                            Map<String, Long> accountIds) {
+        List<Object[]> lines = new ArrayList<>();
+        for (TransactionPostingDTO transaction : transactions) {
+            Long transactionId = transactionIds.get(transaction.getTransactionCode());
+            for (TransactionPostingDTO.Line line : transaction.getLines()) {
+                lines.add(new Object[] { transactionId, accountIds.get(line.getAccountCode()), line.getAmount(),
+                        line.getDescription(), line.getIsDebit() });
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION_LINE_SQL, lines, jdbcBatchSize, (ps, line) -> {
+            ps.setLong(1, (Long) line[0]);
+            ps.setLong(2, (Long) line[1]);
+            ps.setBigDecimal(3, (BigDecimal) line[2]);
+            ps.setString(4, (String) line[3]);
+            ps.setBoolean(5, (Boolean) line[4]);
+        });
+        return lines.size();
+    }
+
+    private static BigDecimal debits(TransactionPostingDTO transaction) {
+        return transaction.getLines().stream()
+                .filter(line -> Boolean.TRUE.equals(line.getIsDebit()))
+                .map(TransactionPostingDTO.Line::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private void inBatches(Collection<String> codes, Consumer<List<String>> lookup) {
+        List<String> batch = new ArrayList<>(jdbcBatchSize);
+        for (String code : codes) {
+            if (code == null) {
+                continue;
+            }
+            batch.add(code);
+            if (batch.size() == jdbcBatchSize) {
+                lookup.accept(batch);
+                batch = new ArrayList<>(jdbcBatchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            lookup.accept(batch);
+        }
+    }
+}
@@ -1,21 +1,35 @@
 package com.testApplication.service;
 
+import com.testApplication.dto.CursorPageDTO;
 import com.testApplication.dto.TransactionDTO;
+import com.testApplication.dto.TransactionSearchCriteriaDTO;
 import com.testApplication.model.Transaction;
 import com.testApplication.model.Customer;
 import com.testApplication.model.LegalEntity;
+import com.testApplication.model.enums.TransactionSortEnum;
 import com.testApplication.repository.TransactionRepository;
 import com.testApplication.repository.CustomerRepository;
 import com.testApplication.repository.LegalEntityRepository;
 import com.testApplication.mapper.TransactionMapper;
 import com.testApplication.security.RequiresLegalEntityAccess;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 @Service
 public class TransactionService {
@@ -23,20 +37,30 @@ public class TransactionService {
     private final CustomerRepository customerRepository;
     private final LegalEntityRepository legalEntityRepository;
     private final TransactionMapper transactionMapper;
+    private final AccountBalanceService accountBalanceService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public TransactionService(
             TransactionRepository transactionRepository,
             CustomerRepository customerRepository,
             LegalEntityRepository legalEntityRepository,
-            TransactionMapper transactionMapper) {
+            TransactionMapper transactionMapper,
+            AccountBalanceService accountBalanceService,
+            ApplicationEventPublisher eventPublisher) {
         this.transactionRepository = transactionRepository;
         this.customerRepository = customerRepository;
         this.legalEntityRepository = legalEntityRepository;
         this.transactionMapper = transactionMapper;
+        this.accountBalanceService = accountBalanceService;
+        this.eventPublisher = eventPublisher;
     }
 
-    public List<TransactionDTO> getAllTransactions() {
-        return transactionMapper.toDTOList(transactionRepository.findAll());
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TransactionDTO> getAllTransactions(String cursor, Integer size) {
+        int pageSize = CursorPagination.pageSize(size);
+        return CursorPagination.page(transactionRepository.findByIdGreaterThanOrderByIdAsc(
+                        CursorPagination.after(cursor), CursorPagination.limit(pageSize)),
+                pageSize, Transaction::getId, transactionMapper::toDTOList);
     }
 
     public Optional<TransactionDTO> getTransactionById(Long id) {
@@ -98,6 +122,8 @@ public class TransactionService {
         existing.setDescription(dto.getDescription());
         existing.setApprovalStatus(dto.getApprovalStatus());
         existing.setAmount(dto.getAmount());
+        // The lines' balances follow the transaction into its new currency
+        accountBalanceService.changeCurrency(existing.getId(), existing.getCurrency(), dto.getCurrency());
         existing.setCurrency(dto.getCurrency());
 
         String currentUser = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -105,6 +131,8 @@ public class TransactionService {
         existing.setUpdatedAt(Instant.now());
 
         Transaction updated = transactionRepository.save(existing);
+        // Date and currency decide where the lines count in reports
+        eventPublisher.publishEvent(new LedgerChangedEvent(existing.getLegalEntity().getId()));
         return transactionMapper.toDTO(updated);
     }    @Transactional
     public void deleteTransaction(Long id) {
@@ -114,15 +142,125 @@ public class TransactionService {
         transactionRepository.deleteById(id);
     }
 
-    public List<TransactionDTO> getTransactionsByCustomer(Long customerId) {
-        Customer customer = customerRepository.findById(customerId)
-                .orElseThrow(() -> new RuntimeException("Customer not found"));
-        return transactionMapper.toDTOList(transactionRepository.findByCustomer(customer));
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TransactionDTO> getTransactionsByCustomer(Long customerId, String cursor, Integer size) {
+        if (!customerRepository.existsById(customerId)) {
+            throw new RuntimeException("Customer not found");
+        }
+        int pageSize = CursorPagination.pageSize(size);
+        return CursorPagination.page(transactionRepository.findByCustomer_IdAndIdGreaterThanOrderByIdAsc(
+                        customerId, CursorPagination.after(cursor), CursorPagination.limit(pageSize)),
+                pageSize, Transaction::getId, transactionMapper::toDTOList);
     }    @RequiresLegalEntityAccess(legalEntityIdParam = "legalEntityId")
-    public List<TransactionDTO> getTransactionsByLegalEntity(Long legalEntityId) {
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TransactionDTO> getTransactionsByLegalEntity(Long legalEntityId, String cursor, Integer size) {
         if (!legalEntityRepository.existsById(legalEntityId)) {
             throw new RuntimeException("Legal Entity not found");
         }
-        return transactionMapper.toDTOList(transactionRepository.findByLegalEntity_Id(legalEntityId));
+        int pageSize = CursorPagination.pageSize(size);
+        return CursorPagination.page(transactionRepository.findByLegalEntity_IdAndIdGreaterThanOrderByIdAsc(
+                        legalEntityId, CursorPagination.after(cursor), CursorPagination.limit(pageSize)),
+                pageSize, Transaction::getId, transactionMapper::toDTOList);
+    }
+
+    /**
+     * One page of the legal entity's transactions matching {@code criteria}, in the criteria's
+     * sort order. Paging seeks past the sort value and id of the previous page's last row, which
+     * the {@code idx_transactions_*} indexes of {@link Transaction} serve without a sort step.
+     */
+    @RequiresLegalEntityAccess(legalEntityIdParam = "legalEntityId")
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TransactionDTO> searchTransactions(Long legalEntityId, TransactionSearchCriteriaDTO criteria,
+                                                            String cursor, Integer size) {
+        if (criteria.getFrom() != null && criteria.getTo() != null && criteria.getFrom().isAfter(criteria.getTo())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+        if (criteria.getMinAmount() != null && criteria.getMaxAmount() != null
+                && criteria.getMinAmount().compareTo(criteria.getMaxAmount()) > 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "minAmount must not be above maxAmount");
+        }
+        if (!legalEntityRepository.existsById(legalEntityId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Legal Entity not found: " + legalEntityId);
+        }
+        TransactionSortEnum sort = criteria.getSort() != null ? criteria.getSort() : TransactionSortEnum.DATE_DESC;
+        boolean byDate = sort == TransactionSortEnum.DATE_ASC || sort == TransactionSortEnum.DATE_DESC;
+        Sort.Direction direction = sort == TransactionSortEnum.DATE_ASC || sort == TransactionSortEnum.AMOUNT_ASC
+                ? Sort.Direction.ASC : Sort.Direction.DESC;
+        CursorPagination.Keyset after = CursorPagination.keysetAfter(cursor, sort.name());
+        int pageSize = CursorPagination.pageSize(size);
+
+        Specification<Transaction> specification = matching(legalEntityId, criteria);
+        if (after != null) {
+            specification = specification.and(byDate
+                    ? seekPast("date", parseKey(after, Instant::parse), after.id(), direction)
+                    : seekPast("amount", parseKey(after, BigDecimal::new), after.id(), direction));
+        }
+        Sort order = Sort.by(direction, byDate ? "date" : "amount").and(Sort.by(direction, "id"));
+        List<Transaction> rows = transactionRepository.findBy(specification,
+                query -> query.sortBy(order).limit(pageSize + 1).all());
+        return CursorPagination.keysetPage(rows, pageSize,
+                row -> CursorPagination.encode(sort.name(),
+                        byDate ? row.getDate().toString() : row.getAmount().toPlainString(), row.getId()),
+                transactionMapper::toDTOList);
+    }
+
+    private static Specification<Transaction> matching(Long legalEntityId, TransactionSearchCriteriaDTO criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("legalEntity").get("id"), legalEntityId));
+            if (criteria.getFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("date"),
+                        criteria.getFrom().atStartOfDay(ZoneOffset.UTC).toInstant()));
+            }
+            if (criteria.getTo() != null) {
+                predicates.add(cb.lessThan(root.get("date"),
+                        criteria.getTo().plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant()));
+            }
+            if (criteria.getApprovalStatus() != null) {
+                predicates.add(cb.equal(root.get("approvalStatus"), criteria.getApprovalStatus()));
+            }
+            if (criteria.getTransactionType() != null) {
+                predicates.add(cb.equal(root.get("transactionType"), criteria.getTransactionType()));
+            }
+            if (criteria.getCurrency() != null) {
+                predicates.add(cb.equal(root.get("currency"), criteria.getCurrency()));
+            }
+            if (criteria.getMinAmount() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("amount"), criteria.getMinAmount()));
+            }
+            if (criteria.getMaxAmount() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("amount"), criteria.getMaxAmount()));
+            }
+            if (criteria.getCustomerId() != null) {
+                predicates.add(cb.equal(root.get("customer").get("id"), criteria.getCustomerId()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    // (column, id) strictly past the last row of the previous page in the sort direction. The
+    // redundant bound on the column alone gives the index a start key, which the database
+    // cannot derive from the OR; without it a deep page scans from the start of the range.
+    private static <T extends Comparable<? super T>> Specification<Transaction> seekPast(
+            String column, T value, long id, Sort.Direction direction) {
+        return (root, query, cb) -> {
+            Path<T> sortColumn = root.get(column);
+            Path<Long> idColumn = root.get("id");
+            return direction == Sort.Direction.ASC
+                    ? cb.and(cb.greaterThanOrEqualTo(sortColumn, value),
+                            cb.or(cb.greaterThan(sortColumn, value),
+                                    cb.and(cb.equal(sortColumn, value), cb.greaterThan(idColumn, id))))
+                    : cb.and(cb.lessThanOrEqualTo(sortColumn, value),
+                            cb.or(cb.lessThan(sortColumn, value),
+                                    cb.and(cb.equal(sortColumn, value), cb.lessThan(idColumn, id))));
+        };
+    }
+
+    private static <T> T parseKey(CursorPagination.Keyset keyset, Function<String, T> parser) {
+        try {
+            return parser.apply(keyset.value());
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,141 @@
+package com.testApplication.service;
+
+import com.testApplication.dto.TrialBalanceDTO;
+import com.testApplication.security.RequiresLegalEntityAccess;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Trial balance of a legal entity as of a day, computed by one grouped query over its lines
+ * and kept in memory per legal entity and day. Every {@link LedgerChangedEvent} bumps the
+ * entity's {@code ledger_version} in the database within the changing transaction, and a cached
+ * report is only served while that version is unchanged. Changes committed by other instances
+ * therefore invalidate the cache as well, at the cost of one primary key lookup per request.
+ */
+@Service
+public class TrialBalanceService {
+
+    private static final String TRIAL_BALANCE_SQL =
+            "SELECT a.id, a.code, a.name, ty.code, t.currency, "
+                    + "SUM(CASE WHEN l.is_debit THEN l.amount ELSE 0 END), "
+                    + "SUM(CASE WHEN l.is_debit THEN 0 ELSE l.amount END) "
+                    + "FROM transactions t "
+                    + "JOIN transaction_lines l ON l.transaction_id = t.id "
+                    + "JOIN accounts a ON a.id = l.account_id "
+                    + "JOIN account_types ty ON ty.id = a.account_type_id "
+                    + "WHERE t.legal_entity_id = ? AND t.date < ? "
+                    + "GROUP BY a.id, a.code, a.name, ty.code, t.currency "
+                    + "ORDER BY t.currency, a.code";
+
+    private static final String LEDGER_VERSION_SQL =
+            "SELECT COALESCE(ledger_version, 0) FROM legal_entities WHERE id = ?";
+    private static final String BUMP_LEDGER_VERSION_SQL =
+            "UPDATE legal_entities SET ledger_version = COALESCE(ledger_version, 0) + 1 WHERE id = ?";
+    private static final String BUMP_ALL_LEDGER_VERSIONS_SQL =
+            "UPDATE legal_entities SET ledger_version = COALESCE(ledger_version, 0) + 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxCachedDays;
+    private final Map<Long, Map<LocalDate, CachedReport>> reports = new ConcurrentHashMap<>();
+
+    public TrialBalanceService(JdbcTemplate jdbcTemplate,
+                               @Value("${app.reports.trial-balance.max-cached-days:32}") int maxCachedDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxCachedDays = maxCachedDays;
+    }
+
+    /**
+     * Trial balance over the transactions dated up to the end of {@code asOf} (UTC), today when null.
+     */
+    @RequiresLegalEntityAccess(legalEntityIdParam = "legalEntityId")
+    @Transactional(readOnly = true)
+    public TrialBalanceDTO getTrialBalance(Long legalEntityId, LocalDate asOf) {
+        // Doubles as the existence check of the legal entity
+        List<Long> versions = jdbcTemplate.queryForList(LEDGER_VERSION_SQL, Long.class, legalEntityId);
+        if (versions.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Legal Entity not found: " + legalEntityId);
+        }
+        long version = versions.get(0);
+        LocalDate day = asOf != null ? asOf : LocalDate.now(ZoneOffset.UTC);
+        Map<LocalDate, CachedReport> byDay = reports.computeIfAbsent(legalEntityId, id -> new ConcurrentHashMap<>());
+        CachedReport cached = byDay.get(day);
+        if (cached != null && cached.version() == version) {
+            return cached.report();
+        }
+
+        // Tagged with the version read before the query, so a change committed meanwhile makes
+        // the next request recompute
+        TrialBalanceDTO report = compute(legalEntityId, day);
+        if (byDay.size() >= maxCachedDays) {
+            byDay.clear();
+        }
+        byDay.put(day, new CachedReport(version, report));
+        return report;
+    }
+
+    /**
+     * Runs inside the transaction that publishes the event, so the new version commits, or rolls
+     * back, together with the change.
+     */
+    @EventListener
+    public void onLedgerChanged(LedgerChangedEvent event) {
+        if (event.legalEntityId() == null) {
+            jdbcTemplate.update(BUMP_ALL_LEDGER_VERSIONS_SQL);
+        } else {
+            jdbcTemplate.update(BUMP_LEDGER_VERSION_SQL, event.legalEntityId());
+        }
+    }
+
+    private TrialBalanceDTO compute(Long legalEntityId, LocalDate day) {
+        Timestamp end = Timestamp.from(day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        List<TrialBalanceDTO.Line> lines = jdbcTemplate.query(TRIAL_BALANCE_SQL, (rs, rowNum) -> {
+            BigDecimal debits = rs.getBigDecimal(6);
+            BigDecimal credits = rs.getBigDecimal(7);
+            return TrialBalanceDTO.Line.builder()
+                    .accountId(rs.getLong(1))
+                    .accountCode(rs.getString(2))
+                    .accountName(rs.getString(3))
+                    .accountTypeCode(rs.getString(4))
+                    .currency(rs.getString(5))
+                    .debitTotal(debits)
+                    .creditTotal(credits)
+                    .balance(debits.subtract(credits))
+                    .build();
+        }, legalEntityId, end);
+
+        Map<String, TrialBalanceDTO.CurrencyTotal> totals = new LinkedHashMap<>();
+        for (TrialBalanceDTO.Line line : lines) {
+            TrialBalanceDTO.CurrencyTotal total = totals.computeIfAbsent(line.getCurrency(),
+                    currency -> new TrialBalanceDTO.CurrencyTotal(currency, BigDecimal.ZERO, BigDecimal.ZERO, true));
+            total.setDebitTotal(total.getDebitTotal().add(line.getDebitTotal()));
+            total.setCreditTotal(total.getCreditTotal().add(line.getCreditTotal()));
+        }
+        totals.values().forEach(total -> total.setBalanced(total.getDebitTotal().compareTo(total.getCreditTotal()) == 0));
+
+        return TrialBalanceDTO.builder()
+                .legalEntityId(legalEntityId)
+                .asOf(day)
+                .generatedAt(Instant.now())
+                .lines(lines)
+                .totals(List.copyOf(totals.values()))
+                .build();
+    }
+
+    private record CachedReport(long version, TrialBalanceDTO report) {
+    }
+}
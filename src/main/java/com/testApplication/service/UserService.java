@@ -1,5 +1,6 @@
 package com.testApplication.service;
 
+import com.testApplication.dto.CursorPageDTO;
 import com.testApplication.dto.UserCreationRequestDTO;
 import com.testApplication.model.User;    // Your User JPA Entity
 import com.testApplication.model.enums.RoleEnum; // Your RoleEnum
@@ -168,8 +169,11 @@ public class UserService implements UserDetailsService {
     }
 
     @Transactional(readOnly = true)
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public CursorPageDTO<User> getAllUsers(String cursor, Integer size) {
+        int pageSize = CursorPagination.pageSize(size);
+        return CursorPagination.page(userRepository.findByIdGreaterThanOrderByIdAsc(
+                        CursorPagination.after(cursor), CursorPagination.limit(pageSize)),
+                pageSize, User::getId, users -> users);
     }
 
     @Transactional
@@ -2,6 +2,7 @@ package com.testApplication.controller;
 
 import com.testApplication.dto.AccountAllocationTemplateDTO;
 import com.testApplication.dto.AccountAllocationTemplateDTO.AccountAllocationDetails;
+import com.testApplication.dto.CursorPageDTO;
 import com.testApplication.exception.AllocationTemplateException;
 import com.testApplication.service.AccountAllocationTemplateService;
 import org.junit.jupiter.api.BeforeEach;
@@ -59,18 +60,21 @@ class AccountAllocationTemplateControllerTest {
 
     @Test
     void getAllTemplates_ShouldReturnList() throws Exception {
-        when(templateService.getAllTemplates()).thenReturn(List.of(testTemplateDTO));
+        when(templateService.getAllTemplates(null, null)).thenReturn(CursorPageDTO.<AccountAllocationTemplateDTO>builder()
+                .items(List.of(testTemplateDTO))
+                .size(1)
+                .build());
 
         mockMvc.perform(get("/api/allocation-templates"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$[0].id").value(1))
-                .andExpect(jsonPath("$[0].code").value("TEMPLATE001"))
-                .andExpect(jsonPath("$[0].legalEntityName").value("Test Legal Entity"))
-                .andExpect(jsonPath("$[0].allocation_details[0].accountId").value(1))
-                .andExpect(jsonPath("$[0].allocation_details[0].accountCode").value("TEST001"))
-                .andExpect(jsonPath("$[0].allocation_details[0].allocationOrder").value(1))
-                .andExpect(jsonPath("$[0].allocation_details[0].isSource").value(true));
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.items[0].code").value("TEMPLATE001"))
+                .andExpect(jsonPath("$.items[0].legalEntityName").value("Test Legal Entity"))
+                .andExpect(jsonPath("$.items[0].allocation_details[0].accountId").value(1))
+                .andExpect(jsonPath("$.items[0].allocation_details[0].accountCode").value("TEST001"))
+                .andExpect(jsonPath("$.items[0].allocation_details[0].allocationOrder").value(1))
+                .andExpect(jsonPath("$.items[0].allocation_details[0].isSource").value(true));
     }
 
     @Test
@@ -109,14 +113,18 @@ class AccountAllocationTemplateControllerTest {
 
     @Test
     void getTemplatesByType_ShouldReturnList() throws Exception {
-        when(templateService.getTemplatesByType(true)).thenReturn(List.of(testTemplateDTO));
+        when(templateService.getTemplatesByType(true, null, null)).thenReturn(
+                CursorPageDTO.<AccountAllocationTemplateDTO>builder()
+                        .items(List.of(testTemplateDTO))
+                        .size(1)
+                        .build());
 
         mockMvc.perform(get("/api/allocation-templates/by-type")
                 .param("isSource", "true"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$[0].id").value(1))
-                .andExpect(jsonPath("$[0].allocation_details[0].isSource").value(true));
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.items[0].allocation_details[0].isSource").value(true));
     }    @Test
     void createTemplate_WithValidData_ShouldCreateTemplate() throws Exception {
         Long legalEntityId = 1L;
@@ -1,18 +1,27 @@
 package com.testApplication.controller;
 
+import com.testApplication.service.CsvImportJobService;
+import com.testApplication.service.CsvImportScheduler;
 import com.testApplication.service.CsvImportService;
+import com.testApplication.service.CsvMultiEntityImportService;
+import com.testApplication.service.ImportBatchService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(CsvImportController.class)
+@Import(CsvImportScheduler.class)
 class CsvImportControllerSecurityTest {
 
     @Autowired
@@ -21,6 +30,15 @@ class CsvImportControllerSecurityTest {
     @MockitoBean
     private CsvImportService csvImportService;
 
+    @MockitoBean
+    private CsvImportJobService csvImportJobService;
+
+    @MockitoBean
+    private CsvMultiEntityImportService csvMultiEntityImportService;
+
+    @MockitoBean
+    private ImportBatchService importBatchService;
+
     private MockMultipartFile createTestFile() {
         return new MockMultipartFile(
             "file",
@@ -46,4 +64,24 @@ class CsvImportControllerSecurityTest {
                 .param("legalEntityId", "1"))
                 .andExpect(status().isForbidden());
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(username = "other_entity_user")
+    void getImportJobStatus_WithoutAccessToLegalEntity_ShouldReturnForbidden() throws Exception {
+        when(csvImportJobService.getStatus("job-1"))
+                .thenThrow(new AccessDeniedException("Access denied to legal entity: 1"));
+
+        mockMvc.perform(get("/api/import/jobs/job-1"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = "other_entity_user")
+    void getImportJobErrors_WithoutAccessToLegalEntity_ShouldReturnForbidden() throws Exception {
+        when(csvImportJobService.getErrorReport("job-1"))
+                .thenThrow(new AccessDeniedException("Access denied to legal entity: 1"));
+
+        mockMvc.perform(get("/api/import/jobs/job-1/errors"))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -1,12 +1,26 @@
 package com.testApplication.controller;
 
+import com.testApplication.dto.CsvImportJobStatusDTO;
+import com.testApplication.dto.CsvImportResultDTO;
+import com.testApplication.dto.CsvImportSummaryDTO;
+import com.testApplication.dto.CsvImportValidationReportDTO;
+import com.testApplication.dto.CursorPageDTO;
+import com.testApplication.dto.ImportBatchDTO;
+import com.testApplication.dto.ImportRecordDTO;
 import com.testApplication.dto.TransactionLineDTO;
 import com.testApplication.exception.CsvImportException;
+import com.testApplication.model.enums.ImportBatchStatusEnum;
+import com.testApplication.model.enums.ImportJobStatusEnum;
+import com.testApplication.service.CsvImportJobService;
+import com.testApplication.service.CsvImportScheduler;
 import com.testApplication.service.CsvImportService;
+import com.testApplication.service.CsvMultiEntityImportService;
+import com.testApplication.service.ImportBatchService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
@@ -18,26 +32,52 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.util.FileCopyUtils;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(CsvImportController.class)
+@Import(CsvImportScheduler.class)
 @AutoConfigureMockMvc(addFilters = false) // Disable security filters for testing
 class CsvImportControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private CsvImportScheduler csvImportScheduler;
+
     @MockitoBean
     private CsvImportService csvImportService;
 
+    @MockitoBean
+    private CsvImportJobService csvImportJobService;
+
+    @MockitoBean
+    private CsvMultiEntityImportService csvMultiEntityImportService;
+
+    @MockitoBean
+    private ImportBatchService importBatchService;
+
     private TransactionLineDTO testTransactionLineDTO;
     private MockMultipartFile testFile;
 
@@ -148,4 +188,275 @@ class CsvImportControllerTest {
                 .param("legalEntityId", "1"))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void submitImportJob_ValidFile_ShouldReturnAccepted() throws Exception {
+        CsvImportJobStatusDTO status = CsvImportJobStatusDTO.builder()
+                .jobId("job-1")
+                .legalEntityId(1L)
+                .status(ImportJobStatusEnum.QUEUED)
+                .build();
+        when(csvImportJobService.submit(any(), anyLong(), eq(false))).thenReturn(status);
+
+        mockMvc.perform(multipart("/api/import/transaction-lines/jobs")
+                .file(testFile)
+                .param("legalEntityId", "1"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.jobId").value("job-1"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void submitImportJob_QueueFull_ShouldReturnServiceUnavailable() throws Exception {
+        when(csvImportJobService.submit(any(), anyLong(), eq(false)))
+                .thenThrow(new CsvImportException.ImportQueueFullException("Import queue is full, please retry later"));
+
+        mockMvc.perform(multipart("/api/import/transaction-lines/jobs")
+                .file(testFile)
+                .param("legalEntityId", "1"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.code").value("IMPORT_QUEUE_FULL"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getImportJobStatus_UnknownJob_ShouldReturnNotFound() throws Exception {
+        when(csvImportJobService.getStatus(anyString())).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/import/jobs/unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void importTransactionLinesRaw_ShouldImportRequestBody() throws Exception {
+        CsvImportResultDTO result = CsvImportResultDTO.builder()
+                .legalEntityId(1L)
+                .rowsImported(4)
+                .build();
+        when(csvImportService.importTransactionLinesSpooled(any(), anyLong())).thenReturn(result);
+
+        mockMvc.perform(post("/api/import/transaction-lines/raw")
+                .contentType("text/csv")
+                .content("transaction_code,account_code,amount,description,is_debit\n")
+                .param("legalEntityId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsImported").value(4));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void importTransactionLines_EchoDisabled_ShouldReturnSummary() throws Exception {
+        CsvImportSummaryDTO summary = CsvImportSummaryDTO.builder()
+                .legalEntityId(1L)
+                .rowsImported(4)
+                .totalDebits(BigDecimal.valueOf(1500))
+                .build();
+        when(csvImportService.importTransactionLinesWithSummary(any(), anyLong())).thenReturn(summary);
+
+        mockMvc.perform(multipart("/api/import/transaction-lines")
+                .file(testFile)
+                .param("legalEntityId", "1")
+                .param("echo", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsImported").value(4))
+                .andExpect(jsonPath("$.totalDebits").value(1500));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void importTransactionLines_EchoEnabled_ShouldAddTheFirstPageOfTheBatchLines() throws Exception {
+        CsvImportSummaryDTO summary = CsvImportSummaryDTO.builder()
+                .legalEntityId(1L)
+                .importBatchId(9L)
+                .rowsImported(4)
+                .build();
+        when(csvImportService.importTransactionLinesWithSummary(any(), anyLong())).thenReturn(summary);
+        when(importBatchService.getLines(9L, null, 2)).thenReturn(CursorPageDTO.<TransactionLineDTO>builder()
+                .items(List.of(testTransactionLineDTO))
+                .size(1)
+                .nextCursor("next")
+                .hasMore(true)
+                .build());
+
+        mockMvc.perform(multipart("/api/import/transaction-lines")
+                .file(testFile)
+                .param("legalEntityId", "1")
+                .param("echo", "true")
+                .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importBatchId").value(9))
+                .andExpect(jsonPath("$.lines.items.length()").value(1))
+                .andExpect(jsonPath("$.lines.nextCursor").value("next"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getImportBatchLines_ShouldReturnTheRequestedPage() throws Exception {
+        when(importBatchService.getLines(9L, "next", null)).thenReturn(CursorPageDTO.<TransactionLineDTO>builder()
+                .items(List.of(testTransactionLineDTO))
+                .size(1)
+                .hasMore(false)
+                .build());
+
+        mockMvc.perform(get("/api/import/batches/9/lines").param("cursor", "next"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void importTransactionLines_DuplicateFile_ShouldReturnPreviousImport() throws Exception {
+        ImportRecordDTO previousImport = ImportRecordDTO.builder()
+                .importId(7L)
+                .legalEntityId(1L)
+                .fileName("test_transaction_lines.csv")
+                .rowsImported(4)
+                .duplicate(true)
+                .build();
+        when(csvImportService.importTransactionLinesFromCsv(any(), anyLong()))
+                .thenThrow(new CsvImportException.DuplicateImportException(previousImport));
+
+        mockMvc.perform(multipart("/api/import/transaction-lines")
+                .file(testFile)
+                .param("legalEntityId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importId").value(7))
+                .andExpect(jsonPath("$.duplicate").value(true))
+                .andExpect(jsonPath("$.rowsImported").value(4));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void importTransactionLines_DryRun_ShouldReturnValidationReport() throws Exception {
+        CsvImportValidationReportDTO report = CsvImportValidationReportDTO.builder()
+                .legalEntityId(1L)
+                .valid(true)
+                .rowsRead(4)
+                .accountsToCreate(List.of("NEW_ACC001"))
+                .build();
+        when(csvImportService.validateTransactionLines(any(), anyLong())).thenReturn(report);
+
+        mockMvc.perform(multipart("/api/import/transaction-lines")
+                .file(testFile)
+                .param("legalEntityId", "1")
+                .param("dryRun", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valid").value(true))
+                .andExpect(jsonPath("$.accountsToCreate[0]").value("NEW_ACC001"));
+
+        verify(csvImportService, never()).importTransactionLinesFromCsv(any(), anyLong());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void importTransactionLinesNdjson_ShouldImportRequestBody() throws Exception {
+        CsvImportResultDTO result = CsvImportResultDTO.builder()
+                .legalEntityId(1L)
+                .rowsImported(2)
+                .build();
+        when(csvImportService.importTransactionLinesNdjson(any(), anyLong())).thenReturn(result);
+
+        mockMvc.perform(post("/api/import/transaction-lines/ndjson")
+                .contentType("application/x-ndjson")
+                .content("{\"transactionCode\":\"TRANS001\",\"accountCode\":\"ACC001\",\"amount\":100,\"isDebit\":true}\n"
+                        + "{\"transactionCode\":\"TRANS001\",\"accountCode\":\"ACC002\",\"amount\":100,\"isDebit\":false}\n")
+                .param("legalEntityId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsImported").value(2));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getImportJobErrors_ShouldDownloadErrorCsv() throws Exception {
+        Path report = Files.createTempFile("csv-import-errors-", ".csv");
+        Files.writeString(report, "line_number,reason\n3,\"Invalid amount on CSV line 3: abc\"\n");
+        when(csvImportJobService.getErrorReport("job-1")).thenReturn(Optional.of(report));
+
+        try {
+            mockMvc.perform(get("/api/import/jobs/job-1/errors"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Disposition", "attachment; filename=\"import-job-1-errors.csv\""))
+                    .andExpect(content().string("line_number,reason\n3,\"Invalid amount on CSV line 3: abc\"\n"));
+        } finally {
+            Files.delete(report);
+        }
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void rollbackImportBatch_ShouldReturnDeletedCounts() throws Exception {
+        ImportBatchDTO batch = ImportBatchDTO.builder()
+                .importBatchId(7L)
+                .legalEntityId(1L)
+                .status(ImportBatchStatusEnum.COMPLETED)
+                .build();
+        ImportBatchDTO rolledBack = ImportBatchDTO.builder()
+                .importBatchId(7L)
+                .legalEntityId(1L)
+                .status(ImportBatchStatusEnum.ROLLED_BACK)
+                .linesDeleted(4)
+                .transactionsDeleted(2)
+                .build();
+        when(importBatchService.getBatch(7L)).thenReturn(batch);
+        when(importBatchService.rollback(7L)).thenReturn(rolledBack);
+
+        mockMvc.perform(delete("/api/import/batches/7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("ROLLED_BACK"))
+                .andExpect(jsonPath("$.linesDeleted").value(4))
+                .andExpect(jsonPath("$.transactionsDeleted").value(2));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void rollbackImportBatch_WhileAnImportOfTheLegalEntityRuns_ShouldReturnConflict() throws Exception {
+        when(importBatchService.getBatch(7L)).thenReturn(ImportBatchDTO.builder()
+                .importBatchId(7L)
+                .legalEntityId(1L)
+                .status(ImportBatchStatusEnum.COMPLETED)
+                .build());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> csvImportScheduler.run(1L, () -> {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            mockMvc.perform(delete("/api/import/batches/7"))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.code").value("LEGAL_ENTITY_BUSY"));
+            verify(importBatchService, never()).rollback(anyLong());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void rollbackImportBatch_AlreadyRolledBack_ShouldReturnConflict() throws Exception {
+        when(importBatchService.getBatch(7L)).thenReturn(ImportBatchDTO.builder()
+                .importBatchId(7L)
+                .legalEntityId(1L)
+                .status(ImportBatchStatusEnum.ROLLED_BACK)
+                .build());
+        when(importBatchService.rollback(7L)).thenThrow(
+                new CsvImportException.ImportBatchStateException("Import batch 7 was already rolled back"));
+
+        mockMvc.perform(delete("/api/import/batches/7"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("INVALID_IMPORT_BATCH_STATE"));
+    }
 }
@@ -1,7 +1,15 @@
 package com.testApplication.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testApplication.dto.CursorPageDTO;
 import com.testApplication.dto.TransactionDTO;
+import com.testApplication.dto.TransactionPostingResultDTO;
+import com.testApplication.dto.TransactionSearchCriteriaDTO;
+import com.testApplication.exception.TransactionPostingException;
+import com.testApplication.model.enums.ExportFormatEnum;
+import com.testApplication.model.enums.TransactionSortEnum;
+import com.testApplication.service.TransactionExportService;
+import com.testApplication.service.TransactionPostingService;
 import com.testApplication.service.TransactionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,18 +18,26 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.context.annotation.Import;
 import com.testApplication.config.SecurityConfig;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -39,6 +55,12 @@ class TransactionControllerTest {
     @MockitoBean
     private TransactionService transactionService;
 
+    @MockitoBean
+    private TransactionExportService transactionExportService;
+
+    @MockitoBean
+    private TransactionPostingService transactionPostingService;
+
     private TransactionDTO testTransactionDTO;
 
     @BeforeEach
@@ -60,14 +82,37 @@ class TransactionControllerTest {
     @Test
     @WithMockUser(roles = "ADMIN")  // Add mock user with ADMIN role
     void getAllTransactions_ShouldReturnList() throws Exception {
-        when(transactionService.getAllTransactions())
-                .thenReturn(Arrays.asList(testTransactionDTO));
+        when(transactionService.getAllTransactions(null, null))
+                .thenReturn(CursorPageDTO.<TransactionDTO>builder()
+                        .items(Arrays.asList(testTransactionDTO))
+                        .size(1)
+                        .build());
 
         mockMvc.perform(get("/api/transactions")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].transactionCode").value("TRX001"))
-                .andExpect(jsonPath("$[0].amount").value(100.00));
+                .andExpect(jsonPath("$.items[0].transactionCode").value("TRX001"))
+                .andExpect(jsonPath("$.items[0].amount").value(100.00))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getAllTransactions_WithCursor_ShouldPassCursorAndSize() throws Exception {
+        when(transactionService.getAllTransactions("aWQ6NTA", 2))
+                .thenReturn(CursorPageDTO.<TransactionDTO>builder()
+                        .items(Arrays.asList(testTransactionDTO))
+                        .size(1)
+                        .nextCursor("aWQ6NTE")
+                        .hasMore(true)
+                        .build());
+
+        mockMvc.perform(get("/api/transactions")
+                .param("cursor", "aWQ6NTA")
+                .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("aWQ6NTE"))
+                .andExpect(jsonPath("$.hasMore").value(true));
     }
 
     @Test
@@ -125,4 +170,86 @@ class TransactionControllerTest {
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNoContent());
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void exportTransactions_ShouldStreamBody() throws Exception {
+        when(transactionExportService.exportTransactions(1L, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31),
+                ExportFormatEnum.JSON))
+                .thenReturn(out -> out.write("[{\"transactionCode\":\"TRX001\"}]".getBytes(StandardCharsets.UTF_8)));
+
+        MvcResult result = mockMvc.perform(get("/api/transactions/export")
+                .param("legalEntityId", "1")
+                .param("from", "2025-01-01")
+                .param("to", "2025-01-31")
+                .param("format", "JSON"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"transactions-1-2025-01-01-2025-01-31.json\""))
+                .andExpect(jsonPath("$[0].transactionCode").value("TRX001"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void postTransactions_ShouldReturnCreated() throws Exception {
+        when(transactionPostingService.postTransactions(eq(1L), anyList()))
+                .thenReturn(TransactionPostingResultDTO.builder()
+                        .legalEntityId(1L)
+                        .transactionsCreated(1)
+                        .linesCreated(2)
+                        .transactionIds(Map.of("TRX001", 10L))
+                        .build());
+
+        mockMvc.perform(post("/api/transactions/legal-entity/1/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"transactionCode\":\"TRX001\",\"lines\":[]}]"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.transactionsCreated").value(1))
+                .andExpect(jsonPath("$.transactionIds.TRX001").value(10));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void postTransactions_WhenInvalid_ShouldReturnErrors() throws Exception {
+        when(transactionPostingService.postTransactions(eq(1L), anyList()))
+                .thenThrow(new TransactionPostingException.ValidationException(
+                        List.of("Transaction 0 (TRX001): debits 100 do not balance credits 90")));
+
+        mockMvc.perform(post("/api/transactions/legal-entity/1/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"transactionCode\":\"TRX001\"}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_TRANSACTIONS"))
+                .andExpect(jsonPath("$.errors[0]").value("Transaction 0 (TRX001): debits 100 do not balance credits 90"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void searchTransactions_ShouldBindCriteria() throws Exception {
+        when(transactionService.searchTransactions(eq(1L), argThat((TransactionSearchCriteriaDTO criteria) ->
+                        "APPROVED".equals(criteria.getApprovalStatus())
+                                && LocalDate.of(2025, 1, 1).equals(criteria.getFrom())
+                                && new BigDecimal("100").compareTo(criteria.getMinAmount()) == 0
+                                && criteria.getSort() == TransactionSortEnum.AMOUNT_DESC),
+                eq("abc"), eq(20)))
+                .thenReturn(CursorPageDTO.<TransactionDTO>builder()
+                        .items(List.of(testTransactionDTO))
+                        .size(1)
+                        .build());
+
+        mockMvc.perform(get("/api/transactions/by-legal-entity/1/search")
+                .param("approvalStatus", "APPROVED")
+                .param("from", "2025-01-01")
+                .param("minAmount", "100")
+                .param("sort", "AMOUNT_DESC")
+                .param("cursor", "abc")
+                .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].transactionCode").value("TRX001"))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+}
@@ -2,6 +2,7 @@ package com.testApplication.service;
 
 import com.testApplication.dto.AccountAllocationTemplateDTO;
 import com.testApplication.dto.AccountAllocationTemplateDTO.AccountAllocationDetails;
+import com.testApplication.dto.CursorPageDTO;
 import com.testApplication.exception.AllocationTemplateException;
 import com.testApplication.mapper.AccountAllocationTemplateMapper;
 import com.testApplication.model.Account;
@@ -16,6 +17,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
@@ -123,17 +125,17 @@ class AccountAllocationTemplateServiceTest {
     @Test
     void getAllTemplates_ShouldReturnAllTemplates() {
         // Arrange
-        when(templateRepository.findAll()).thenReturn(List.of(testTemplate));
+        when(templateRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(51))).thenReturn(List.of(testTemplate));
         when(templateMapper.toDTOList(any())).thenReturn(List.of(testTemplateDTO));
 
         // Act
-        List<AccountAllocationTemplateDTO> result = templateService.getAllTemplates();
+        CursorPageDTO<AccountAllocationTemplateDTO> result = templateService.getAllTemplates(null, null);
 
         // Assert
         assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(testTemplateDTO, result.get(0));
-        verify(templateRepository).findAll();
+        assertEquals(1, result.getItems().size());
+        assertEquals(testTemplateDTO, result.getItems().get(0));
+        verify(templateRepository).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(51));
         verify(templateMapper).toDTOList(any());
     }
 
@@ -281,36 +283,39 @@ class AccountAllocationTemplateServiceTest {
     @Test
     void getTemplatesByType_ShouldReturnTemplatesWithMatchingType() {
         // Arrange
-        when(templateRepository.findByTemplateAccounts_IsSource(true))
+        when(templateRepository.findDistinctByTemplateAccounts_IsSourceAndIdGreaterThanOrderByIdAsc(
+                true, 0L, Limit.of(51)))
                 .thenReturn(List.of(testTemplate));
-        when(templateMapper.toDTO(testTemplate)).thenReturn(testTemplateDTO);
+        when(templateMapper.toDTOList(anyList())).thenReturn(List.of(testTemplateDTO));
 
         // Act
-        List<AccountAllocationTemplateDTO> result = templateService.getTemplatesByType(true);
+        CursorPageDTO<AccountAllocationTemplateDTO> result = templateService.getTemplatesByType(true, null, null);
 
         // Assert
         assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(testTemplateDTO.getLegalEntityName(), result.get(0).getLegalEntityName());
-        verify(templateRepository).findByTemplateAccounts_IsSource(true);
+        assertEquals(1, result.getItems().size());
+        assertFalse(result.isHasMore());
+        assertEquals(testTemplateDTO.getLegalEntityName(), result.getItems().get(0).getLegalEntityName());
+        verify(templateRepository).findDistinctByTemplateAccounts_IsSourceAndIdGreaterThanOrderByIdAsc(
+                true, 0L, Limit.of(51));
     }
 
     @Test
     void getTemplatesByLegalEntity_ShouldReturnTemplatesForLegalEntity() {
         // Arrange
-        when(templateRepository.findByLegalEntity_Id(1L))
+        when(templateRepository.findByLegalEntity_IdAndIdGreaterThanOrderByIdAsc(1L, 0L, Limit.of(51)))
                 .thenReturn(List.of(testTemplate));
         when(templateMapper.toDTOList(anyList())).thenReturn(List.of(testTemplateDTO));
 
         // Act
-        List<AccountAllocationTemplateDTO> result = templateService.getTemplatesByLegalEntity(1L);
+        CursorPageDTO<AccountAllocationTemplateDTO> result = templateService.getTemplatesByLegalEntity(1L, null, null);
 
         // Assert
         assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(testTemplateDTO.getLegalEntityId(), result.get(0).getLegalEntityId());
-        assertEquals(testTemplateDTO.getLegalEntityName(), result.get(0).getLegalEntityName());
-        verify(templateRepository).findByLegalEntity_Id(1L);
+        assertEquals(1, result.getItems().size());
+        assertEquals(testTemplateDTO.getLegalEntityId(), result.getItems().get(0).getLegalEntityId());
+        assertEquals(testTemplateDTO.getLegalEntityName(), result.getItems().get(0).getLegalEntityName());
+        verify(templateRepository).findByLegalEntity_IdAndIdGreaterThanOrderByIdAsc(1L, 0L, Limit.of(51));
         verify(templateMapper).toDTOList(anyList());
     }
 }
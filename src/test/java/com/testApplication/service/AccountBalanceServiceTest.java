@@ -0,0 +1,160 @@
+package com.testApplication.service;
+
+import com.testApplication.dto.AccountBalanceDTO;
+import com.testApplication.dto.CsvImportResultDTO;
+import com.testApplication.dto.TransactionDTO;
+import com.testApplication.dto.TransactionPostingDTO;
+import com.testApplication.mapper.TransactionMapper;
+import com.testApplication.repository.TransactionRepository;
+import com.testApplication.util.SetupTestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: balances must commit with the lines of every writer
+@SpringBootTest
+class AccountBalanceServiceTest extends SetupTestData {
+
+    @Autowired
+    private AccountBalanceService accountBalanceService;
+
+    @Autowired
+    private TransactionPostingService transactionPostingService;
+
+    @Autowired
+    private CsvImportService csvImportService;
+
+    @Autowired
+    private ImportBatchService importBatchService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionMapper transactionMapper;
+
+    @Test
+    void postTransactions_ShouldUpdateBalancesPerCurrency() {
+        transactionPostingService.postTransactions(testLegalEntity.getId(), List.of(
+                transaction("BAL001", "USD", "100.00"),
+                transaction("BAL002", "USD", "40.00"),
+                transaction("BAL003", "EUR", "7.50")));
+
+        List<AccountBalanceDTO> balances = accountBalanceService.getBalances(testLegalEntity.getId(),
+                testAccount.getId());
+
+        assertEquals(2, balances.size());
+        assertEquals("EUR", balances.get(0).getCurrency());
+        assertEquals(0, new BigDecimal("7.50").compareTo(balances.get(0).getBalance()));
+        assertEquals("USD", balances.get(1).getCurrency());
+        assertEquals(0, new BigDecimal("140.00").compareTo(balances.get(1).getDebitTotal()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(balances.get(1).getCreditTotal()));
+        assertEquals(0, new BigDecimal("-140.00").compareTo(
+                accountBalanceService.getBalances(testLegalEntity.getId(), testParentAccount.getId())
+                        .get(1).getBalance()));
+    }
+
+    @Test
+    void rollback_ShouldTakeTheBatchOffTheBalances() {
+        String suffix = String.valueOf(System.nanoTime());
+        CsvImportResultDTO result = csvImportService.importTransactionLinesStreaming(new MockMultipartFile(
+                "file", "balances.csv", "text/csv",
+                ("transaction_code,account_code,amount,description,is_debit\n"
+                        + "BALRB-" + suffix + ",PARENT001,25.00,Debit,true\n"
+                        + "BALRB-" + suffix + ",TEST001,25.00,Credit,false\n").getBytes()),
+                testLegalEntity.getId());
+
+        assertEquals(0, new BigDecimal("-25.00").compareTo(balance()));
+
+        importBatchService.rollback(result.getImportBatchId());
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(balance()));
+    }
+
+    @Test
+    void updateTransaction_NewCurrency_ShouldMoveTheLinesToItsBalances() {
+        transactionPostingService.postTransactions(testLegalEntity.getId(), List.of(
+                transaction("BALCC1", "USD", "30.00"),
+                transaction("BALCC2", "USD", "12.00")));
+        TransactionDTO dto = transactionMapper.toDTO(transactionRepository.findByLegalEntity_IdAndTransactionCodeIn(
+                testLegalEntity.getId(), List.of("BALCC2")).get(0));
+        dto.setCurrency("GBP");
+
+        transactionService.updateTransaction(dto.getId(), dto);
+
+        List<AccountBalanceDTO> balances = accountBalanceService.getBalances(testLegalEntity.getId(),
+                testAccount.getId());
+        assertEquals(List.of("GBP", "USD"), balances.stream().map(AccountBalanceDTO::getCurrency).toList());
+        assertEquals(0, new BigDecimal("12.00").compareTo(balances.get(0).getDebitTotal()));
+        assertEquals(0, new BigDecimal("30.00").compareTo(balances.get(1).getDebitTotal()));
+        List<AccountBalanceDTO> parentBalances = accountBalanceService.getBalances(testLegalEntity.getId(),
+                testParentAccount.getId());
+        assertEquals(0, new BigDecimal("-12.00").compareTo(parentBalances.get(0).getBalance()));
+        assertEquals(0, new BigDecimal("-30.00").compareTo(parentBalances.get(1).getBalance()));
+    }
+
+    @Test
+    void backfill_ShouldSeedBalancesFromLinesWrittenBeforeTheTable() {
+        transactionPostingService.postTransactions(testLegalEntity.getId(), List.of(
+                transaction("BALBF1", "USD", "60.00"),
+                transaction("BALBF2", "USD", "15.00"),
+                transaction("BALBF3", "EUR", "9.25")));
+        List<AccountBalanceDTO> expected = accountBalanceService.getBalances(testLegalEntity.getId(),
+                testAccount.getId());
+        // As on the first start with the table: the lines exist, their balances do not
+        jdbcTemplate.update("DELETE FROM account_balances");
+
+        assertTrue(accountBalanceService.backfill() > 0);
+
+        List<AccountBalanceDTO> balances = accountBalanceService.getBalances(testLegalEntity.getId(),
+                testAccount.getId());
+        assertEquals(List.of("EUR", "USD"), balances.stream().map(AccountBalanceDTO::getCurrency).toList());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(0, expected.get(i).getDebitTotal().compareTo(balances.get(i).getDebitTotal()));
+            assertEquals(0, expected.get(i).getCreditTotal().compareTo(balances.get(i).getCreditTotal()));
+        }
+        assertEquals(0, new BigDecimal("-75.00").compareTo(
+                accountBalanceService.getBalances(testLegalEntity.getId(), testParentAccount.getId())
+                        .get(1).getBalance()));
+        // Seeded once: a second run must not add the lines again
+        assertEquals(0, accountBalanceService.backfill());
+    }
+
+    private BigDecimal balance() {
+        return accountBalanceService.getBalances(testLegalEntity.getId(), testAccount.getId()).get(0).getBalance();
+    }
+
+    private TransactionPostingDTO transaction(String code, String currency, String amount) {
+        return TransactionPostingDTO.builder()
+                .transactionCode(code)
+                .transactionType("TRANSFER")
+                .date(Instant.now())
+                .currency(currency)
+                .lines(List.of(
+                        TransactionPostingDTO.Line.builder()
+                                .accountCode(testAccount.getCode())
+                                .amount(new BigDecimal(amount))
+                                .isDebit(true)
+                                .build(),
+                        TransactionPostingDTO.Line.builder()
+                                .accountCode(testParentAccount.getCode())
+                                .amount(new BigDecimal(amount))
+                                .isDebit(false)
+                                .build()))
+                .build();
+    }
+}
@@ -1,6 +1,7 @@
 package com.testApplication.service;
 
 import com.testApplication.dto.AccountDTO;
+import com.testApplication.dto.CursorPageDTO;
 import com.testApplication.model.*;
 import com.testApplication.repository.*;
 import com.testApplication.mapper.AccountMapper;
@@ -17,7 +18,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.Arrays;
-import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -159,11 +159,13 @@ class AccountServiceTest extends SetupTestData {    @Autowired
         );
         
         // Act
-        List<AccountDTO> result = accountService.getAccountsByLegalEntity(testLegalEntity.getId());        // Assert
-        assertFalse(result.isEmpty());
-        assertEquals(2, result.size());
+        CursorPageDTO<AccountDTO> result =
+                accountService.getAccountsByLegalEntity(testLegalEntity.getId(), null, null);        // Assert
+        assertFalse(result.getItems().isEmpty());
+        assertEquals(2, result.getItems().size());
+        assertFalse(result.isHasMore());
         // One of the accounts should match our test account
-        assertTrue(result.stream().anyMatch(account -> "TEST001".equals(account.getCode())));
+        assertTrue(result.getItems().stream().anyMatch(account -> "TEST001".equals(account.getCode())));
         // No verification needed - using real security service
     }
 
@@ -182,6 +184,6 @@ class AccountServiceTest extends SetupTestData {    @Autowired
                 null,
                 testUserDetails.getAuthorities()
             )        );               // Act & Assert
-        assertThrows(AccessDeniedException.class, () -> accountService.getAccountsByLegalEntity(1L));
+        assertThrows(AccessDeniedException.class, () -> accountService.getAccountsByLegalEntity(1L, null, null));
     }
 }
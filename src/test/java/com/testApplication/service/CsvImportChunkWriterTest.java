@@ -0,0 +1,60 @@
+package com.testApplication.service;
+
+import com.testApplication.model.Transaction;
+import com.testApplication.repository.TransactionRepository;
+import com.testApplication.util.SetupTestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: every chunk commits in its own transaction and must see the test data
+@SpringBootTest
+class CsvImportChunkWriterTest extends SetupTestData {
+
+    @Autowired
+    private CsvImportChunkWriter chunkWriter;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void writeChunk_TwoImportsOfTheSameCodes_ShouldShareTransactionsAndAccounts() {
+        Long legalEntityId = testLegalEntity.getId();
+        List<CsvImportRow> rows = List.of(
+            new CsvImportRow(2, "UPSERT001", "UPSERT_ACC001", new BigDecimal("100"), "Debit", true, null),
+            new CsvImportRow(3, "UPSERT001", "TEST001", new BigDecimal("100"), "Credit", false, null));
+
+        // Separate contexts, like two imports that know nothing about each other
+        CsvImportChunkResult first = chunkWriter.writeChunk(newContext(legalEntityId), rows);
+        CsvImportChunkResult second = chunkWriter.writeChunk(newContext(legalEntityId), rows);
+
+        assertEquals(1, first.getTransactionsCreated());
+        assertEquals(1, first.getAccountsCreated());
+        assertEquals(0, second.getTransactionsCreated());
+        assertEquals(0, second.getAccountsCreated());
+        assertEquals(first.getResolvedTransactionIds(), second.getResolvedTransactionIds());
+        assertEquals(first.getResolvedAccountIds(), second.getResolvedAccountIds());
+        assertEquals(1, transactionRepository
+            .findByLegalEntity_IdAndTransactionCodeIn(legalEntityId, List.of("UPSERT001")).size());
+    }
+
+    @Test
+    void transactionCode_ShouldBeUniquePerLegalEntity() {
+        transactionRepository.save(CsvImportService.newImportedTransaction("UNIQUE001", testLegalEntity, null));
+        Transaction duplicate = CsvImportService.newImportedTransaction("UNIQUE001", testLegalEntity, null);
+
+        assertThrows(DataIntegrityViolationException.class, () -> transactionRepository.save(duplicate));
+    }
+
+    private CsvImportContext newContext(Long legalEntityId) {
+        CsvImportContext context = new CsvImportContext(legalEntityId);
+        context.setDefaultAccountType(testAccountType);
+        return context;
+    }
+}
@@ -0,0 +1,88 @@
+package com.testApplication.service;
+
+import com.testApplication.dto.AccountBalanceDTO;
+import com.testApplication.util.SetupTestData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Loads chunks through COPY and the set-based inserts. Needs a scratch PostgreSQL database, whose
+ * schema is recreated:
+ * {@code mvn test -Dtest=CsvImportCopyWriterPostgresTest -Dpostgres.url=jdbc:postgresql://localhost:5432/copy
+ * -Dpostgres.username=test -Dpostgres.password=test}
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "postgres.url", matches = ".+")
+class CsvImportCopyWriterPostgresTest extends SetupTestData {
+
+    private static final String LINES_SQL =
+            "SELECT l.description FROM transaction_lines l JOIN transactions t ON t.id = l.transaction_id "
+                    + "WHERE t.legal_entity_id = ? ORDER BY l.id";
+
+    @Autowired
+    private CsvImportCopyWriter copyWriter;
+
+    @Autowired
+    private AccountBalanceService accountBalanceService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getProperty("postgres.url"));
+        registry.add("spring.datasource.username", () -> System.getProperty("postgres.username", "test"));
+        registry.add("spring.datasource.password", () -> System.getProperty("postgres.password", "test"));
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @Test
+    void writeChunk_ShouldLoadRowsAndCreateMissingCodes() {
+        List<CsvImportRow> rows = List.of(
+                new CsvImportRow(2, "COPY001", "COPY_ACC001", new BigDecimal("100.50"), "Say \"hi\", then\nleave",
+                        true, null),
+                new CsvImportRow(3, "COPY001", "TEST001", new BigDecimal("100.50"), "", false, null));
+
+        CsvImportChunkResult result = copyWriter.writeChunk(newContext(), rows);
+
+        assertEquals(2, result.getRowsWritten());
+        assertEquals(1, result.getTransactionsCreated());
+        assertEquals(1, result.getAccountsCreated());
+        assertEquals(List.of("Say \"hi\", then\nleave", ""),
+                jdbcTemplate.queryForList(LINES_SQL, String.class, testLegalEntity.getId()));
+        List<AccountBalanceDTO> balances = accountBalanceService.getBalances(testLegalEntity.getId(),
+                testAccount.getId());
+        assertEquals(0, new BigDecimal("-100.50").compareTo(balances.get(0).getBalance()));
+    }
+
+    @Test
+    void writeChunk_SameCodesTwice_ShouldReuseTransactionsAndAccounts() {
+        List<CsvImportRow> rows = List.of(
+                new CsvImportRow(2, "COPY002", "TEST001", new BigDecimal("5"), "Debit", true, null),
+                new CsvImportRow(3, "COPY002", "PARENT001", new BigDecimal("5"), "Credit", false, null));
+
+        copyWriter.writeChunk(newContext(), rows);
+        CsvImportChunkResult second = copyWriter.writeChunk(newContext(), rows);
+
+        assertEquals(2, second.getRowsWritten());
+        assertEquals(0, second.getTransactionsCreated());
+        assertEquals(0, second.getAccountsCreated());
+    }
+
+    private CsvImportContext newContext() {
+        CsvImportContext context = new CsvImportContext(testLegalEntity.getId());
+        context.setDefaultAccountType(testAccountType);
+        return context;
+    }
+}
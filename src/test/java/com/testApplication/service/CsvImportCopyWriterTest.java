@@ -0,0 +1,51 @@
+package com.testApplication.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvImportCopyWriterTest {
+
+    @Test
+    void copyData_ShouldQuoteTextFieldsForCopyCsv() throws IOException {
+        List<CsvImportRow> rows = List.of(
+                new CsvImportRow(2, "T1", "ACC1", new BigDecimal("100.50"), "Plain", true, null),
+                new CsvImportRow(3, "T\"2\"", "ACC,2", new BigDecimal("1E+2"), "Say \"hi\", then\nleave", false, null),
+                new CsvImportRow(5, "T3", "ACC3", new BigDecimal("0.0001"), "", true, null));
+
+        assertEquals("2,\"T1\",\"ACC1\",100.50,\"Plain\",true\n"
+                        + "3,\"T\"\"2\"\"\",\"ACC,2\",100,\"Say \"\"hi\"\", then\nleave\",false\n"
+                        + "5,\"T3\",\"ACC3\",0.0001,\"\",true\n",
+                readAll(new CsvImportCopyWriter.CopyDataReader(rows), 1024));
+    }
+
+    @Test
+    void copyData_SmallReads_ShouldContinueRowsAcrossReads() throws IOException {
+        List<CsvImportRow> rows = List.of(
+                new CsvImportRow(2, "T1", "ACC1", new BigDecimal("1"), "First", true, null),
+                new CsvImportRow(3, "T1", "ACC2", new BigDecimal("1"), "Second", false, null));
+
+        assertEquals(readAll(new CsvImportCopyWriter.CopyDataReader(rows), 1024),
+                readAll(new CsvImportCopyWriter.CopyDataReader(rows), 3));
+    }
+
+    @Test
+    void copyData_NoRows_ShouldBeEmpty() throws IOException {
+        assertEquals(-1, new CsvImportCopyWriter.CopyDataReader(List.of()).read(new char[16], 0, 16));
+    }
+
+    private static String readAll(Reader reader, int bufferSize) throws IOException {
+        StringBuilder out = new StringBuilder();
+        char[] buffer = new char[bufferSize];
+        int read;
+        while ((read = reader.read(buffer, 0, buffer.length)) != -1) {
+            out.append(buffer, 0, read);
+        }
+        return out.toString();
+    }
+}
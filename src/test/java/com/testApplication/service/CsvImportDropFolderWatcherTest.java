@@ -0,0 +1,110 @@
+package com.testApplication.service;
+
+import com.testApplication.dto.CsvImportResultDTO;
+import com.testApplication.repository.LegalEntityRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CsvImportDropFolderWatcherTest {
+
+    @TempDir
+    Path root;
+
+    private final CsvImportService csvImportService = mock(CsvImportService.class);
+    private final LegalEntityRepository legalEntityRepository = mock(LegalEntityRepository.class);
+
+    @Test
+    void renamedFile_ShouldBeImportedAndMovedToProcessed() throws Exception {
+        when(legalEntityRepository.existsById(1L)).thenReturn(true);
+        when(csvImportService.importTransactionLinesFromFile(any(Path.class), eq(1L), any(CsvImportProgress.class)))
+                .thenReturn(CsvImportResultDTO.builder().legalEntityId(1L).rowsImported(2).build());
+        Path entityDir = Files.createDirectories(root.resolve("1"));
+        CsvImportDropFolderWatcher watcher = newWatcher(false);
+        watcher.start();
+        try {
+            // Written under a temporary name, then renamed once complete
+            Path partial = Files.writeString(entityDir.resolve("lines.csv.part"), "transaction_code\n");
+            Files.move(partial, entityDir.resolve("lines.csv"));
+
+            verify(csvImportService, timeout(20000))
+                    .importTransactionLinesFromFile(eq(entityDir.resolve("lines.csv")), eq(1L), any(CsvImportProgress.class));
+            verify(csvImportService, never())
+                    .importTransactionLinesFromFile(eq(partial), any(), any(CsvImportProgress.class));
+            assertEquals(1, awaitFiles(entityDir.resolve(CsvImportDropFolderWatcher.PROCESSED_DIR), 1).size());
+            assertFalse(Files.exists(entityDir.resolve("lines.csv")));
+        } finally {
+            watcher.stop();
+        }
+    }
+
+    @Test
+    void fileWithoutMarker_ShouldWaitForItsMarker() throws Exception {
+        when(legalEntityRepository.existsById(1L)).thenReturn(true);
+        when(csvImportService.importTransactionLinesFromFile(any(Path.class), eq(1L), any(CsvImportProgress.class)))
+                .thenReturn(CsvImportResultDTO.builder().legalEntityId(1L).rowsImported(2).build());
+        Path entityDir = Files.createDirectories(root.resolve("1"));
+        CsvImportDropFolderWatcher watcher = newWatcher(true);
+        watcher.start();
+        try {
+            Path file = Files.writeString(entityDir.resolve("lines.csv"), "transaction_code\n");
+            Thread.sleep(500);
+            verify(csvImportService, never())
+                    .importTransactionLinesFromFile(any(Path.class), any(), any(CsvImportProgress.class));
+
+            Files.createFile(entityDir.resolve("lines.csv" + CsvImportDropFolderWatcher.MARKER_SUFFIX));
+
+            verify(csvImportService, timeout(20000))
+                    .importTransactionLinesFromFile(eq(file), eq(1L), any(CsvImportProgress.class));
+            assertEquals(1, awaitFiles(entityDir.resolve(CsvImportDropFolderWatcher.PROCESSED_DIR), 1).size());
+        } finally {
+            watcher.stop();
+        }
+    }
+
+    @Test
+    void process_UnknownLegalEntity_ShouldMoveFileToFailedWithReason() throws Exception {
+        when(legalEntityRepository.findByName("Unknown Corp")).thenReturn(Optional.empty());
+        Path entityDir = Files.createDirectories(root.resolve("Unknown Corp"));
+        Path file = Files.writeString(entityDir.resolve("lines.csv"), "transaction_code\n");
+
+        newWatcher(true).process(entityDir, file);
+
+        List<Path> failed = awaitFiles(entityDir.resolve(CsvImportDropFolderWatcher.FAILED_DIR), 2);
+        Path error = failed.stream().filter(path -> path.toString().endsWith(".error")).findFirst().orElseThrow();
+        assertEquals("Legal Entity not found: Unknown Corp", Files.readString(error));
+        assertFalse(Files.exists(file));
+        verifyNoInteractions(csvImportService);
+    }
+
+    private CsvImportDropFolderWatcher newWatcher(boolean requireMarker) {
+        return new CsvImportDropFolderWatcher(csvImportService, new CsvImportScheduler(4, 10),
+                legalEntityRepository, root.toString(), requireMarker, 100);
+    }
+
+    private static List<Path> awaitFiles(Path dir, int count) throws Exception {
+        for (int attempt = 0; attempt < 200; attempt++) {
+            if (Files.isDirectory(dir)) {
+                try (Stream<Path> files = Files.list(dir)) {
+                    List<Path> found = files.toList();
+                    if (found.size() >= count) {
+                        return found;
+                    }
+                }
+            }
+            Thread.sleep(50);
+        }
+        fail("Expected " + count + " files in " + dir);
+        return List.of();
+    }
+}
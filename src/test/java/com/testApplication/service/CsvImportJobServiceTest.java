@@ -0,0 +1,115 @@
+package com.testApplication.service;
+
+import com.testApplication.repository.LegalEntityRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.function.LongPredicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CsvImportJobServiceTest {
+
+    private final LegalEntityRepository legalEntityRepository = mock(LegalEntityRepository.class);
+    private final SecurityService securityService = mock(SecurityService.class);
+    private CsvImportJobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        jobService = new CsvImportJobService(mock(CsvImportService.class), mock(CsvImportRegistry.class),
+                new CsvImportScheduler(1, 60), legalEntityRepository, securityService, 1, 1, 60);
+        UserDetails user = User.withUsername("user").password("password").roles("USER").build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        when(legalEntityRepository.existsById(1L)).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobService.shutdown();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getStatus_WithAccessToLegalEntity_ShouldReturnJob() {
+        when(securityService.hasAccessToLegalEntity(any(UserDetails.class), eq(1L))).thenReturn(true);
+        String jobId = jobService.submit(file(), 1L).getJobId();
+
+        assertEquals(1L, jobService.getStatus(jobId).orElseThrow().getLegalEntityId());
+    }
+
+    @Test
+    void getStatus_WithoutAccessToLegalEntity_ShouldBeDenied() {
+        String jobId = jobService.submit(file(), 1L).getJobId();
+
+        assertThrows(AccessDeniedException.class, () -> jobService.getStatus(jobId));
+        assertTrue(jobService.getStatus("unknown").isEmpty());
+    }
+
+    @Test
+    void getErrorReport_WithoutAccessToLegalEntity_ShouldBeDenied() {
+        String jobId = jobService.submit(file(), 1L, true).getJobId();
+
+        assertThrows(AccessDeniedException.class, () -> jobService.getErrorReport(jobId));
+    }
+
+    @Test
+    void evictExpiredJobs_ShouldForgetJobsFinishedBeforeTheRetention() throws Exception {
+        CsvImportJobService service = new CsvImportJobService(mock(CsvImportService.class),
+                mock(CsvImportRegistry.class), new CsvImportScheduler(1, 60), legalEntityRepository, securityService,
+                1, 1, 0);
+        when(securityService.hasAccessToLegalEntity(any(UserDetails.class), eq(1L))).thenReturn(true);
+        try {
+            String jobId = service.submit(file(), 1L).getJobId();
+            long deadline = System.currentTimeMillis() + 5000;
+            while (service.getStatus(jobId).orElseThrow().getFinishedAt() == null
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertNotNull(service.getStatus(jobId).orElseThrow().getFinishedAt());
+            Thread.sleep(10);
+
+            service.evictExpiredJobs();
+
+            assertTrue(service.getStatus(jobId).isEmpty());
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void getSchedulerStatus_ShouldListOnlyAccessibleLegalEntities() {
+        CsvImportScheduler scheduler = mock(CsvImportScheduler.class);
+        CsvImportJobService service = new CsvImportJobService(mock(CsvImportService.class),
+                mock(CsvImportRegistry.class), scheduler, legalEntityRepository, securityService, 1, 1, 60);
+        when(securityService.hasAccessToLegalEntity(any(UserDetails.class), eq(1L))).thenReturn(true);
+        try {
+            service.getSchedulerStatus();
+
+            ArgumentCaptor<LongPredicate> listed = ArgumentCaptor.forClass(LongPredicate.class);
+            verify(scheduler).getStatus(listed.capture());
+            assertTrue(listed.getValue().test(1L));
+            assertFalse(listed.getValue().test(2L));
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private static MockMultipartFile file() {
+        return new MockMultipartFile("file", "lines.csv", "text/csv",
+                "transaction_code,account_code,amount,description,is_debit\n".getBytes());
+    }
+}
@@ -0,0 +1,261 @@
+package com.testApplication.service;
+
+import com.testApplication.dto.CsvImportSchedulerStatusDTO;
+import com.testApplication.exception.CsvImportException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvImportSchedulerTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void run_SameLegalEntity_ShouldRunOneImportAtATime() throws Exception {
+        CsvImportScheduler scheduler = new CsvImportScheduler(4, 10);
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        Future<Integer> first = executor.submit(() -> scheduler.run(1L, () -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            firstStarted.countDown();
+            await(releaseFirst);
+            inFlight.decrementAndGet();
+            return 1;
+        }));
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        Future<Integer> second = executor.submit(() -> scheduler.run(1L, () -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            inFlight.decrementAndGet();
+            return 2;
+        }));
+
+        waitForQueued(scheduler, Map.of(1L, 1));
+        CsvImportSchedulerStatusDTO status = scheduler.getStatus();
+        assertEquals(1, status.getRunningImports());
+        assertEquals(1, status.getQueuedImports());
+
+        releaseFirst.countDown();
+        assertEquals(1, first.get(5, TimeUnit.SECONDS));
+        assertEquals(2, second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, maxInFlight.get());
+        assertEquals(2, scheduler.getStatus().getStartedImports());
+        assertEquals(0, scheduler.getStatus().getQueuedImports());
+    }
+
+    @Test
+    void run_OtherLegalEntities_ShouldShareTheGlobalLimit() throws Exception {
+        CsvImportScheduler scheduler = new CsvImportScheduler(2, 10);
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Long> first = executor.submit(() -> scheduler.run(1L, () -> {
+            started.countDown();
+            await(release);
+            return 1L;
+        }));
+        Future<Long> second = executor.submit(() -> scheduler.run(2L, () -> {
+            started.countDown();
+            await(release);
+            return 2L;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS), "different legal entities should run concurrently");
+
+        Future<Long> third = executor.submit(() -> scheduler.run(3L, () -> 3L));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (scheduler.getStatus().getQueuedImports() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, scheduler.getStatus().getRunningImports());
+        assertEquals(1, scheduler.getStatus().getQueuedImports());
+        assertFalse(third.isDone());
+
+        release.countDown();
+        assertEquals(1L, first.get(5, TimeUnit.SECONDS));
+        assertEquals(2L, second.get(5, TimeUnit.SECONDS));
+        assertEquals(3L, third.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void run_NoSlotWithinMaxWait_ShouldRejectImport() throws Exception {
+        CsvImportScheduler scheduler = new CsvImportScheduler(1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Long> first = executor.submit(() -> scheduler.run(1L, () -> {
+            started.countDown();
+            await(release);
+            return 1L;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(CsvImportException.ImportQueueFullException.class, () -> scheduler.run(2L, () -> 2L));
+
+        release.countDown();
+        assertEquals(1L, first.get(5, TimeUnit.SECONDS));
+        assertEquals(2L, scheduler.run(2L, () -> 2L));
+    }
+
+    @Test
+    void runExclusive_WhileAnImportOfTheLegalEntityRuns_ShouldFailWithoutWaiting() throws Exception {
+        CsvImportScheduler scheduler = new CsvImportScheduler(4, 10);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Long> running = executor.submit(() -> scheduler.run(1L, () -> {
+            started.countDown();
+            await(release);
+            return 1L;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(CsvImportException.LegalEntityBusyException.class, () -> scheduler.runExclusive(1L, () -> 1L));
+        assertEquals(2L, scheduler.runExclusive(2L, () -> 2L));
+
+        release.countDown();
+        assertEquals(1L, running.get(5, TimeUnit.SECONDS));
+        assertEquals(1L, scheduler.runExclusive(1L, () -> 1L));
+    }
+
+    @Test
+    void runExclusive_ShouldHoldBackImportsOfTheLegalEntityUntilItReturns() throws Exception {
+        CsvImportScheduler scheduler = new CsvImportScheduler(4, 10);
+        AtomicInteger imported = new AtomicInteger();
+
+        scheduler.runExclusive(1L, () -> {
+            scheduler.submit(1L, executor, imported::incrementAndGet);
+            waitForQueuedUnchecked(scheduler, Map.of(1L, 1));
+            assertEquals(0, imported.get());
+            return null;
+        });
+
+        waitForQueued(scheduler, Map.of());
+        long deadline = System.currentTimeMillis() + 5000;
+        while (imported.get() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, imported.get());
+    }
+
+    @Test
+    void submit_QueuedBehindItsLegalEntity_ShouldNotHoldAWorker() throws Exception {
+        CsvImportScheduler scheduler = new CsvImportScheduler(4, 10);
+        ExecutorService workers = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch firstStarted = new CountDownLatch(1);
+            CountDownLatch releaseFirst = new CountDownLatch(1);
+            Future<Long> first = scheduler.submit(1L, workers, () -> {
+                firstStarted.countDown();
+                await(releaseFirst);
+                return 1L;
+            });
+            assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+            Future<Long> second = scheduler.submit(1L, workers, () -> 2L);
+            CountDownLatch otherStarted = new CountDownLatch(1);
+            CountDownLatch releaseOther = new CountDownLatch(1);
+            Future<Long> other = scheduler.submit(2L, workers, () -> {
+                otherStarted.countDown();
+                await(releaseOther);
+                return 3L;
+            });
+
+            // Two workers: one runs the first import, the other is free for entity 2
+            assertTrue(otherStarted.await(5, TimeUnit.SECONDS));
+            assertEquals(Map.of(1L, 1), scheduler.getStatus().getQueuedPerLegalEntity());
+            assertFalse(second.isDone());
+
+            releaseOther.countDown();
+            releaseFirst.countDown();
+            assertEquals(1L, first.get(5, TimeUnit.SECONDS));
+            assertEquals(2L, second.get(5, TimeUnit.SECONDS));
+            assertEquals(3L, other.get(5, TimeUnit.SECONDS));
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    @Test
+    void submit_WaitingLongerThanMaxWait_ShouldStillRun() throws Exception {
+        CsvImportScheduler scheduler = new CsvImportScheduler(1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Long> first = scheduler.submit(1L, executor, () -> {
+            started.countDown();
+            await(release);
+            return 1L;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<Long> second = scheduler.submit(1L, executor, () -> 2L);
+
+        Thread.sleep(1500);
+        assertFalse(second.isDone());
+        release.countDown();
+
+        assertEquals(1L, first.get(5, TimeUnit.SECONDS));
+        assertEquals(2L, second.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void getStatus_ShouldListOnlyTheAcceptedLegalEntities() throws Exception {
+        CsvImportScheduler scheduler = new CsvImportScheduler(1, 10);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Long> first = scheduler.submit(1L, executor, () -> {
+            started.countDown();
+            await(release);
+            return 1L;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<Long> second = scheduler.submit(2L, executor, () -> 2L);
+        Future<Long> third = scheduler.submit(3L, executor, () -> 3L);
+
+        CsvImportSchedulerStatusDTO status = scheduler.getStatus(legalEntityId -> legalEntityId == 2L);
+
+        assertEquals(Map.of(2L, 1), status.getQueuedPerLegalEntity());
+        assertEquals(2, status.getQueuedImports());
+        release.countDown();
+        assertEquals(1L, first.get(5, TimeUnit.SECONDS));
+        assertEquals(2L, second.get(5, TimeUnit.SECONDS));
+        assertEquals(3L, third.get(5, TimeUnit.SECONDS));
+    }
+
+    private static void waitForQueued(CsvImportScheduler scheduler, Map<Long, Integer> expected)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!expected.equals(scheduler.getStatus().getQueuedPerLegalEntity())
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, scheduler.getStatus().getQueuedPerLegalEntity());
+    }
+
+    private static void waitForQueuedUnchecked(CsvImportScheduler scheduler, Map<Long, Integer> expected) {
+        try {
+            waitForQueued(scheduler, expected);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -2,30 +2,53 @@ package com.testApplication.service;
 
 import com.testApplication.model.*;
 import com.testApplication.repository.*;
+import com.testApplication.dto.CsvImportResultDTO;
+import com.testApplication.dto.CsvImportSummaryDTO;
+import com.testApplication.dto.CsvImportValidationReportDTO;
+import com.testApplication.dto.ImportRecordDTO;
 import com.testApplication.dto.TransactionLineDTO;
+import com.testApplication.exception.CsvImportException;
 import com.testApplication.mapper.TransactionLineMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.Optional;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
-@SpringBootTest
+@SpringBootTest(properties = "app.import.chunk-size=2")
 class CsvImportServiceTest {
 
     @MockitoBean
@@ -46,6 +69,15 @@ class CsvImportServiceTest {
     @MockitoBean
     private AccountTypeRepository accountTypeRepository;
 
+    @MockitoBean
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private CsvImportRegistry importRegistry;
+
+    @MockitoBean
+    private AccountBalanceService accountBalanceService;
+
     @Autowired
     private CsvImportService csvImportService;
 
@@ -148,6 +180,32 @@ class CsvImportServiceTest {
         verify(transactionLineMapper).toDTOList(any());
     }
 
+    @Test
+    void importTransactionLinesWithSummary_ShouldNotMapLines() {
+        // Arrange
+        when(legalEntityRepository.findById(1L)).thenReturn(Optional.of(testLegalEntity));
+        when(accountRepository.findByCodeAndLegalEntity_Id(anyString(), anyLong()))
+            .thenReturn(Optional.of(testAccount));
+        when(transactionRepository.findByTransactionCodeAndLegalEntity_Id(anyString(), anyLong()))
+            .thenReturn(Optional.empty());
+        when(transactionRepository.save(any())).thenReturn(testTransaction);
+        when(transactionLineRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        CsvImportSummaryDTO summary = csvImportService.importTransactionLinesWithSummary(testFile, 1L);
+
+        // Assert
+        assertEquals(4, summary.getRowsImported());
+        assertEquals(2, summary.getTransactionsCreated());
+        assertEquals(0, summary.getAccountsCreated());
+        assertEquals(Map.of("TRANS004", 2L, "TRANS005", 2L), summary.getLinesPerTransaction());
+        assertEquals(0, new BigDecimal("1500").compareTo(summary.getTotalDebits()));
+        assertEquals(0, new BigDecimal("1500").compareTo(summary.getTotalCredits()));
+        assertTrue(summary.getStageMillis().keySet().containsAll(Set.of("parse", "resolve", "persist")));
+        assertNull(summary.getLines());
+        verify(transactionLineMapper, never()).toDTOList(any());
+    }
+
     @Test
     void importTransactionLinesFromCsv_InvalidFile_ShouldThrowException() {
         // Arrange
@@ -261,4 +319,426 @@ class CsvImportServiceTest {
         verify(transactionRepository, never()).save(any());
         verify(transactionLineRepository).saveAll(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void importTransactionLinesStreaming_ShouldCommitOneBatchPerChunk() {
+        // Arrange
+        when(legalEntityRepository.existsById(1L)).thenReturn(true);
+        when(legalEntityRepository.getReferenceById(1L)).thenReturn(testLegalEntity);
+        when(accountRepository.findByLegalEntity_IdAndCodeIn(eq(1L), anyCollection()))
+            .thenAnswer(invocation -> existingAccounts(invocation.getArgument(1)));
+        when(transactionRepository.findByLegalEntity_IdAndTransactionCodeIn(eq(1L), anyCollection()))
+            .thenAnswer(invocation -> existingTransactions(invocation.getArgument(1)));
+
+        // Act
+        CsvImportResultDTO result = csvImportService.importTransactionLinesStreaming(testFile, 1L);
+
+        // Assert
+        assertEquals(4, result.getRowsImported());
+        assertEquals(2, result.getChunksCommitted());
+        assertEquals(0, result.getAccountsCreated());
+        verify(jdbcTemplate, times(2)).batchUpdate(startsWith("INSERT INTO transaction_lines"), anyList(), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+        verify(transactionLineRepository, never()).saveAll(any());
+
+        // Codes resolved by the first chunk are not looked up again by the second one
+        verify(accountRepository, never()).findByCodeAndLegalEntity_Id(anyString(), anyLong());
+        verify(accountRepository).findByLegalEntity_IdAndCodeIn(1L, Set.of("ACC001", "ACC002"));
+        verify(accountRepository).findByLegalEntity_IdAndCodeIn(1L, Set.of("ACC003"));
+
+        // The completed import is registered so that a re-upload is answered from the record
+        verify(importRegistry).record(eq(1L), anyString(), isNull(), eq(4L), eq(result));
+    }
+
+    @Test
+    void importTransactionLinesStreaming_MissingAccounts_ShouldBeCreatedInOneBatch() {
+        // Arrange
+        String csvContent =
+            "transaction_code,account_code,amount,description,is_debit\n" +
+            "TRANS004,NEW_ACC001,1000,Initial deposit,false\n" +
+            "TRANS004,NEW_ACC002,1000,Initial deposit transfer,true";
+        MockMultipartFile file = new MockMultipartFile("file", "new_accounts.csv", "text/csv", csvContent.getBytes());
+
+        when(legalEntityRepository.existsById(1L)).thenReturn(true);
+        when(legalEntityRepository.getReferenceById(1L)).thenReturn(testLegalEntity);
+        when(accountTypeRepository.findByCode("CURRENT_ASSET")).thenReturn(Optional.of(testAccountType));
+        when(accountRepository.findByLegalEntity_IdAndCodeIn(eq(1L), anyCollection()))
+            .thenReturn(List.of())
+            .thenAnswer(invocation -> existingAccounts(invocation.getArgument(1)));
+        when(transactionRepository.findByLegalEntity_IdAndTransactionCodeIn(eq(1L), anyCollection()))
+            .thenAnswer(invocation -> existingTransactions(invocation.getArgument(1)));
+        when(jdbcTemplate.batchUpdate(startsWith("MERGE INTO accounts"), anyList(), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class))).thenReturn(new int[][]{{1, 1}});
+
+        // Act
+        CsvImportResultDTO result = csvImportService.importTransactionLinesStreaming(file, 1L);
+
+        // Assert
+        assertEquals(2, result.getAccountsCreated());
+        verify(accountTypeRepository, times(1)).findByCode("CURRENT_ASSET");
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith("MERGE INTO accounts"), anyList(), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+        verify(accountRepository, never()).save(any());
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void importTransactionLinesStreaming_QuotedFields_ShouldBeUnescaped() {
+        // Arrange
+        String csvContent =
+            "transaction_code,account_code,amount,description,is_debit\n" +
+            "TRANS004,ACC001,1000,\"Deposit, \"\"main\"\" branch\",TRUE\r\n" +
+            "TRANS004,ACC002, 1000.50 ,\"Two\nlines\",false\r\n";
+        MockMultipartFile file = new MockMultipartFile("file", "quoted.csv", "text/csv", csvContent.getBytes());
+
+        when(legalEntityRepository.existsById(1L)).thenReturn(true);
+        when(accountRepository.findByLegalEntity_IdAndCodeIn(eq(1L), anyCollection()))
+            .thenAnswer(invocation -> existingAccounts(invocation.getArgument(1)));
+        when(transactionRepository.findByLegalEntity_IdAndTransactionCodeIn(eq(1L), anyCollection()))
+            .thenAnswer(invocation -> existingTransactions(invocation.getArgument(1)));
+
+        // Act
+        CsvImportResultDTO result = csvImportService.importTransactionLinesStreaming(file, 1L);
+
+        // Assert
+        assertEquals(2, result.getRowsImported());
+        ArgumentCaptor<List> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO transaction_lines"), rows.capture(), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+        List<CsvImportRow> written = rows.getValue();
+        assertEquals("Deposit, \"main\" branch", written.get(0).getDescription());
+        assertTrue(written.get(0).isDebit());
+        assertEquals(new BigDecimal("1000.50"), written.get(1).getAmount());
+        assertEquals("Two\nlines", written.get(1).getDescription());
+        assertFalse(written.get(1).isDebit());
+    }
+
+    @Test
+    void importTransactionLinesStreaming_InvalidAmount_ShouldReportLineAfterMultiLineField() {
+        String csvContent =
+            "transaction_code,account_code,amount,description,is_debit\n" +
+            "TRANS004,ACC001,1000,\"Two\nlines\",true\n" +
+            "TRANS004,ACC002,abc,Transfer,false\n";
+        MockMultipartFile file = new MockMultipartFile("file", "invalid.csv", "text/csv", csvContent.getBytes());
+        when(legalEntityRepository.existsById(1L)).thenReturn(true);
+
+        CsvImportException exception = assertThrows(CsvImportException.InvalidCsvFormatException.class, () ->
+            csvImportService.importTransactionLinesStreaming(file, 1L)
+        );
+        assertEquals("Invalid amount on CSV line 4: abc", exception.getMessage());
+    }
+
+    @Test
+    void importTransactionLinesFromFile_ShouldImportMappedFile() throws IOException {
+        // Arrange
+        Path file = Files.createTempFile("csv-import-test-", ".csv");
+        Files.writeString(file,
+            "transaction_code,account_code,amount,description,is_debit\r\n" +
+            "TRANS004,ACC001,1000,\"Multi\nline\",true\r\n" +
+            "TRANS004,ACC002,1000,Transfer,false\r\n" +
+            "TRANS005,ACC003,250.75,Fee,true");
+        when(legalEntityRepository.existsById(1L)).thenReturn(true);
+        when(accountRepository.findByLegalEntity_IdAndCodeIn(eq(1L), anyCollection()))
+            .thenAnswer(invocation -> existingAccounts(invocation.getArgument(1)));
+        when(transactionRepository.findByLegalEntity_IdAndTransactionCodeIn(eq(1L), anyCollection()))
+            .thenAnswer(invocation -> existingTransactions(invocation.getArgument(1)));
+
+        // Act
+        CsvImportProgress progress = new CsvImportProgress();
+        CsvImportResultDTO result;
+        try {
+            result = csvImportService.importTransactionLinesFromFile(file, 1L, progress);
+        } finally {
+            Files.delete(file);
+        }
+
+        // Assert
+        assertEquals(3, result.getRowsImported());
+        assertEquals(2, result.getChunksCommitted());
+        assertEquals(3, progress.getRowsParsed());
+    }
+
+    @Test
+    void importPartition_InvalidLine_ShouldNameTheLineOfTheUpload() throws IOException {
+        Path partition = Files.createTempFile("csv-import-test-", ".csv");
+        Files.writeString(partition,
+            "transaction_code,account_code,amount,description,is_debit\n" +
+            "\"TRANS004\",\"ACC001\",1000,\"Deposit\",true\n" +
+            "\"TRANS004\",\"ACC002\",abc,\"Typo\",false\n");
+        when(legalEntityRepository.existsById(1L)).thenReturn(true);
+
+        CsvImportException exception;
+        try {
+            exception = assertThrows(CsvImportException.InvalidCsvFormatException.class, () ->
+                csvImportService.importPartition(partition, 1L, new CsvImportProgress(),
+                    line -> line == 2 ? 4 : 9));
+        } finally {
+            Files.delete(partition);
+        }
+
+        assertEquals("Invalid amount on CSV line 9: abc", exception.getMessage());
+    }
+
+    @Test
+    void importTransactionLinesFromFile_PartialAccept_ShouldReportRejectedLines() throws IOException {
+        // Arrange
+        Path file = Files.createTempFile("csv-import-test-", ".csv");
+        Files.writeString(file,
+            "transaction_code,account_code,amount,description,is_debit\n" +
+            "TRANS004,ACC001,1000,Deposit,true\n" +
+            "TRANS004,ACC002,abc,Typo,false\n" +
+            "TRANS004,ACC002,1000,Transfer,false\n" +
+            "TRANS005,ACC003,250.75\n" +
+            "TRANS005,ACC001,250.75,Fee,false");
+        when(legalEntityRepository.existsById(1L)).thenReturn(true);
+        when(accountRepository.findByLegalEntity_IdAndCodeIn(eq(1L), anyCollection()))
+            .thenAnswer(invocation -> existingAccounts(invocation.getArgument(1)));
+        when(transactionRepository.findByLegalEntity_IdAndTransactionCodeIn(eq(1L), anyCollection()))
+            .thenAnswer(invocation -> existingTransactions(invocation.getArgument(1)));
+
+        // Act
+        CsvImportProgress progress = new CsvImportProgress();
+        CsvImportErrorReport errorReport = CsvImportErrorReport.create();
+        CsvImportResultDTO result;
+        List<String> reportLines;
+        try {
+            result = csvImportService.importTransactionLinesFromFile(file, 1L, progress, null, errorReport);
+            errorReport.close();
+            reportLines = Files.readAllLines(errorReport.getFile());
+        } finally {
+            Files.delete(file);
+            errorReport.delete();
+        }
+
+        // Assert
+        assertEquals(3, result.getRowsImported());
+        assertEquals(2, result.getRowsRejected());
+        assertEquals(2, progress.getRowsRejected());
+        assertEquals(List.of(
+            "line_number,reason",
+            "3,\"Invalid amount on CSV line 3: abc\"",
+            "5,\"Invalid CSV line 5. Expected 5 columns but found 3\""), reportLines);
+    }
+
+    @Test
+    void importTransactionLinesStreaming_Retry_ShouldResumeAfterLastCommittedChunk() {
+        // Arrange
+        String csvContent =
+            "transaction_code,account_code,amount,description,is_debit\n" +
+            "TRANS010,ACC001,500,Resume first,true\n" +
+            "TRANS010,ACC002,500,Resume second,false\n" +
+            "TRANS011,ACC001,75,Resume third,true\n" +
+            "TRANS011,ACC003,75,Resume fourth,false\n";
+        MockMultipartFile file = new MockMultipartFile("file", "resume.csv", "text/csv", csvContent.getBytes());
+
+        when(legalEntityRepository.existsById(1L)).thenReturn(true);
+        when(accountRepository.findByLegalEntity_IdAndCodeIn(eq(1L), anyCollection()))
+            .thenAnswer(invocation -> existingAccounts(invocation.getArgument(1)));
+        when(transactionRepository.findByLegalEntity_IdAndTransactionCodeIn(eq(1L), anyCollection()))
+            .thenAnswer(invocation -> existingTransactions(invocation.getArgument(1)));
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO transaction_lines"), anyList(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+            .thenReturn(new int[0][])
+            .thenThrow(new DataAccessResourceFailureException("Connection lost"))
+            .thenReturn(new int[0][]);
+
+        // Act: the second chunk fails, the retry only writes what is missing
+        assertThrows(DataAccessResourceFailureException.class, () ->
+            csvImportService.importTransactionLinesStreaming(file, 1L)
+        );
+        CsvImportResultDTO result = csvImportService.importTransactionLinesStreaming(file, 1L);
+
+        // Assert
+        assertEquals(3, result.getResumedAfterLine());
+        assertEquals(2, result.getRowsSkipped());
+        assertEquals(2, result.getRowsImported());
+        assertEquals(1, result.getChunksCommitted());
+    }
+
+    @Test
+    void importTransactionLinesStreaming_GzipUpload_ShouldBeDecompressed() throws IOException {
+        // Arrange
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(testFile.getBytes());
+        }
+        MockMultipartFile file = new MockMultipartFile("file", "test_transactions.csv.gz", "application/gzip",
+            compressed.toByteArray());
+
+        when(legalEntityRepository.existsById(1L)).thenReturn(true);
+        when(accountRepository.findByLegalEntity_IdAndCodeIn(eq(1L), anyCollection()))
+            .thenAnswer(invocation -> existingAccounts(invocation.getArgument(1)));
+        when(transactionRepository.findByLegalEntity_IdAndTransactionCodeIn(eq(1L), anyCollection()))
+            .thenAnswer(invocation -> existingTransactions(invocation.getArgument(1)));
+
+        // Act
+        CsvImportResultDTO result = csvImportService.importTransactionLinesStreaming(file, 1L);
+
+        // Assert
+        assertEquals(4, result.getRowsImported());
+    }
+
+    @Test
+    void importTransactionLinesStreaming_ZstdUpload_ShouldBeRejected() {
+        byte[] zstdFrame = {0x28, (byte) 0xb5, 0x2f, (byte) 0xfd, 0x00, 0x00};
+        MockMultipartFile file = new MockMultipartFile("file", "data.csv.zst", "application/octet-stream", zstdFrame);
+        when(legalEntityRepository.existsById(1L)).thenReturn(true);
+
+        CsvImportException exception = assertThrows(CsvImportException.InvalidFileException.class, () ->
+            csvImportService.importTransactionLinesStreaming(file, 1L)
+        );
+        assertTrue(exception.getMessage().contains("zstd"));
+    }
+
+    @Test
+    void validateTransactionLines_ShouldReportUnbalancedTransactionsAndNewAccountsWithoutWriting() {
+        // Arrange
+        String csvContent =
+            "transaction_code,account_code,amount,description,is_debit\n" +
+            "TRANS004,ACC001,1000,Initial deposit,false\n" +
+            "TRANS004,NEW_ACC001,1000.00,Initial deposit transfer,true\n" +
+            "TRANS006,ACC001,300,Payment received,false\n" +
+            "TRANS006,NEW_ACC002,250,Payment distribution,true";
+        MockMultipartFile file = new MockMultipartFile("file", "dry_run.csv", "text/csv", csvContent.getBytes());
+
+        // The upload is read outside a transaction; only the lookups run in a short read-only one
+        when(legalEntityRepository.existsById(1L)).thenAnswer(invocation -> {
+            assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+            return true;
+        });
+        when(accountTypeRepository.findByCode("CURRENT_ASSET")).thenReturn(Optional.of(testAccountType));
+        when(transactionRepository.findByLegalEntity_IdAndTransactionCodeIn(eq(1L), anyCollection()))
+            .thenReturn(List.of(testTransaction));
+        when(accountRepository.findByLegalEntity_IdAndCodeIn(eq(1L), anyCollection()))
+            .thenAnswer(invocation -> {
+                assertTrue(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+                return existingAccounts(List.of("ACC001"));
+            });
+
+        // Act
+        CsvImportValidationReportDTO report = csvImportService.validateTransactionLines(file, 1L);
+
+        // Assert
+        assertFalse(report.isValid());
+        assertEquals(4, report.getRowsRead());
+        assertEquals(2, report.getTransactionCount());
+        assertEquals(1, report.getTransactionsToCreate());
+        assertEquals(List.of("NEW_ACC001", "NEW_ACC002"), report.getAccountsToCreate());
+        assertEquals(1, report.getUnbalancedTransactionCount());
+        CsvImportValidationReportDTO.UnbalancedTransaction unbalanced = report.getUnbalancedTransactions().get(0);
+        assertEquals("TRANS006", unbalanced.getTransactionCode());
+        assertEquals(0, new BigDecimal("-50").compareTo(unbalanced.getDifference()));
+
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(accountRepository, never()).save(any(Account.class));
+        verify(transactionLineRepository, never()).saveAll(any());
+        verifyNoInteractions(jdbcTemplate, importRegistry);
+    }
+
+    @Test
+    void importTransactionLinesFromCsv_DuplicateFile_ShouldNotImportAgain() {
+        ImportRecordDTO previousImport = ImportRecordDTO.builder()
+            .importId(7L)
+            .legalEntityId(1L)
+            .rowsImported(1)
+            .importedAt(Instant.now())
+            .duplicate(true)
+            .build();
+        doThrow(new CsvImportException.DuplicateImportException(previousImport))
+            .when(importRegistry).rejectDuplicate(eq(1L), anyString());
+
+        CsvImportException.DuplicateImportException exception =
+            assertThrows(CsvImportException.DuplicateImportException.class, () ->
+                csvImportService.importTransactionLinesFromCsv(testFile, 1L)
+            );
+
+        assertEquals(7L, exception.getPreviousImport().getImportId());
+        verify(transactionLineRepository, never()).saveAll(anyList());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(importRegistry, never()).record(anyLong(), anyString(), any(), anyLong(), any());
+    }
+
+    @Test
+    void importTransactionLinesNdjson_ShouldCommitOneBatchPerChunk() {
+        // Arrange
+        String ndjson =
+            "{\"transactionCode\":\"TRANS004\",\"accountCode\":\"ACC001\",\"amount\":1000,\"description\":\"Initial deposit\",\"isDebit\":false}\n" +
+            "{\"transactionCode\":\"TRANS004\",\"accountCode\":\"ACC002\",\"amount\":\"1000\",\"debit\":true,\"id\":null}\n" +
+            "\n" +
+            "{\"transactionCode\":\"TRANS005\",\"accountCode\":\"ACC001\",\"amount\":500.25,\"is_debit\":\"false\",\"extra\":{\"a\":[1,2]}}\n";
+        when(legalEntityRepository.existsById(1L)).thenReturn(true);
+        when(legalEntityRepository.getReferenceById(1L)).thenReturn(testLegalEntity);
+        when(accountRepository.findByLegalEntity_IdAndCodeIn(eq(1L), anyCollection()))
+            .thenAnswer(invocation -> existingAccounts(invocation.getArgument(1)));
+        when(transactionRepository.findByLegalEntity_IdAndTransactionCodeIn(eq(1L), anyCollection()))
+            .thenAnswer(invocation -> existingTransactions(invocation.getArgument(1)));
+
+        // Act
+        CsvImportResultDTO result = csvImportService.importTransactionLinesNdjson(
+            new ByteArrayInputStream(ndjson.getBytes()), 1L);
+
+        // Assert
+        assertEquals(3, result.getRowsImported());
+        assertEquals(2, result.getChunksCommitted());
+        verify(jdbcTemplate, times(2)).batchUpdate(startsWith("INSERT INTO transaction_lines"), anyList(), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void importTransactionLinesNdjson_MissingAmount_ShouldReportLine() {
+        String ndjson =
+            "{\"transactionCode\":\"TRANS004\",\"accountCode\":\"ACC001\",\"amount\":1000,\"isDebit\":false}\n" +
+            "{\"transactionCode\":\"TRANS004\",\"accountCode\":\"ACC002\",\"isDebit\":true}\n";
+        when(legalEntityRepository.existsById(1L)).thenReturn(true);
+
+        CsvImportException exception = assertThrows(CsvImportException.InvalidJsonFormatException.class, () ->
+            csvImportService.importTransactionLinesNdjson(new ByteArrayInputStream(ndjson.getBytes()), 1L)
+        );
+        assertEquals("Missing amount in JSON record on line 2", exception.getMessage());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList(), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void importTransactionLinesNdjson_NestedValueInAReadField_ShouldReportLine() {
+        String ndjson =
+            "{\"transactionCode\":\"TRANS004\",\"accountCode\":\"ACC001\",\"amount\":1000,\"isDebit\":false}\n" +
+            "{\"transactionCode\":\"TRANS004\",\"accountCode\":{\"code\":\"ACC002\"},\"amount\":1000}\n";
+        when(legalEntityRepository.existsById(1L)).thenReturn(true);
+
+        CsvImportException exception = assertThrows(CsvImportException.InvalidJsonFormatException.class, () ->
+            csvImportService.importTransactionLinesNdjson(new ByteArrayInputStream(ndjson.getBytes()), 1L)
+        );
+        assertEquals("Expected a single value for accountCode in JSON record on line 2 but found an object",
+            exception.getMessage());
+    }
+
+    @Test
+    void importTransactionLinesStreaming_LegalEntityNotFound_ShouldThrowException() {
+        when(legalEntityRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(CsvImportException.LegalEntityNotFoundException.class, () ->
+            csvImportService.importTransactionLinesStreaming(testFile, 99L)
+        );
+    }
+
+    private List<Account> existingAccounts(Collection<String> codes) {
+        return codes.stream()
+            .map(code -> Account.builder()
+                .id((long) code.hashCode())
+                .code(code)
+                .legalEntity(testLegalEntity)
+                .build())
+            .toList();
+    }
+
+    private List<Transaction> existingTransactions(Collection<String> codes) {
+        return codes.stream()
+            .map(code -> Transaction.builder()
+                .id((long) code.hashCode())
+                .transactionCode(code)
+                .legalEntity(testLegalEntity)
+                .build())
+            .toList();
+    }
+}
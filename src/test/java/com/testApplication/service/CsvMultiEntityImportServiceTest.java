@@ -0,0 +1,151 @@
+package com.testApplication.service;
+
+import com.testApplication.dto.CsvImportResultDTO;
+import com.testApplication.dto.CsvMultiEntityImportResultDTO;
+import com.testApplication.exception.CsvImportException;
+import com.testApplication.model.LegalEntity;
+import com.testApplication.repository.LegalEntityRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class CsvMultiEntityImportServiceTest {
+
+    @MockitoBean
+    private CsvImportService csvImportService;
+
+    @MockitoBean
+    private LegalEntityRepository legalEntityRepository;
+
+    @MockitoBean
+    private SecurityService securityService;
+
+    @Autowired
+    private CsvMultiEntityImportService csvMultiEntityImportService;
+
+    @Test
+    @WithMockUser(username = "importer")
+    void importMultiEntity_ShouldImportOnePartitionPerEntity() {
+        // Arrange
+        String csvContent =
+            "legal_entity,transaction_code,account_code,amount,description,is_debit\n" +
+            "Alpha,TRANS001,ACC001,100,\"Deposit, Alpha\",true\n" +
+            "Beta,TRANS002,ACC001,200,Deposit Beta,true\n" +
+            "Alpha,TRANS001,ACC002,100,Transfer Alpha,false\n";
+        when(legalEntityRepository.findByName("Alpha")).thenReturn(Optional.of(LegalEntity.builder().id(1L).build()));
+        when(legalEntityRepository.findByName("Beta")).thenReturn(Optional.of(LegalEntity.builder().id(2L).build()));
+        when(securityService.hasAccessToLegalEntity(any(UserDetails.class),
+            anyLong())).thenReturn(true);
+
+        Map<Long, String> partitions = new ConcurrentHashMap<>();
+        when(csvImportService.importPartition(any(Path.class), anyLong(), any(CsvImportProgress.class), any()))
+            .thenAnswer(invocation -> {
+                Long legalEntityId = invocation.getArgument(1);
+                partitions.put(legalEntityId, Files.readString(invocation.getArgument(0)));
+                return CsvImportResultDTO.builder().legalEntityId(legalEntityId).build();
+            });
+
+        // Act
+        CsvMultiEntityImportResultDTO result = csvMultiEntityImportService.importMultiEntity(stream(csvContent));
+
+        // Assert
+        assertEquals(3, result.getRowsRead());
+        assertEquals(2, result.getResults().size());
+        assertTrue(result.getErrors().isEmpty());
+        assertEquals(
+            "transaction_code,account_code,amount,description,is_debit\n" +
+            "\"TRANS001\",\"ACC001\",100,\"Deposit, Alpha\",true\n" +
+            "\"TRANS001\",\"ACC002\",100,\"Transfer Alpha\",false\n",
+            partitions.get(1L));
+        verify(legalEntityRepository, times(1)).findByName("Alpha");
+        verify(securityService, times(1)).hasAccessToLegalEntity(any(UserDetails.class), eq(1L));
+    }
+
+    @Test
+    @WithMockUser(username = "importer")
+    void importMultiEntity_NoAccessToOneEntity_ShouldNotImportAnything() {
+        String csvContent =
+            "legal_entity_id,transaction_code,account_code,amount,description,is_debit\n" +
+            "1,TRANS001,ACC001,100,Deposit,true\n" +
+            "2,TRANS002,ACC001,200,Deposit,true\n";
+        when(legalEntityRepository.existsById(anyLong())).thenReturn(true);
+        when(securityService.hasAccessToLegalEntity(any(UserDetails.class),
+            eq(1L))).thenReturn(true);
+
+        assertThrows(AccessDeniedException.class, () ->
+            csvMultiEntityImportService.importMultiEntity(stream(csvContent))
+        );
+        verify(csvImportService, never()).importPartition(any(), any(), any(), any());
+    }
+
+    @Test
+    @WithMockUser(username = "importer")
+    void importMultiEntity_ErrorInPartition_ShouldNameTheLineOfTheUpload() {
+        String csvContent =
+            "legal_entity_id,transaction_code,account_code,amount,description,is_debit\n" +
+            "1,TRANS001,ACC001,100,\"Deposit\non two lines\",true\n" +
+            "2,TRANS002,ACC001,200,Deposit,true\n" +
+            "1,TRANS001,ACC002,100,Transfer,false\n" +
+            "2,TRANS002,ACC002,200,\"Transfer\non two lines\",false\n" +
+            "2,TRANS003,ACC003,50,Fee,true\n";
+        when(legalEntityRepository.existsById(anyLong())).thenReturn(true);
+        when(securityService.hasAccessToLegalEntity(any(UserDetails.class), anyLong())).thenReturn(true);
+
+        Map<Long, List<Long>> uploadLines = new ConcurrentHashMap<>();
+        when(csvImportService.importPartition(any(Path.class), anyLong(), any(CsvImportProgress.class), any()))
+            .thenAnswer(invocation -> {
+                Long legalEntityId = invocation.getArgument(1);
+                LongUnaryOperator sourceLines = invocation.getArgument(3);
+                // Records of entity 2 start on partition lines 2, 3 and 5
+                List<Long> partitionLines = legalEntityId == 1L ? List.of(2L, 4L) : List.of(2L, 3L, 5L);
+                uploadLines.put(legalEntityId, partitionLines.stream().map(sourceLines::applyAsLong).toList());
+                if (legalEntityId == 2L) {
+                    throw new CsvImportException.InvalidCsvFormatException(
+                        "Invalid amount on CSV line " + sourceLines.applyAsLong(5) + ": 50");
+                }
+                return CsvImportResultDTO.builder().legalEntityId(legalEntityId).build();
+            });
+
+        CsvMultiEntityImportResultDTO result = csvMultiEntityImportService.importMultiEntity(stream(csvContent));
+
+        assertEquals(List.of(2L, 5L), uploadLines.get(1L));
+        assertEquals(List.of(4L, 6L, 8L), uploadLines.get(2L));
+        assertEquals(Map.of(2L, "Invalid amount on CSV line 8: 50"), result.getErrors());
+    }
+
+    @Test
+    @WithMockUser(username = "importer")
+    void importMultiEntity_SingleEntityHeader_ShouldBeRejected() {
+        String csvContent = "transaction_code,account_code,amount,description,is_debit\n";
+
+        assertThrows(CsvImportException.InvalidCsvFormatException.class, () ->
+            csvMultiEntityImportService.importMultiEntity(stream(csvContent))
+        );
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
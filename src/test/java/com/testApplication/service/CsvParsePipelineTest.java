@@ -0,0 +1,202 @@
+package com.testApplication.service;
+
+import com.testApplication.exception.CsvImportException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Blocks of a few lines and several parser threads, so every import path crosses many blocks
+class CsvParsePipelineTest {
+
+    private static final int BLOCK_SIZE = 36;
+    private static final int QUEUE_CAPACITY = 2;
+
+    private static final ThreadLocal<CsvLineTokenizer> TOKENIZERS = ThreadLocal.withInitial(CsvLineTokenizer::new);
+
+    private final CsvParsePipeline pipeline = new CsvParsePipeline(4, BLOCK_SIZE, QUEUE_CAPACITY);
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    void nextBlock_ShouldReturnRowsInFileOrderWithTheirLineNumbers() {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            csv.append(String.format("row-%04d", i)).append('\n');
+        }
+        // Late lines finish after later blocks, the consumer must still see them first
+        CsvParsePipeline.LineParser slowParser = (chars, start, end, lineNumber) -> {
+            if (lineNumber % 7 == 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+            return row(chars, start, end, lineNumber);
+        };
+
+        List<CsvImportRow> rows = readAll(pipeline.start(new StringReader(csv.toString()), 2,
+                new CsvImportProgress(), slowParser));
+
+        assertEquals(500, rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(String.format("row-%04d", i), rows.get(i).getTransactionCode());
+            assertEquals(i + 2, rows.get(i).getLineNumber());
+        }
+    }
+
+    @Test
+    void nextBlock_RecordLongerThanABlock_ShouldGrowTheBufferAndKeepLineNumbers() {
+        String description = "first line\nsecond, with a comma\nthird \"\"quoted\"\" line that runs past the block";
+        String csv = "T1,ACC1,1.00,short,true\n"
+                + "T2,ACC2,2.00,\"" + description + "\",false\n"
+                + "T3,ACC3,3.00,after,true\n";
+
+        List<CsvImportRow> rows = readAll(pipeline.start(new StringReader(csv), 2, new CsvImportProgress(),
+                CsvParsePipelineTest::parse));
+
+        assertEquals(List.of("T1", "T2", "T3"), rows.stream().map(CsvImportRow::getTransactionCode).toList());
+        assertEquals(description.replace("\"\"", "\""), rows.get(1).getDescription());
+        assertEquals(List.of(2L, 3L, 6L), rows.stream().map(CsvImportRow::getLineNumber).toList());
+    }
+
+    @Test
+    void nextBlock_FromMappedFile_ShouldMatchTheReaderPath() throws Exception {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            csv.append("T").append(i).append(",ACC,").append(i).append(".00,\"multi\nline\",true\n");
+        }
+        Path file = Files.createTempFile("csv-parse-pipeline-", ".csv");
+        try {
+            Files.writeString(file, csv);
+            List<CsvImportRow> rows;
+            try (FileChannel channel = FileChannel.open(file)) {
+                rows = readAll(pipeline.start(channel, 0, 2, new CsvImportProgress(), CsvParsePipelineTest::parse));
+            }
+
+            assertEquals(100, rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                assertEquals("T" + i, rows.get(i).getTransactionCode());
+                assertEquals(2 + 2L * i, rows.get(i).getLineNumber());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void nextBlock_InvalidLine_ShouldHandOverEarlierRowsBeforeFailing() {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            csv.append("T").append(i).append(",ACC,").append(i == 25 ? "abc" : "1.00").append(",d,true\n");
+        }
+        List<CsvImportRow> rows = new ArrayList<>();
+
+        try (CsvParsePipeline.Execution execution = pipeline.start(new StringReader(csv.toString()), 2,
+                new CsvImportProgress(), CsvParsePipelineTest::parse)) {
+            CsvImportException e = assertThrows(CsvImportException.InvalidCsvFormatException.class, () -> {
+                List<CsvImportRow> block;
+                while ((block = execution.nextBlock()) != null) {
+                    rows.addAll(block);
+                }
+            });
+
+            assertEquals("Invalid amount on CSV line 27: abc", e.getMessage());
+        }
+        assertEquals(25, rows.size());
+        assertEquals(26, rows.get(24).getLineNumber());
+    }
+
+    @Test
+    void start_SlowConsumer_ShouldStopReadingAheadOfTheQueue() throws Exception {
+        // Nine characters per row: every block holds exactly four rows
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            csv.append(String.format("row-%04d", i)).append('\n');
+        }
+        CsvImportProgress progress = new CsvImportProgress();
+
+        try (CsvParsePipeline.Execution execution = pipeline.start(new StringReader(csv.toString()), 2, progress,
+                CsvParsePipelineTest::row)) {
+            waitFor(() -> progress.getRowsParsed() >= 4L * QUEUE_CAPACITY);
+            Thread.sleep(200);
+            // The queued blocks plus the one the reader is waiting to queue
+            assertTrue(progress.getRowsParsed() <= 4L * (QUEUE_CAPACITY + 1), "parsed " + progress.getRowsParsed());
+
+            assertEquals(1000, readAll(execution).size());
+        }
+    }
+
+    @Test
+    void close_ShouldCancelPendingParses() throws Exception {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            csv.append(String.format("row-%04d", i)).append('\n');
+        }
+        CountDownLatch parsing = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        AtomicInteger parsed = new AtomicInteger();
+        CsvParsePipeline.LineParser blockingParser = (chars, start, end, lineNumber) -> {
+            parsed.incrementAndGet();
+            parsing.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                Thread.currentThread().interrupt();
+            }
+            return row(chars, start, end, lineNumber);
+        };
+
+        CsvParsePipeline.Execution execution = pipeline.start(new StringReader(csv.toString()), 2,
+                new CsvImportProgress(), blockingParser);
+        assertTrue(parsing.await(5, TimeUnit.SECONDS));
+        execution.close();
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        int parsedAfterClose = parsed.get();
+        Thread.sleep(200);
+        assertEquals(parsedAfterClose, parsed.get());
+        assertTrue(parsedAfterClose < 1000, "parsed " + parsedAfterClose);
+    }
+
+    private static List<CsvImportRow> readAll(CsvParsePipeline.Execution execution) {
+        List<CsvImportRow> rows = new ArrayList<>();
+        try (execution) {
+            List<CsvImportRow> block;
+            while ((block = execution.nextBlock()) != null) {
+                rows.addAll(block);
+            }
+        }
+        return rows;
+    }
+
+    private static CsvImportRow parse(char[] chars, int start, int end, long lineNumber) {
+        return TOKENIZERS.get().parse(chars, start, end, lineNumber);
+    }
+
+    private static CsvImportRow row(char[] chars, int start, int end, long lineNumber) {
+        return new CsvImportRow(lineNumber, new String(chars, start, end - start), null, null, null, false, null);
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not reached in time");
+            Thread.sleep(10);
+        }
+    }
+}
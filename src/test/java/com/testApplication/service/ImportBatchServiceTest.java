@@ -0,0 +1,141 @@
+package com.testApplication.service;
+
+import com.testApplication.dto.CsvImportResultDTO;
+import com.testApplication.dto.CursorPageDTO;
+import com.testApplication.dto.ImportBatchDTO;
+import com.testApplication.dto.TransactionLineDTO;
+import com.testApplication.exception.CsvImportException;
+import com.testApplication.model.ImportBatch;
+import com.testApplication.model.enums.ImportBatchStatusEnum;
+import com.testApplication.repository.ImportBatchRepository;
+import com.testApplication.repository.ImportRecordRepository;
+import com.testApplication.repository.TransactionRepository;
+import com.testApplication.util.SetupTestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: streaming imports commit every chunk in its own transaction
+@SpringBootTest
+class ImportBatchServiceTest extends SetupTestData {
+
+    @Autowired
+    private CsvImportService csvImportService;
+
+    @Autowired
+    private ImportBatchService importBatchService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ImportRecordRepository importRecordRepository;
+
+    @Autowired
+    private ImportBatchRepository importBatchRepository;
+
+    @Test
+    void rollback_ShouldDeleteWhatTheBatchCreatedAndKeepWhatOtherBatchesUse() {
+        String suffix = String.valueOf(System.nanoTime());
+        Long legalEntityId = testLegalEntity.getId();
+        CsvImportResultDTO first = csvImportService.importTransactionLinesStreaming(csvFile(
+                "RB1-" + suffix + ",RBACC1-" + suffix + ",100.00,Debit,true\n"
+                        + "RB1-" + suffix + ",TEST001,100.00,Credit,false\n"), legalEntityId);
+        // A later import books against the account the first one created
+        csvImportService.importTransactionLinesStreaming(csvFile(
+                "RB2-" + suffix + ",RBACC1-" + suffix + ",50.00,Debit,true\n"
+                        + "RB2-" + suffix + ",TEST001,50.00,Credit,false\n"), legalEntityId);
+
+        ImportBatchDTO rolledBack = importBatchService.rollback(first.getImportBatchId());
+
+        assertEquals(ImportBatchStatusEnum.ROLLED_BACK, rolledBack.getStatus());
+        assertEquals(2, rolledBack.getLinesDeleted());
+        assertEquals(1, rolledBack.getTransactionsDeleted());
+        assertEquals(0, rolledBack.getAccountsDeleted());
+        assertEquals(1, rolledBack.getAccountsKept());
+        assertTrue(transactionRepository.findByLegalEntity_IdAndTransactionCodeIn(
+                legalEntityId, List.of("RB1-" + suffix)).isEmpty());
+        assertEquals(1, transactionRepository.findByLegalEntity_IdAndTransactionCodeIn(
+                legalEntityId, List.of("RB2-" + suffix)).size());
+        assertTrue(accountRepository.findByCodeAndLegalEntity_Id("RBACC1-" + suffix, legalEntityId).isPresent());
+        assertTrue(importRecordRepository.findByLegalEntityIdAndFileHash(
+                legalEntityId, rolledBack.getFileHash()).isEmpty());
+    }
+
+    @Test
+    void rollback_Twice_ShouldBeRejected() {
+        String suffix = String.valueOf(System.nanoTime());
+        CsvImportResultDTO result = csvImportService.importTransactionLinesStreaming(csvFile(
+                "RB3-" + suffix + ",RBACC3-" + suffix + ",10.00,Debit,true\n"
+                        + "RB3-" + suffix + ",TEST001,10.00,Credit,false\n"), testLegalEntity.getId());
+
+        ImportBatchDTO rolledBack = importBatchService.rollback(result.getImportBatchId());
+        assertEquals(1, rolledBack.getAccountsDeleted());
+
+        CsvImportException.ImportBatchStateException exception = assertThrows(
+                CsvImportException.ImportBatchStateException.class,
+                () -> importBatchService.rollback(result.getImportBatchId()));
+        assertEquals("INVALID_IMPORT_BATCH_STATE", exception.getCode());
+    }
+
+    @Test
+    void getLines_ShouldPageThroughTheLinesOfTheBatch() {
+        String suffix = String.valueOf(System.nanoTime());
+        CsvImportResultDTO result = csvImportService.importTransactionLinesStreaming(csvFile(
+                "RB5-" + suffix + ",TEST001,10.00,First,true\n"
+                        + "RB5-" + suffix + ",PARENT001,4.00,Second,false\n"
+                        + "RB5-" + suffix + ",PARENT001,6.00,Third,false\n"), testLegalEntity.getId());
+
+        CursorPageDTO<TransactionLineDTO> first = importBatchService.getLines(result.getImportBatchId(), null, 2);
+        CursorPageDTO<TransactionLineDTO> second = importBatchService.getLines(result.getImportBatchId(),
+                first.getNextCursor(), 2);
+
+        assertEquals(List.of("First", "Second"),
+                first.getItems().stream().map(TransactionLineDTO::getDescription).toList());
+        assertTrue(first.isHasMore());
+        assertEquals(List.of("Third"),
+                second.getItems().stream().map(TransactionLineDTO::getDescription).toList());
+        assertFalse(second.isHasMore());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void rollback_RunningBatch_ShouldWaitUntilItsHeartbeatStops() {
+        String suffix = String.valueOf(System.nanoTime());
+        CsvImportResultDTO result = csvImportService.importTransactionLinesStreaming(csvFile(
+                "RB4-" + suffix + ",RBACC4-" + suffix + ",10.00,Debit,true\n"
+                        + "RB4-" + suffix + ",TEST001,10.00,Credit,false\n"), testLegalEntity.getId());
+        // As left behind by an import whose JVM died after committing its chunk
+        ImportBatch batch = importBatchRepository.findById(result.getImportBatchId()).orElseThrow();
+        batch.setStatus(ImportBatchStatusEnum.RUNNING);
+        batch.setHeartbeatAt(Instant.now());
+        batch.setFinishedAt(null);
+        importBatchRepository.save(batch);
+
+        assertThrows(CsvImportException.ImportBatchStateException.class,
+                () -> importBatchService.rollback(batch.getId()));
+
+        batch.setHeartbeatAt(Instant.now().minus(Duration.ofHours(1)));
+        importBatchRepository.save(batch);
+        ImportBatchDTO rolledBack = importBatchService.rollback(batch.getId());
+
+        assertEquals(ImportBatchStatusEnum.ROLLED_BACK, rolledBack.getStatus());
+        assertEquals(2, rolledBack.getLinesDeleted());
+        assertEquals(1, rolledBack.getTransactionsDeleted());
+        // An import that was only stalled stops at its next chunk
+        assertThrows(CsvImportException.ImportBatchStateException.class,
+                () -> importBatchService.heartbeat(batch.getId()));
+    }
+
+    private static MockMultipartFile csvFile(String lines) {
+        return new MockMultipartFile("file", "batch.csv", "text/csv",
+                ("transaction_code,account_code,amount,description,is_debit\n" + lines).getBytes());
+    }
+}
@@ -0,0 +1,94 @@
+package com.testApplication.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testApplication.model.Transaction;
+import com.testApplication.model.TransactionLine;
+import com.testApplication.model.enums.ExportFormatEnum;
+import com.testApplication.repository.TransactionLineRepository;
+import com.testApplication.repository.TransactionRepository;
+import com.testApplication.util.SetupTestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: the export reads in its own transaction, which must see the test data
+@SpringBootTest
+class TransactionExportServiceTest extends SetupTestData {
+
+    @Autowired
+    private TransactionExportService exportService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionLineRepository transactionLineRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+    @BeforeEach
+    void setUpLines() {
+        Transaction transaction = transactionRepository.save(
+                CsvImportService.newImportedTransaction("EXPORT001", testLegalEntity, null));
+        transactionLineRepository.save(TransactionLine.builder()
+                .transaction(transaction)
+                .account(testAccount)
+                .amount(new BigDecimal("125.50"))
+                .description("Rent, March")
+                .isDebit(true)
+                .build());
+    }
+
+    @Test
+    void exportTransactionLines_Csv_ShouldWriteHeaderAndQuotedRows() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportTransactionLines(testLegalEntity.getId(), today, today, ExportFormatEnum.CSV)
+                .writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("transaction_code,account_code,amount,description,is_debit,line_id,transaction_date,currency",
+                lines[0]);
+        assertTrue(lines[1].startsWith("EXPORT001,TEST001,125.5000,\"Rent, March\",true,"), lines[1]);
+    }
+
+    @Test
+    void exportTransactions_Json_ShouldWriteArray() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportTransactions(testLegalEntity.getId(), today, today, ExportFormatEnum.JSON)
+                .writeTo(out);
+
+        JsonNode rows = objectMapper.readTree(out.toByteArray());
+        assertEquals(1, rows.size());
+        assertEquals("EXPORT001", rows.get(0).get("transactionCode").asText());
+    }
+
+    @Test
+    void exportTransactions_OutsideDateRange_ShouldWriteNoRows() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportTransactions(testLegalEntity.getId(), today.minusDays(10), today.minusDays(1),
+                ExportFormatEnum.JSON).writeTo(out);
+
+        assertEquals("[]", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exportTransactions_FromAfterTo_ShouldBeRejected() {
+        assertThrows(ResponseStatusException.class, () -> exportService.exportTransactions(
+                testLegalEntity.getId(), today, today.minusDays(1), ExportFormatEnum.CSV));
+    }
+}
@@ -1,5 +1,6 @@
 package com.testApplication.service;
 
+import com.testApplication.dto.CursorPageDTO;
 import com.testApplication.model.TransactionLine;
 import com.testApplication.model.Transaction;
 import com.testApplication.model.Account;
@@ -8,8 +9,11 @@ import com.testApplication.repository.TransactionRepository;
 import com.testApplication.repository.AccountRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
 import java.math.BigDecimal;
@@ -37,6 +41,9 @@ class TransactionLineServiceTest {
     @MockitoBean
     private AccountRepository accountRepository;
 
+    @MockitoBean
+    private AccountBalanceService accountBalanceService;
+
     private TransactionLine testTransactionLine;
     private Transaction testTransaction;
     private Account testAccount;
@@ -84,6 +91,7 @@ class TransactionLineServiceTest {
         assertEquals(testTransaction, result.getTransaction());
         assertEquals(testAccount, result.getAccount());
         verify(transactionLineRepository).save(any(TransactionLine.class));
+        verify(accountBalanceService).addLines(List.of(testTransactionLine));
     }
 
     @Test
@@ -140,31 +148,36 @@ class TransactionLineServiceTest {
     @Test
     void getAllTransactionLines_ShouldReturnList() {
         // Arrange
-        when(transactionLineRepository.findAll()).thenReturn(Arrays.asList(testTransactionLine));
+        when(transactionLineRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(51)))
+            .thenReturn(Arrays.asList(testTransactionLine));
 
         // Act
-        List<TransactionLine> result = transactionLineService.getAllTransactionLines();
+        CursorPageDTO<TransactionLine> result = transactionLineService.getAllTransactionLines(null, null);
 
         // Assert
-        assertFalse(result.isEmpty());
-        assertEquals(1, result.size());
-        verify(transactionLineRepository).findAll();
+        assertEquals(1, result.getItems().size());
+        assertFalse(result.isHasMore());
+        verify(transactionLineRepository).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(51));
     }
 
     @Test
     void getTransactionLinesByTransaction_WhenTransactionExists_ShouldReturnList() {
         // Arrange
         when(transactionRepository.findById(1L)).thenReturn(Optional.of(testTransaction));
-        when(transactionLineRepository.findByTransaction(testTransaction))
+        when(transactionLineRepository.findByTransactionAndIdGreaterThanOrderByIdAsc(
+                testTransaction, 0L, Limit.of(51)))
             .thenReturn(Arrays.asList(testTransactionLine));
 
         // Act
-        List<TransactionLine> result = transactionLineService.getTransactionLinesByTransaction(1L);
+        CursorPageDTO<TransactionLine> result =
+                transactionLineService.getTransactionLinesByTransaction(1L, null, null);
 
         // Assert
-        assertFalse(result.isEmpty());
-        assertEquals(1, result.size());
-        verify(transactionLineRepository).findByTransaction(testTransaction);
+        assertFalse(result.getItems().isEmpty());
+        assertEquals(1, result.getItems().size());
+        assertFalse(result.isHasMore());
+        verify(transactionLineRepository).findByTransactionAndIdGreaterThanOrderByIdAsc(
+                testTransaction, 0L, Limit.of(51));
     }
 
     @Test
@@ -174,7 +187,7 @@ class TransactionLineServiceTest {
 
         // Act & Assert
         assertThrows(RuntimeException.class, () -> 
-            transactionLineService.getTransactionLinesByTransaction(99L)
+            transactionLineService.getTransactionLinesByTransaction(99L, null, null)
         );
     }
 
@@ -182,16 +195,17 @@ class TransactionLineServiceTest {
     void getTransactionLinesByAccount_WhenAccountExists_ShouldReturnList() {
         // Arrange
         when(accountRepository.findById(1L)).thenReturn(Optional.of(testAccount));
-        when(transactionLineRepository.findByAccount(testAccount))
+        when(transactionLineRepository.findByAccountAndIdGreaterThanOrderByIdAsc(testAccount, 0L, Limit.of(51)))
             .thenReturn(Arrays.asList(testTransactionLine));
 
         // Act
-        List<TransactionLine> result = transactionLineService.getTransactionLinesByAccount(1L);
+        CursorPageDTO<TransactionLine> result = transactionLineService.getTransactionLinesByAccount(1L, null, null);
 
         // Assert
-        assertFalse(result.isEmpty());
-        assertEquals(1, result.size());
-        verify(transactionLineRepository).findByAccount(testAccount);
+        assertFalse(result.getItems().isEmpty());
+        assertEquals(1, result.getItems().size());
+        assertFalse(result.isHasMore());
+        verify(transactionLineRepository).findByAccountAndIdGreaterThanOrderByIdAsc(testAccount, 0L, Limit.of(51));
     }
 
     @Test
@@ -201,7 +215,7 @@ class TransactionLineServiceTest {
 
         // Act & Assert
         assertThrows(RuntimeException.class, () -> 
-            transactionLineService.getTransactionLinesByAccount(99L)
+            transactionLineService.getTransactionLinesByAccount(99L, null, null)
         );
     }
 
@@ -230,6 +244,41 @@ class TransactionLineServiceTest {
         verify(transactionLineRepository).save(any(TransactionLine.class));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void updateTransactionLine_ShouldMoveTheBalanceFromTheOldAmountToTheNewOne() {
+        // Arrange
+        when(transactionLineRepository.findById(1L)).thenReturn(Optional.of(testTransactionLine));
+        when(transactionLineRepository.save(any(TransactionLine.class)))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+        TransactionLine updatedLine = TransactionLine.builder()
+            .amount(BigDecimal.valueOf(40.00))
+            .description("Updated Description")
+            .isDebit(false)
+            .build();
+
+        // Act
+        transactionLineService.updateTransactionLine(1L, updatedLine);
+
+        // Assert
+        ArgumentCaptor<List<TransactionLine>> removed = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<TransactionLine>> added = ArgumentCaptor.forClass(List.class);
+        InOrder order = inOrder(accountBalanceService, transactionLineRepository);
+        order.verify(accountBalanceService).removeLines(removed.capture());
+        order.verify(transactionLineRepository).save(any(TransactionLine.class));
+        order.verify(accountBalanceService).addLines(added.capture());
+
+        TransactionLine oldLine = removed.getValue().get(0);
+        assertEquals(BigDecimal.valueOf(100.00), oldLine.getAmount());
+        assertTrue(oldLine.isDebit());
+        assertEquals(testAccount, oldLine.getAccount());
+        assertEquals(testTransaction, oldLine.getTransaction());
+        TransactionLine newLine = added.getValue().get(0);
+        assertEquals(BigDecimal.valueOf(40.00), newLine.getAmount());
+        assertFalse(newLine.isDebit());
+        assertEquals(testAccount, newLine.getAccount());
+    }
+
     @Test
     void updateTransactionLine_WithInvalidId_ShouldThrowException() {
         // Arrange
@@ -253,4 +302,14 @@ class TransactionLineServiceTest {
         // Verify
         verify(transactionLineRepository).deleteById(1L);
     }
+
+    @Test
+    void deleteTransactionLine_ShouldRemoveLineFromBalances() {
+        when(transactionLineRepository.findById(1L)).thenReturn(Optional.of(testTransactionLine));
+
+        transactionLineService.deleteTransactionLine(1L);
+
+        verify(accountBalanceService).removeLines(List.of(testTransactionLine));
+        verify(transactionLineRepository).deleteById(1L);
+    }
 }
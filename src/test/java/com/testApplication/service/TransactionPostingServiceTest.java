@@ -0,0 +1,95 @@
+package com.testApplication.service;
+
+import com.testApplication.dto.TransactionPostingDTO;
+import com.testApplication.dto.TransactionPostingResultDTO;
+import com.testApplication.exception.TransactionPostingException;
+import com.testApplication.model.Transaction;
+import com.testApplication.repository.TransactionLineRepository;
+import com.testApplication.repository.TransactionRepository;
+import com.testApplication.util.SetupTestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TransactionPostingServiceTest extends SetupTestData {
+
+    @Autowired
+    private TransactionPostingService postingService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionLineRepository transactionLineRepository;
+
+    @Test
+    void postTransactions_Balanced_ShouldInsertHeadersAndLines() {
+        TransactionPostingResultDTO result = postingService.postTransactions(testLegalEntity.getId(), List.of(
+                transaction("BULK001", "100.00", "100.00"),
+                transaction("BULK002", "25.50", "25.50")));
+
+        assertEquals(2, result.getTransactionsCreated());
+        assertEquals(4, result.getLinesCreated());
+        Transaction posted = transactionRepository
+                .findByTransactionCodeAndLegalEntity_Id("BULK001", testLegalEntity.getId())
+                .orElseThrow();
+        assertEquals(result.getTransactionIds().get("BULK001"), posted.getId());
+        assertEquals(0, new BigDecimal("100.00").compareTo(posted.getAmount()));
+        assertEquals("PENDING", posted.getApprovalStatus());
+        assertEquals(2, transactionLineRepository.findByTransaction(posted).size());
+    }
+
+    @Test
+    void postTransactions_WithInvalidTransaction_ShouldPostNothing() {
+        TransactionPostingDTO unknownAccount = transaction("BULK004", "10.00", "10.00");
+        unknownAccount.getLines().get(0).setAccountCode("MISSING");
+
+        TransactionPostingException.ValidationException e = assertThrows(
+                TransactionPostingException.ValidationException.class,
+                () -> postingService.postTransactions(testLegalEntity.getId(), List.of(
+                        transaction("BULK003", "100.00", "90.00"),
+                        unknownAccount,
+                        transaction("BULK005", "5.00", "5.00"))));
+
+        assertEquals(2, e.getErrors().size());
+        assertTrue(e.getErrors().get(0).contains("do not balance"), e.getErrors().get(0));
+        assertTrue(e.getErrors().get(1).contains("account MISSING not found"), e.getErrors().get(1));
+        assertTrue(transactionRepository.findByLegalEntity_Id(testLegalEntity.getId()).isEmpty());
+    }
+
+    @Test
+    void postTransactions_WithExistingCode_ShouldBeRejected() {
+        postingService.postTransactions(testLegalEntity.getId(), List.of(transaction("BULK006", "1.00", "1.00")));
+
+        assertThrows(TransactionPostingException.ValidationException.class,
+                () -> postingService.postTransactions(testLegalEntity.getId(),
+                        List.of(transaction("BULK006", "1.00", "1.00"))));
+    }
+
+    private TransactionPostingDTO transaction(String code, String debit, String credit) {
+        return TransactionPostingDTO.builder()
+                .transactionCode(code)
+                .transactionType("TRANSFER")
+                .date(Instant.now())
+                .currency("USD")
+                .lines(List.of(
+                        TransactionPostingDTO.Line.builder()
+                                .accountCode(testAccount.getCode())
+                                .amount(new BigDecimal(debit))
+                                .isDebit(true)
+                                .build(),
+                        TransactionPostingDTO.Line.builder()
+                                .accountCode(testParentAccount.getCode())
+                                .amount(new BigDecimal(credit))
+                                .isDebit(false)
+                                .build()))
+                .build();
+    }
+}
@@ -0,0 +1,128 @@
+package com.testApplication.service;
+
+import com.testApplication.util.SetupTestData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that each shape of the transaction search is answered from its composite index. Needs a
+ * scratch PostgreSQL database, whose schema is recreated:
+ * {@code mvn test -Dtest=TransactionSearchPlanPostgresTest -Dpostgres.url=jdbc:postgresql://localhost:5432/plans
+ * -Dpostgres.username=test -Dpostgres.password=test}
+ * <p>
+ * The test tables hold a handful of rows, so sequential scans are switched off to make the planner
+ * show which index it would use on a real table.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "postgres.url", matches = ".+")
+class TransactionSearchPlanPostgresTest extends SetupTestData {
+
+    private static final String SELECT = "SELECT t.id FROM transactions t WHERE t.legal_entity_id = ";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getProperty("postgres.url"));
+        registry.add("spring.datasource.username", () -> System.getProperty("postgres.username", "test"));
+        registry.add("spring.datasource.password", () -> System.getProperty("postgres.password", "test"));
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @Test
+    void dateRangeSortedByDate_ShouldUseLegalEntityDateIndex() {
+        String plan = plan(SELECT + testLegalEntity.getId()
+                + " AND t.date >= now() - interval '30 days' AND t.date < now()"
+                + " ORDER BY t.date DESC, t.id DESC LIMIT 51");
+
+        assertTrue(plan.contains("idx_transactions_legal_entity_date"), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+
+    @Test
+    void approvalStatus_ShouldUseStatusIndex() {
+        String plan = plan(SELECT + testLegalEntity.getId()
+                + " AND t.approval_status = 'PENDING' AND t.date >= now() - interval '30 days'"
+                + " ORDER BY t.date DESC, t.id DESC LIMIT 51");
+
+        assertTrue(plan.contains("idx_transactions_search_status"), plan);
+    }
+
+    @Test
+    void transactionType_ShouldUseTypeIndex() {
+        String plan = plan(SELECT + testLegalEntity.getId()
+                + " AND t.transaction_type = 'PAYMENT' ORDER BY t.date DESC, t.id DESC LIMIT 51");
+
+        assertTrue(plan.contains("idx_transactions_search_type"), plan);
+    }
+
+    @Test
+    void customer_ShouldUseCustomerIndex() {
+        String plan = plan(SELECT + testLegalEntity.getId()
+                + " AND t.customer_id = 1 ORDER BY t.date DESC, t.id DESC LIMIT 51");
+
+        assertTrue(plan.contains("idx_transactions_search_customer"), plan);
+    }
+
+    @Test
+    void amountRangeSortedByAmount_ShouldUseAmountIndex() {
+        String plan = plan(SELECT + testLegalEntity.getId()
+                + " AND t.amount >= 100 AND t.amount <= 500 AND t.currency = 'USD'"
+                + " ORDER BY t.amount, t.id LIMIT 51");
+
+        assertTrue(plan.contains("idx_transactions_search_amount"), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+
+    @Test
+    void laterPageSortedByDate_ShouldSeekToTheCursorInTheDateIndex() {
+        String plan = plan(SELECT + testLegalEntity.getId()
+                + " AND t.date <= timestamptz '2024-06-01 00:00:00+00'"
+                + " AND (t.date < timestamptz '2024-06-01 00:00:00+00'"
+                + " OR (t.date = timestamptz '2024-06-01 00:00:00+00' AND t.id < 1000))"
+                + " ORDER BY t.date DESC, t.id DESC LIMIT 51");
+
+        assertTrue(plan.contains("idx_transactions_legal_entity_date"), plan);
+        assertTrue(indexCondition(plan).contains("date <="), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+
+    @Test
+    void laterPageSortedByAmount_ShouldSeekToTheCursorInTheAmountIndex() {
+        String plan = plan(SELECT + testLegalEntity.getId()
+                + " AND t.amount >= 250 AND (t.amount > 250 OR (t.amount = 250 AND t.id > 1000))"
+                + " ORDER BY t.amount, t.id LIMIT 51");
+
+        assertTrue(plan.contains("idx_transactions_search_amount"), plan);
+        assertTrue(indexCondition(plan).contains("amount >="), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+
+    private static String indexCondition(String plan) {
+        return plan.lines()
+                .filter(line -> line.trim().startsWith("Index Cond:"))
+                .findFirst()
+                .orElse("");
+    }
+
+    private String plan(String sql) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+        });
+    }
+}
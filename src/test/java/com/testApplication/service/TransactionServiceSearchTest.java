@@ -0,0 +1,102 @@
+package com.testApplication.service;
+
+import com.testApplication.dto.CursorPageDTO;
+import com.testApplication.dto.TransactionDTO;
+import com.testApplication.dto.TransactionSearchCriteriaDTO;
+import com.testApplication.model.Transaction;
+import com.testApplication.model.enums.TransactionSortEnum;
+import com.testApplication.repository.TransactionRepository;
+import com.testApplication.util.SetupTestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the specifications against H2; TransactionServiceTest covers the mocked paths
+@SpringBootTest
+class TransactionServiceSearchTest extends SetupTestData {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private final Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @BeforeEach
+    void setUpTransactions() {
+        for (int i = 1; i <= 5; i++) {
+            Transaction transaction = CsvImportService.newImportedTransaction("SEARCH00" + i, testLegalEntity, null);
+            transaction.setDate(now.minus(i, ChronoUnit.HOURS));
+            transaction.setAmount(new BigDecimal(i * 10));
+            transaction.setApprovalStatus(i % 2 == 0 ? "APPROVED" : "PENDING");
+            transaction.setCurrency(i == 5 ? "EUR" : "USD");
+            transactionRepository.save(transaction);
+        }
+    }
+
+    @Test
+    void searchTransactions_ShouldApplyFilters() {
+        CursorPageDTO<TransactionDTO> page = transactionService.searchTransactions(testLegalEntity.getId(),
+                TransactionSearchCriteriaDTO.builder()
+                        .approvalStatus("PENDING")
+                        .currency("USD")
+                        .minAmount(new BigDecimal("20"))
+                        .build(),
+                null, null);
+
+        assertEquals(List.of("SEARCH003"), codes(page));
+        assertFalse(page.isHasMore());
+    }
+
+    @Test
+    void searchTransactions_ShouldPageInSortOrder() {
+        TransactionSearchCriteriaDTO criteria = TransactionSearchCriteriaDTO.builder()
+                .sort(TransactionSortEnum.AMOUNT_DESC)
+                .build();
+        List<String> codes = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageDTO<TransactionDTO> page =
+                    transactionService.searchTransactions(testLegalEntity.getId(), criteria, cursor, 2);
+            codes.addAll(codes(page));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of("SEARCH005", "SEARCH004", "SEARCH003", "SEARCH002", "SEARCH001"), codes);
+    }
+
+    @Test
+    void searchTransactions_DefaultSort_ShouldBeNewestFirst() {
+        CursorPageDTO<TransactionDTO> page = transactionService.searchTransactions(testLegalEntity.getId(),
+                new TransactionSearchCriteriaDTO(), null, 2);
+
+        assertEquals(List.of("SEARCH001", "SEARCH002"), codes(page));
+        assertTrue(page.isHasMore());
+    }
+
+    @Test
+    void searchTransactions_WithCursorOfOtherSort_ShouldBeRejected() {
+        CursorPageDTO<TransactionDTO> page = transactionService.searchTransactions(testLegalEntity.getId(),
+                new TransactionSearchCriteriaDTO(), null, 2);
+
+        assertThrows(ResponseStatusException.class, () -> transactionService.searchTransactions(
+                testLegalEntity.getId(),
+                TransactionSearchCriteriaDTO.builder().sort(TransactionSortEnum.AMOUNT_ASC).build(),
+                page.getNextCursor(), 2));
+    }
+
+    private static List<String> codes(CursorPageDTO<TransactionDTO> page) {
+        return page.getItems().stream().map(TransactionDTO::getTransactionCode).toList();
+    }
+}
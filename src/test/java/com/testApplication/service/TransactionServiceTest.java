@@ -1,5 +1,6 @@
 package com.testApplication.service;
 
+import com.testApplication.dto.CursorPageDTO;
 import com.testApplication.dto.TransactionDTO;
 import com.testApplication.model.Transaction;
 import com.testApplication.model.Customer;
@@ -12,6 +13,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -25,6 +27,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -107,19 +110,46 @@ class TransactionServiceTest {
     @Test
     void getAllTransactions_ShouldReturnList() {
         // Arrange
-        when(transactionRepository.findAll()).thenReturn(Arrays.asList(testTransaction));
+        when(transactionRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(51)))
+            .thenReturn(Arrays.asList(testTransaction));
         when(transactionMapper.toDTOList(any())).thenReturn(Arrays.asList(testTransactionDTO));
 
         // Act
-        List<TransactionDTO> result = transactionService.getAllTransactions();
+        CursorPageDTO<TransactionDTO> result = transactionService.getAllTransactions(null, null);
 
         // Assert
-        assertFalse(result.isEmpty());
-        assertEquals(1, result.size());
-        verify(transactionRepository).findAll();
+        assertEquals(1, result.getItems().size());
+        assertFalse(result.isHasMore());
+        assertNull(result.getNextCursor());
+        verify(transactionRepository).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(51));
         verify(transactionMapper).toDTOList(any());
     }
 
+    @Test
+    void getAllTransactions_WithMoreRowsThanPageSize_ShouldReturnCursorOfLastRow() {
+        // Arrange
+        Transaction second = Transaction.builder().id(2L).build();
+        Transaction third = Transaction.builder().id(3L).build();
+        when(transactionRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class)))
+            .thenReturn(Arrays.asList(testTransaction, second, third));
+        when(transactionMapper.toDTOList(any())).thenAnswer(invocation ->
+            ((List<?>) invocation.getArgument(0)).stream().map(t -> testTransactionDTO).toList());
+
+        // Act
+        CursorPageDTO<TransactionDTO> firstPage = transactionService.getAllTransactions(null, 2);
+        when(transactionRepository.findByIdGreaterThanOrderByIdAsc(eq(2L), any(Limit.class)))
+            .thenReturn(Arrays.asList(third));
+        CursorPageDTO<TransactionDTO> secondPage = transactionService.getAllTransactions(firstPage.getNextCursor(), 2);
+
+        // Assert
+        assertEquals(2, firstPage.getSize());
+        assertTrue(firstPage.isHasMore());
+        assertEquals(1, secondPage.getSize());
+        assertFalse(secondPage.isHasMore());
+        verify(transactionRepository).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3));
+        verify(transactionRepository).findByIdGreaterThanOrderByIdAsc(2L, Limit.of(3));
+    }
+
     @Test
     void getTransactionById_WhenExists_ShouldReturnTransaction() {
         // Arrange
@@ -250,28 +280,27 @@ class TransactionServiceTest {
     @Test
     void getTransactionsByCustomer_WhenCustomerExists_ShouldReturnList() {
         // Arrange
-        when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
-        when(transactionRepository.findByCustomer(testCustomer))
+        when(customerRepository.existsById(1L)).thenReturn(true);
+        when(transactionRepository.findByCustomer_IdAndIdGreaterThanOrderByIdAsc(eq(1L), eq(0L), any(Limit.class)))
             .thenReturn(Arrays.asList(testTransaction));
         when(transactionMapper.toDTOList(any())).thenReturn(Arrays.asList(testTransactionDTO));
 
         // Act
-        List<TransactionDTO> result = transactionService.getTransactionsByCustomer(1L);
+        CursorPageDTO<TransactionDTO> result = transactionService.getTransactionsByCustomer(1L, null, null);
 
         // Assert
-        assertFalse(result.isEmpty());
-        assertEquals(1, result.size());
-        verify(transactionRepository).findByCustomer(testCustomer);
+        assertEquals(1, result.getItems().size());
+        verify(transactionRepository).findByCustomer_IdAndIdGreaterThanOrderByIdAsc(eq(1L), eq(0L), any(Limit.class));
     }
 
     @Test
     void getTransactionsByCustomer_WhenCustomerNotExists_ShouldThrowException() {
         // Arrange
-        when(customerRepository.findById(99L)).thenReturn(Optional.empty());
+        when(customerRepository.existsById(99L)).thenReturn(false);
 
         // Act & Assert
         assertThrows(RuntimeException.class, () -> 
-            transactionService.getTransactionsByCustomer(99L)
+            transactionService.getTransactionsByCustomer(99L, null, null)
         );
     }
 
@@ -0,0 +1,114 @@
+package com.testApplication.service;
+
+import com.testApplication.dto.TransactionPostingDTO;
+import com.testApplication.dto.TrialBalanceDTO;
+import com.testApplication.util.SetupTestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: cached reports are only dropped once a posting commits
+@SpringBootTest
+class TrialBalanceServiceTest extends SetupTestData {
+
+    @Autowired
+    private TrialBalanceService trialBalanceService;
+
+    @Autowired
+    private TransactionPostingService transactionPostingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+    @Test
+    void getTrialBalance_ShouldGroupLinesPerAccountAndCurrency() {
+        transactionPostingService.postTransactions(testLegalEntity.getId(), List.of(
+                transaction("TB001", "USD", "100.00"),
+                transaction("TB002", "USD", "40.00"),
+                transaction("TB003", "EUR", "7.50")));
+
+        TrialBalanceDTO report = trialBalanceService.getTrialBalance(testLegalEntity.getId(), today);
+
+        assertEquals(4, report.getLines().size());
+        TrialBalanceDTO.Line first = report.getLines().get(0);
+        assertEquals("EUR", first.getCurrency());
+        assertEquals(testParentAccount.getCode(), first.getAccountCode());
+        assertEquals(0, new BigDecimal("-7.50").compareTo(first.getBalance()));
+        TrialBalanceDTO.Line usdDebits = report.getLines().get(3);
+        assertEquals(testAccount.getCode(), usdDebits.getAccountCode());
+        assertEquals(0, new BigDecimal("140.00").compareTo(usdDebits.getDebitTotal()));
+
+        assertEquals(List.of("EUR", "USD"),
+                report.getTotals().stream().map(TrialBalanceDTO.CurrencyTotal::getCurrency).toList());
+        assertTrue(report.getTotals().stream().allMatch(TrialBalanceDTO.CurrencyTotal::isBalanced));
+    }
+
+    @Test
+    void getTrialBalance_ShouldLeaveOutLaterTransactions() {
+        transactionPostingService.postTransactions(testLegalEntity.getId(),
+                List.of(transaction("TB004", "USD", "10.00")));
+
+        assertTrue(trialBalanceService.getTrialBalance(testLegalEntity.getId(), today.minusDays(1))
+                .getLines().isEmpty());
+    }
+
+    @Test
+    void getTrialBalance_ShouldBeCachedUntilTheLedgerChanges() {
+        transactionPostingService.postTransactions(testLegalEntity.getId(),
+                List.of(transaction("TB005", "USD", "10.00")));
+
+        TrialBalanceDTO first = trialBalanceService.getTrialBalance(testLegalEntity.getId(), today);
+        assertSame(first, trialBalanceService.getTrialBalance(testLegalEntity.getId(), today));
+
+        transactionPostingService.postTransactions(testLegalEntity.getId(),
+                List.of(transaction("TB006", "USD", "5.00")));
+
+        TrialBalanceDTO second = trialBalanceService.getTrialBalance(testLegalEntity.getId(), today);
+        assertNotSame(first, second);
+        assertEquals(0, new BigDecimal("15.00").compareTo(second.getTotals().get(0).getDebitTotal()));
+    }
+
+    @Test
+    void getTrialBalance_ShouldNotServeACachedReportAfterAChangeCommittedElsewhere() {
+        transactionPostingService.postTransactions(testLegalEntity.getId(),
+                List.of(transaction("TB007", "USD", "10.00")));
+        TrialBalanceDTO first = trialBalanceService.getTrialBalance(testLegalEntity.getId(), today);
+
+        // Another instance posting publishes its event there; only the persisted version changes here
+        jdbcTemplate.update("UPDATE legal_entities SET ledger_version = ledger_version + 1 WHERE id = ?",
+                testLegalEntity.getId());
+
+        assertNotSame(first, trialBalanceService.getTrialBalance(testLegalEntity.getId(), today));
+    }
+
+    private TransactionPostingDTO transaction(String code, String currency, String amount) {
+        return TransactionPostingDTO.builder()
+                .transactionCode(code)
+                .transactionType("TRANSFER")
+                .date(Instant.now())
+                .currency(currency)
+                .lines(List.of(
+                        TransactionPostingDTO.Line.builder()
+                                .accountCode(testAccount.getCode())
+                                .amount(new BigDecimal(amount))
+                                .isDebit(true)
+                                .build(),
+                        TransactionPostingDTO.Line.builder()
+                                .accountCode(testParentAccount.getCode())
+                                .amount(new BigDecimal(amount))
+                                .isDebit(false)
+                                .build()))
+                .build();
+    }
+}